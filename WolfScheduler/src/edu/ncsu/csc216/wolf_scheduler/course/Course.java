@@ -5,7 +5,7 @@ package edu.ncsu.csc216.wolf_scheduler.course;
 
 /**
  * Class to create, edit, and return a Course's title, section, credit hours, instructor ID,
- * meeting days, start time, and end time
+ * meeting days, start time, end time, and seat capacity
  * 
  * @author Ben Morris
  */
@@ -31,6 +31,18 @@ public class Course {
 	private static final int UPPER_HOUR = 24;
 	/** Upper bound on time in minutes */
 	private static final int UPPER_MINUTE = 60;
+	/** Bit for Monday in a meeting days mask */
+	public static final int MONDAY = 1;
+	/** Bit for Tuesday in a meeting days mask */
+	public static final int TUESDAY = 1 << 1;
+	/** Bit for Wednesday in a meeting days mask */
+	public static final int WEDNESDAY = 1 << 2;
+	/** Bit for Thursday in a meeting days mask */
+	public static final int THURSDAY = 1 << 3;
+	/** Bit for Friday in a meeting days mask */
+	public static final int FRIDAY = 1 << 4;
+	/** Capacity of a section with no limit on its seats */
+	public static final int UNLIMITED_CAPACITY = 0;
 	
 	/** Course's name. */
 	private String name;
@@ -48,6 +60,18 @@ public class Course {
 	private int startTime;
 	/** Course's ending time */
 	private int endTime;
+	/** Course's seat capacity, UNLIMITED_CAPACITY if there is no limit.  Set only when created. */
+	private final int capacity;
+	/** Course's meeting days as a mask of day bits, 0 if arranged */
+	private int meetingDaysMask;
+	/** Course's starting time in minutes since midnight */
+	private int startMinutes;
+	/** Course's ending time in minutes since midnight */
+	private int endMinutes;
+	/** Cached result of getMeetingString(), or null if it must be rebuilt */
+	private String meetingString;
+	/** Cached result of toString(), or null if it must be rebuilt */
+	private String recordString;
 
 	/**
 	 * Constructs a course object with values for all fields
@@ -62,12 +86,35 @@ public class Course {
 	 */
 	public Course(String name, String title, String section, int credits, String instructorId, String meetingDays,
 			int startTime, int endTime) {
+		this(name, title, section, credits, instructorId, meetingDays, startTime, endTime, UNLIMITED_CAPACITY);
+	}
+
+	/**
+	 * Constructs a course object with values for all fields, including its seat capacity.  The
+	 * capacity can't be changed afterwards, since catalog Courses are shared by every scheduler;
+	 * a catalog changes it by replacing the Course, such as with CatalogDelta.update().
+	 * @param name name of the course
+	 * @param title title of the course
+	 * @param section course's section
+	 * @param credits # of credits the course is worth
+	 * @param instructorId instructor's ID
+	 * @param meetingDays days the class meets
+	 * @param startTime time the class starts
+	 * @param endTime time the class ends
+	 * @param capacity number of seats in the section, or UNLIMITED_CAPACITY
+	 * @throws IllegalArgumentException "Invalid capacity." if the capacity is negative
+	 */
+	public Course(String name, String title, String section, int credits, String instructorId, String meetingDays,
+			int startTime, int endTime, int capacity) {
 		setName(name);
 		setTitle(title);
 		setSection(section);
 		setCredits(credits);
 		setInstructorId(instructorId);
 		setMeetingDaysAndTime(meetingDays, startTime, endTime);
+		if(!isValidCapacity(capacity))
+			throw new IllegalArgumentException("Invalid capacity.");
+		this.capacity = capacity;
 	}
 
 	/**
@@ -112,13 +159,27 @@ public class Course {
 	 * @throws IllegalArgumentException "Invalid course name" if the name the number of digits in the course name is out of range
 	 */
 	private void setName(String name) {
-		//Throw exception if name is null
-		if (name == null || "".equals(name))
+		if (!isValidName(name))
 			throw new IllegalArgumentException("Invalid course name.");
+		
+		this.name = name;
+		clearCachedStrings();
+	}
 
-		//Throw exception if class name has too many or too few characters 
+	/**
+	 * Checks whether the given name is a valid course name: one to four letters, a space,
+	 * and three digits
+	 * @param name the name to check
+	 * @return true if setName() would accept the name
+	 */
+	public static boolean isValidName(String name) {
+		//Name can't be null or empty
+		if (name == null || "".equals(name))
+			return false;
+
+		//Class name can't have too many or too few characters 
 		if(name.length() < MIN_NAME_LENGTH || name.length() > MAX_NAME_LENGTH)
-			throw new IllegalArgumentException("Invalid course name.");
+			return false;
 
 		//Check for pattern of L[LLL] NNN
 		int numLetters = 0;
@@ -131,23 +192,20 @@ public class Course {
 				else if(name.charAt(i) == ' ')
 					spaceFound = true;
 				else
-					throw new IllegalArgumentException("Invalid course name.");
+					return false;
 			}
 			else if(Character.isDigit(name.charAt(i)))
 					numDigits++;
 			else
-				throw new IllegalArgumentException("Invalid course name.");
+				return false;
 		}
 		
 		//Check that the number of letters is correct
 		if(numLetters < MIN_LETTER_COUNT || numLetters > MAX_LETTER_COUNT)
-			throw new IllegalArgumentException("Invalid course name.");
+			return false;
 		
 		//Check that the number of digits is correct
-		if(numDigits != DIGIT_COUNT)
-			throw new IllegalArgumentException("Invalid course name.");
-		
-		this.name = name;
+		return numDigits == DIGIT_COUNT;
 	}
 
 	/**
@@ -164,9 +222,19 @@ public class Course {
 	 * @throws IllegalArgumentException "Invalid title." if the title passed is null or empty.
 	 */
 	public void setTitle(String title) {
-		if(title == null || "".equals(title))
+		if(!isValidTitle(title))
 			throw new IllegalArgumentException("Invalid title.");
 		this.title = title;
+		clearCachedStrings();
+	}
+
+	/**
+	 * Checks whether the given title is a valid course title
+	 * @param title the title to check
+	 * @return true if the title is not null or empty
+	 */
+	public static boolean isValidTitle(String title) {
+		return title != null && !"".equals(title);
 	}
 
 	/**
@@ -184,16 +252,26 @@ public class Course {
 	 * @throws IllegalArgumentException "Invalid section." if the section isn't made of all digits.
 	 */
 	public void setSection(String section) {
-		
-		//Section must be exactly 3 digits
-		if(section == null || section.length() != SECTION_LENGTH)
+		if(!isValidSection(section))
 			throw new IllegalArgumentException("Invalid section.");
-		else
-			for(int i = 0; i < section.length(); i++)
-				if(!Character.isDigit(section.charAt(i)))
-					throw new IllegalArgumentException("Invalid section.");
 		
 		this.section = section;
+		clearCachedStrings();
+	}
+
+	/**
+	 * Checks whether the given section is a valid section number
+	 * @param section the section to check
+	 * @return true if the section is exactly SECTION_LENGTH digits
+	 */
+	public static boolean isValidSection(String section) {
+		//Section must be exactly 3 digits
+		if(section == null || section.length() != SECTION_LENGTH)
+			return false;
+		for(int i = 0; i < section.length(); i++)
+			if(!Character.isDigit(section.charAt(i)))
+				return false;
+		return true;
 	}
 
 	/**
@@ -211,10 +289,20 @@ public class Course {
 	 */
 	public void setCredits(int credits) {
 		
-		if(credits < MIN_CREDITS || credits > MAX_CREDITS)
+		if(!isValidCredits(credits))
 			throw new IllegalArgumentException("Invalid credits.");
 		
 		this.credits = credits;
+		clearCachedStrings();
+	}
+
+	/**
+	 * Checks whether the given number of credits is in range
+	 * @param credits the credits to check
+	 * @return true if the credits are between MIN_CREDITS and MAX_CREDITS
+	 */
+	public static boolean isValidCredits(int credits) {
+		return credits >= MIN_CREDITS && credits <= MAX_CREDITS;
 	}
 
 	/**
@@ -231,10 +319,20 @@ public class Course {
 	 * @throws IllegalArgumentException "Invalid instructor id." if the Id is null or blank.
 	 */
 	public void setInstructorId(String instructorId) {
-		if(instructorId == null || "".equals(instructorId))
+		if(!isValidInstructorId(instructorId))
 			throw new IllegalArgumentException("Invalid instructor id.");
 		
 		this.instructorId = instructorId;
+		clearCachedStrings();
+	}
+
+	/**
+	 * Checks whether the given instructor id is valid
+	 * @param instructorId the instructor id to check
+	 * @return true if the id is not null or empty
+	 */
+	public static boolean isValidInstructorId(String instructorId) {
+		return instructorId != null && !"".equals(instructorId);
 	}
 
 	/**
@@ -263,6 +361,66 @@ public class Course {
 		return endTime;
 	}
 
+	/**
+	 * Returns the number of seats in the section
+	 * @return the capacity, or UNLIMITED_CAPACITY if there is no limit
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Checks whether the given capacity is valid
+	 * @param capacity the capacity to check
+	 * @return true if the capacity is UNLIMITED_CAPACITY or a positive number of seats
+	 */
+	public static boolean isValidCapacity(int capacity) {
+		return capacity >= 0;
+	}
+
+	/**
+	 * Returns whether the section has a limited number of seats
+	 * @return true if the capacity isn't UNLIMITED_CAPACITY
+	 */
+	public boolean hasLimitedCapacity() {
+		return capacity != UNLIMITED_CAPACITY;
+	}
+
+	/**
+	 * Returns the days the class meets as a mask of the day bits MONDAY through FRIDAY
+	 * @return the meeting days mask, 0 if the class is arranged
+	 */
+	public int getMeetingDaysMask() {
+		return meetingDaysMask;
+	}
+
+	/**
+	 * Returns the mask getMeetingDaysMask() returns for a Course with the given meeting days
+	 * @param meetingDays days the class meets
+	 * @return the meeting days mask, 0 for "A", or -1 if the meeting days are invalid
+	 */
+	public static int toMeetingDaysMask(String meetingDays) {
+		if (meetingDays == null || "".equals(meetingDays))
+			return -1;
+		return "A".equals(meetingDays) ? 0 : toDaysMask(meetingDays);
+	}
+
+	/**
+	 * Returns the start time of the class in minutes since midnight
+	 * @return the start minutes
+	 */
+	public int getStartMinutes() {
+		return startMinutes;
+	}
+
+	/**
+	 * Returns the end time of the class in minutes since midnight
+	 * @return the end minutes
+	 */
+	public int getEndMinutes() {
+		return endMinutes;
+	}
+
 	/**
 	 * Set the meeting days and start and end times
 	 * @param meetingDays days the class will meet
@@ -276,40 +434,59 @@ public class Course {
 	 * @throws IllegalArgumentException "Invalid meeting days and times." if times are out of range
 	 */
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		if(!isValidMeetingDaysAndTime(meetingDays, startTime, endTime))
+			throw new IllegalArgumentException("Invalid meeting days and times.");
+		
+		storeMeetingDaysAndTime(meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Sets the meeting days and times along with their mask and minute forms
+	 * @param meetingDays days the class will meet
+	 * @param startTime time the class will start
+	 * @param endTime time the class will end
+	 */
+	private void storeMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		this.meetingDays = meetingDays;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.meetingDaysMask = toMeetingDaysMask(meetingDays);
+		this.startMinutes = toMinutes(startTime);
+		this.endMinutes = toMinutes(endTime);
+		clearCachedStrings();
+	}
+
+	/**
+	 * Drops the cached meeting and record Strings so they are rebuilt from the current fields
+	 */
+	private void clearCachedStrings() {
+		meetingString = null;
+		recordString = null;
+	}
+
+	/**
+	 * Checks whether the given meeting days and start and end times are valid together
+	 * @param meetingDays days the class will meet
+	 * @param startTime time the class will start
+	 * @param endTime time the class will end
+	 * @return true if setMeetingDaysAndTime() would accept the values
+	 */
+	public static boolean isValidMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
 		
 		//Check for null or empty meetingDays
 		if(meetingDays == null || "".equals(meetingDays))
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 		
-		//If meetingDays is "A", set startTime and endTime to 0
+		//If meetingDays is "A", startTime and endTime must be 0
 		if("A".equals(meetingDays))
-			if(startTime != 0 || endTime != 0)
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			else {
-				this.meetingDays = meetingDays;
-				this.startTime = 0;
-				this.endTime = 0;
-				return;
-			}
+			return startTime == 0 && endTime == 0;
 		
 		//Check for invalid or repeating days
-		char[] dayArray = new char[meetingDays.length()];
-		for(int i = 0; i < meetingDays.length(); i++) {
-			//Check for invalid days
-			if(!(meetingDays.charAt(i) == 'M' || meetingDays.charAt(i) == 'T' || meetingDays.charAt(i) == 'W' ||
-					meetingDays.charAt(i) == 'H' || meetingDays.charAt(i) == 'F'))
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			
-			//Check for repeating days
-			dayArray[i] = meetingDays.charAt(i);
-			if(i > 0) //do this only for more than the first day
-				for(int j = 0; j < i; j++)
-					if(dayArray[j] == meetingDays.charAt(i))
-						throw new IllegalArgumentException("Invalid meeting days and times.");
-		}
+		if (toDaysMask(meetingDays) == -1)
+			return false;
 		
 		if (endTime < startTime)
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 
 		
 		//Check times to make sure they are between 000 and 2359
@@ -319,24 +496,78 @@ public class Course {
         int endMin = endTime % 100;
         
         if (startHour < 0 || startHour >= UPPER_HOUR)
-        	throw new IllegalArgumentException("Invalid meeting days and times.");
+        	return false;
         
         if (startMin < 0 || startMin >= UPPER_MINUTE)
-        	throw new IllegalArgumentException("Invalid meeting days and times.");
+        	return false;
         
         if (endHour < 0 || endHour >= UPPER_HOUR)
-        	throw new IllegalArgumentException("Invalid meeting days and times.");
-        
-        if (endMin < 0 || endMin >= UPPER_MINUTE)
-        	throw new IllegalArgumentException("Invalid meeting days and times.");
+        	return false;
         
-        this.meetingDays = meetingDays;
-        this.startTime = startTime;
-        this.endTime = endTime;
+        return endMin >= 0 && endMin < UPPER_MINUTE;
 	}
 
 	/**
-	 * Generates a hashCode for Course using all fields
+	 * Converts meeting days to a mask of day bits in a single pass, using the mask to find
+	 * repeated days
+	 * @param meetingDays days the class will meet, without "A"
+	 * @return the mask, or -1 if a day is invalid or repeated
+	 */
+	private static int toDaysMask(String meetingDays) {
+		int mask = 0;
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int day;
+			switch (meetingDays.charAt(i)) {
+			case 'M':
+				day = MONDAY;
+				break;
+			case 'T':
+				day = TUESDAY;
+				break;
+			case 'W':
+				day = WEDNESDAY;
+				break;
+			case 'H':
+				day = THURSDAY;
+				break;
+			case 'F':
+				day = FRIDAY;
+				break;
+			default:
+				return -1;
+			}
+			if ((mask & day) != 0)
+				return -1;
+			mask |= day;
+		}
+		return mask;
+	}
+
+	/**
+	 * Converts military time to minutes since midnight
+	 * @param time military time
+	 * @return minutes since midnight
+	 */
+	private static int toMinutes(int time) {
+		return time / 100 * UPPER_MINUTE + time % 100;
+	}
+
+	/**
+	 * Checks whether this Course and the given Course meet at the same time on any day.  The
+	 * days overlap if their masks share a bit, and the times overlap if neither class ends
+	 * before the other starts, so a class starting the minute another ends is a conflict.
+	 * Arranged Courses never conflict.
+	 * @param other Course to check against
+	 * @return true if the Courses conflict
+	 */
+	public boolean isConflict(Course other) {
+		return (meetingDaysMask & other.meetingDaysMask) != 0
+				&& startMinutes <= other.endMinutes && other.startMinutes <= endMinutes;
+	}
+
+	/**
+	 * Generates a hashCode for Course using all fields except the capacity, which a catalog can
+	 * change without the Course becoming a different section
 	 * @return hashCode for Course
 	 */
 	@Override
@@ -355,7 +586,7 @@ public class Course {
 	}
 
 	/**
-	 * Compares a given object to this object for equality on all fields.
+	 * Compares a given object to this object for equality on all fields except the capacity.
 	 * @param obj the Object to compare
 	 * @return true if the objects are the same on all fields
 	 */
@@ -428,28 +659,43 @@ public class Course {
 	/**
 	 * Return the schedule line as either "Arranged" or
 	 * DDDDD HH:MM[AM or PM]-HH:MM[AM or PM]
+	 * The line is built once and cached until a setter changes the Course.
 	 * @return schedule line as a string
 	 */
 	public String getMeetingString() {	
+		if (meetingString != null)
+			return meetingString;
+		
 		String daysString = null;
 		if("A".equals(getMeetingDays()))
-			return "Arranged"; //Arranged has no start or end times
-		else
+			meetingString = "Arranged"; //Arranged has no start or end times
+		else {
 			daysString = getMeetingDays();
-		
-		return daysString + " " + getTimeString(getStartTime()) + "-" + getTimeString(getEndTime());
+			meetingString = daysString + " " + getTimeString(getStartTime()) + "-" + getTimeString(getEndTime());
+		}
+		return meetingString;
 	}
 
 	/**
-	 * Returns a comma separated value String of all Course fields
+	 * Returns a comma separated value String of all Course fields.  The capacity is the last
+	 * field, and is left out if the section has no limit on its seats.  An arranged section with a
+	 * capacity gives its times as 0 before it, as in "A,0,0,30".
+	 * The String is built once and cached until a setter changes the Course.
 	 * @return String representation of Course
 	 */
 	@Override
 	public String toString() {
-		if ("A".equals(meetingDays)) {
-			return name + "," + title + "," + section + "," + credits + "," + instructorId + "," + meetingDays;
+		if (recordString != null)
+			return recordString;
+		
+		if ("A".equals(meetingDays) && !hasLimitedCapacity()) {
+			recordString = name + "," + title + "," + section + "," + credits + "," + instructorId + "," + meetingDays;
+		} else {
+			recordString = name + "," + title + "," + section + "," + credits + "," + instructorId + "," + meetingDays + "," + startTime + "," + endTime;
 		}
-		return name + "," + title + "," + section + "," + credits + "," + instructorId + "," + meetingDays + "," + startTime + "," + endTime;
+		if (hasLimitedCapacity())
+			recordString += "," + capacity;
+		return recordString;
 	}
 
 }
@@ -0,0 +1,100 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the bytes of a ByteBuffer as ASCII characters without decoding or copying them.  This
+ * lets CourseRecordParser work directly on a mapped file, so the only copies made are the
+ * Strings created for the fields a Course keeps.  Bytes of 0x80 or more are not ASCII, and
+ * lines holding them must be decoded with the file's character set instead.
+ *
+ * A sequence reuses a buffer to build Strings and is not safe to share between threads.
+ *
+ * @author Ben Morris
+ */
+class AsciiByteSequence implements CharSequence {
+
+	/** Bytes being read */
+	private final ByteBuffer bytes;
+	/** Buffer reused to copy bytes out for a String */
+	private byte[] scratch = new byte[64];
+
+	/**
+	 * Creates a sequence over the bytes from index 0 to the limit of the buffer
+	 * @param bytes bytes to read
+	 */
+	AsciiByteSequence(ByteBuffer bytes) {
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Returns the number of bytes in the sequence
+	 * @return the length
+	 */
+	@Override
+	public int length() {
+		return bytes.limit();
+	}
+
+	/**
+	 * Returns the byte at the given index as a character
+	 * @param index index of the byte
+	 * @return the byte as a character
+	 */
+	@Override
+	public char charAt(int index) {
+		return (char) (bytes.get(index) & 0xFF);
+	}
+
+	/**
+	 * Returns the bytes from start up to, but not including, end as a String.  Since the
+	 * parser only keeps the String, no view object is created.
+	 * @param start index of the first byte
+	 * @param end index just past the last byte
+	 * @return the bytes as a String
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return substring(start, end);
+	}
+
+	/**
+	 * Returns the bytes from start up to, but not including, end as a String
+	 * @param start index of the first byte
+	 * @param end index just past the last byte
+	 * @return the bytes as a String
+	 */
+	String substring(int start, int end) {
+		int length = end - start;
+		if (scratch.length < length)
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		for (int i = 0; i < length; i++)
+			scratch[i] = bytes.get(start + i);
+		return new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Decodes the bytes from start up to, but not including, end with the given character set
+	 * @param start index of the first byte
+	 * @param end index just past the last byte
+	 * @param charset character set the bytes are encoded in
+	 * @return the decoded String
+	 */
+	String decode(int start, int end, Charset charset) {
+		byte[] raw = new byte[end - start];
+		for (int i = 0; i < raw.length; i++)
+			raw[i] = bytes.get(start + i);
+		return new String(raw, charset);
+	}
+
+	/**
+	 * Returns all of the bytes as a String
+	 * @return the bytes as a String
+	 */
+	@Override
+	public String toString() {
+		return substring(0, length());
+	}
+}
@@ -0,0 +1,79 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces a file so that a crash or failed write never leaves it partly written.  Everything
+ * is written to a temporary file next to the target.  commit() forces the temporary file to
+ * disk and then moves it over the target, so the target is either the old file or the complete
+ * new one.  Closing a writer that wasn't committed deletes the temporary file and leaves the
+ * target alone.
+ *
+ * A writer is used for one file by one thread, usually in a try-with-resources statement.
+ *
+ * @author Ben Morris
+ */
+public class AtomicFileWriter implements AutoCloseable {
+
+	/** File being replaced */
+	private final Path target;
+	/** Temporary file being written */
+	private final Path temp;
+	/** Channel of the temporary file */
+	private final FileChannel channel;
+	/** Whether the temporary file has been moved over the target */
+	private boolean committed;
+
+	/**
+	 * Creates a temporary file to write the new contents of a file to
+	 * @param fileName file to replace
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	public AtomicFileWriter(String fileName) throws IOException {
+		target = Paths.get(fileName).toAbsolutePath();
+		temp = target.resolveSibling("." + target.getFileName() + "." + System.nanoTime() + ".tmp");
+		channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Returns the channel of the temporary file
+	 * @return the channel to write the new contents to
+	 */
+	public FileChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Forces the temporary file to disk and moves it over the target, atomically if the file
+	 * system allows it
+	 * @throws IOException if the file cannot be forced or moved
+	 */
+	public void commit() throws IOException {
+		channel.force(true);
+		channel.close();
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		committed = true;
+	}
+
+	/**
+	 * Closes the temporary file, deleting it if it wasn't committed
+	 * @throws IOException if the temporary file cannot be closed or deleted
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+		if (!committed)
+			Files.deleteIfExists(temp);
+	}
+}
@@ -0,0 +1,169 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dictionary of the distinct String field values of a set of Courses.  Every value gets an int
+ * id in the order it was first seen, and intern() returns the one shared instance of a value
+ * so repeated titles, names, sections, instructor ids, and meeting days are only kept once.
+ * The dictionary counts the values it shared and estimates the memory that saved.
+ *
+ * Lookups of values already in the dictionary don't lock, so one dictionary can be shared by
+ * the threads of a parallel load.  The sharing counts are LongAdders, so threads counting at
+ * once update separate cells instead of contending on one counter.
+ *
+ * @author Ben Morris
+ */
+public class CourseFieldDictionary {
+
+	/** Initial number of values the dictionary has room for */
+	private static final int INITIAL_CAPACITY = 16;
+	/** Estimated bytes of a String object, not counting its character array */
+	private static final int STRING_SIZE = 24;
+	/** Estimated bytes of an array header */
+	private static final int ARRAY_HEADER_SIZE = 16;
+	/** Objects take a multiple of this many bytes */
+	private static final int OBJECT_ALIGNMENT = 8;
+
+	/** Id of each value */
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+	/** Value of each id.  A value is stored before its id is published in ids. */
+	private volatile String[] values = new String[INITIAL_CAPACITY];
+	/** Number of values, only changed while holding the lock on the dictionary */
+	private int size;
+	/** Estimated bytes of the distinct values, only changed while holding the lock on the dictionary */
+	private long valueBytes;
+	/** Number of times intern() returned a shared value in place of an equal copy */
+	private final LongAdder sharedCount = new LongAdder();
+	/** Estimated bytes of the copies replaced by shared values */
+	private final LongAdder bytesSaved = new LongAdder();
+
+	/**
+	 * Returns the shared instance of a value, adding the value if it is new.  If the value
+	 * is replaced by an equal instance, the copy passed in no longer needs to be kept.
+	 * @param value value to intern
+	 * @return the shared instance equal to value
+	 */
+	public String intern(String value) {
+		String shared = valueOf(idOf(value));
+		if (shared != value) {
+			sharedCount.increment();
+			bytesSaved.add(estimateSize(value));
+		}
+		return shared;
+	}
+
+	/**
+	 * Returns the id of a value, adding the value if it is new
+	 * @param value value to look up
+	 * @return the id of the value
+	 */
+	public int idOf(String value) {
+		Integer id = ids.get(value);
+		return id != null ? id : add(value);
+	}
+
+	/**
+	 * Returns the id of a value without adding it
+	 * @param value value to look up
+	 * @return the id of the value, or -1 if it isn't in the dictionary
+	 */
+	public int find(String value) {
+		Integer id = ids.get(value);
+		return id != null ? id : -1;
+	}
+
+	/**
+	 * Adds a value if no other thread added it first
+	 * @param value value to add
+	 * @return the id of the value
+	 */
+	private synchronized int add(String value) {
+		Integer id = ids.get(value);
+		if (id != null)
+			return id;
+		String[] current = values;
+		if (size == current.length)
+			current = Arrays.copyOf(current, size * 2);
+		current[size] = value;
+		values = current;
+		ids.put(value, size);
+		valueBytes += estimateSize(value);
+		return size++;
+	}
+
+	/**
+	 * Returns the value with the given id
+	 * @param id id of the value
+	 * @return the value
+	 * @throws IndexOutOfBoundsException if no value has the id
+	 */
+	public String valueOf(int id) {
+		String[] current = values;
+		String value = id >= 0 && id < current.length ? current[id] : null;
+		if (value == null)
+			throw new IndexOutOfBoundsException("No value with id " + id);
+		return value;
+	}
+
+	/**
+	 * Returns the number of distinct values
+	 * @return the number of values
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an estimate of the heap bytes of the distinct values, based on the same JVM as
+	 * getBytesSaved()
+	 * @return the estimated bytes of the values
+	 */
+	public synchronized long getValueBytes() {
+		return valueBytes;
+	}
+
+	/**
+	 * Returns the number of times intern() replaced a copy of a value with the shared instance
+	 * @return the number of shared values
+	 */
+	public long getSharedCount() {
+		return sharedCount.sum();
+	}
+
+	/**
+	 * Returns an estimate of the heap bytes saved by sharing values instead of keeping each
+	 * copy, based on a 64-bit JVM with compressed references and compact Strings
+	 * @return the estimated bytes saved
+	 */
+	public long getBytesSaved() {
+		return bytesSaved.sum();
+	}
+
+	/**
+	 * Estimates the heap bytes of a String and its character array
+	 * @param value String to measure
+	 * @return the estimated bytes
+	 */
+	static long estimateSize(String value) {
+		int bytesPerChar = 1;
+		for (int i = 0; i < value.length() && bytesPerChar == 1; i++) {
+			if (value.charAt(i) > 0xFF)
+				bytesPerChar = 2;
+		}
+		long array = ARRAY_HEADER_SIZE + (long) value.length() * bytesPerChar;
+		array = (array + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+		return STRING_SIZE + array;
+	}
+
+	/**
+	 * Returns the counts of distinct and shared values and the estimated bytes saved
+	 * @return the counts as a String
+	 */
+	@Override
+	public String toString() {
+		return size() + " distinct values: " + getSharedCount() + " shared, " + getBytesSaved() + " bytes saved";
+	}
+}
@@ -0,0 +1,121 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Fork-join task that parses line-aligned chunks of a course record file.  The chunks in a
+ * task's range are split in half until a single chunk is left, which is then parsed on its
+ * own.  Each chunk's Courses are kept in file order so the results can be merged into
+ * the same list the sequential reader would build.
+ *
+ * @author Ben Morris
+ */
+class CourseRecordChunkTask extends RecursiveAction {
+
+	/** ID used for object serialization */
+	private static final long serialVersionUID = 1L;
+
+	/** Text of the whole file */
+	private final CharSequence text;
+	/** Start of each chunk, followed by the end of the text */
+	private final int[] bounds;
+	/** Valid Courses of each chunk, in file order */
+	private final ArrayList<ArrayList<Course>> courses;
+	/** Number of invalid lines in each chunk */
+	private final int[] invalidLines;
+	/** Dictionary the String fields are interned in */
+	private final CourseFieldDictionary dictionary;
+	/** First chunk handled by this task */
+	private final int lo;
+	/** One past the last chunk handled by this task */
+	private final int hi;
+
+	/**
+	 * Creates a task for chunks lo up to, but not including, hi
+	 * @param text text of the whole file
+	 * @param bounds start of each chunk, followed by the end of the text
+	 * @param courses list of Courses for each chunk, filled in by the task
+	 * @param invalidLines number of invalid lines for each chunk, filled in by the task
+	 * @param dictionary dictionary the String fields are interned in
+	 * @param lo first chunk to parse
+	 * @param hi one past the last chunk to parse
+	 */
+	CourseRecordChunkTask(CharSequence text, int[] bounds, ArrayList<ArrayList<Course>> courses, int[] invalidLines,
+			CourseFieldDictionary dictionary, int lo, int hi) {
+		this.text = text;
+		this.bounds = bounds;
+		this.courses = courses;
+		this.invalidLines = invalidLines;
+		this.dictionary = dictionary;
+		this.lo = lo;
+		this.hi = hi;
+	}
+
+	/**
+	 * Parses the chunk if there is only one, otherwise splits the chunks between two subtasks
+	 */
+	@Override
+	protected void compute() {
+		if (hi - lo == 1) {
+			parseChunk(lo);
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		invokeAll(new CourseRecordChunkTask(text, bounds, courses, invalidLines, dictionary, lo, mid),
+				new CourseRecordChunkTask(text, bounds, courses, invalidLines, dictionary, mid, hi));
+	}
+
+	/**
+	 * Parses every line of one chunk
+	 * @param chunk index of the chunk
+	 */
+	private void parseChunk(int chunk) {
+		CourseRecordParser parser = new CourseRecordParser(dictionary);
+		ArrayList<Course> chunkCourses = new ArrayList<Course>();
+		int invalid = 0;
+		int end = bounds[chunk + 1];
+		int pos = bounds[chunk];
+		while (pos < end) {
+			int lineEnd = CourseRecordParser.lineEnd(text, pos, end);
+			if (parser.parse(text, pos, lineEnd) == CourseRecordParser.ACCEPTED)
+				chunkCourses.add(parser.toCourse());
+			else
+				invalid++;
+			pos = CourseRecordParser.nextLineStart(text, lineEnd, end);
+		}
+		courses.set(chunk, chunkCourses);
+		invalidLines[chunk] = invalid;
+	}
+
+	/**
+	 * Splits the text into about the given number of chunks.  Every chunk but the first
+	 * starts right after a line terminator, so no line is split between chunks.
+	 * @param text text to split
+	 * @param chunks number of chunks wanted
+	 * @return start of each chunk, followed by the end of the text
+	 */
+	static int[] chunkBounds(CharSequence text, int chunks) {
+		int length = text.length();
+		int[] bounds = new int[chunks + 1];
+		int count = 0;
+		bounds[count++] = 0;
+		for (int i = 1; i < chunks; i++) {
+			int target = (int) ((long) length * i / chunks);
+			int start = bounds[count - 1];
+			if (target <= start)
+				continue;
+			start = CourseRecordParser.nextLineStart(text, CourseRecordParser.lineEnd(text, target, length), length);
+			if (start >= length)
+				break;
+			if (start > bounds[count - 1])
+				bounds[count++] = start;
+		}
+		bounds[count++] = length;
+		int[] trimmed = new int[count];
+		System.arraycopy(bounds, 0, trimmed, 0, count);
+		return trimmed;
+	}
+}
@@ -3,15 +3,25 @@
  */
 package edu.ncsu.csc216.wolf_scheduler.io;
 
-import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.InputMismatchException;
-import java.util.NoSuchElementException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
@@ -23,6 +33,15 @@ import edu.ncsu.csc216.wolf_scheduler.course.Course;
  */
 public class CourseRecordIO {
 
+	/** Number of chunks the parallel reader makes for each thread in the pool */
+	private static final int CHUNKS_PER_THREAD = 4;
+	/** Files smaller than this many characters are read by the parallel reader as a single chunk */
+	private static final int MIN_PARALLEL_LENGTH = 1 << 16;
+	/** Largest part of a file the mapped reader maps at once */
+	private static final int MAX_MAPPED_WINDOW = 1 << 30;
+	/** Number of bytes buffered before writeCourseRecords() writes to the file */
+	public static final int DEFAULT_FLUSH_SIZE = 1 << 16;
+
 	/**
     * Reads course records from a file and generates a list of valid Courses.  Any invalid
     * Courses are ignored.  If the file to read cannot be found or the permissions are incorrect
@@ -32,35 +51,45 @@ public class CourseRecordIO {
     * @throws FileNotFoundException if the file cannot be found or read
     */
 	public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
+		return readCourseRecords(fileName, new CourseRecordStats());
+	}
+
+	/**
+	 * Reads course records from a file and generates a list of valid Courses.  Invalid lines
+	 * and lines with the same name and section as an earlier Course are skipped and counted 
+	 * in the given stats.
+	 * @param fileName file to read Course records from
+	 * @param stats counts of loaded, duplicate, and invalid lines, updated as the file is read
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, CourseRecordStats stats) throws FileNotFoundException {
+		return readCourseRecords(fileName, stats, new CourseFieldDictionary());
+	}
+
+	/**
+	 * Reads course records from a file and generates a list of valid Courses, interning their
+	 * String fields in the given dictionary so repeated values are shared.  Invalid lines and 
+	 * lines with the same name and section as an earlier Course are skipped and counted in the
+	 * given stats.
+	 * @param fileName file to read Course records from
+	 * @param stats counts of loaded, duplicate, and invalid lines, updated as the file is read
+	 * @param dictionary dictionary to intern the String fields in
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, CourseRecordStats stats, 
+			CourseFieldDictionary dictionary) throws FileNotFoundException {
 	    Scanner fileReader = new Scanner(new FileInputStream(fileName));  //Create a file scanner to read the file
 	    ArrayList<Course> courses = new ArrayList<Course>(); //Create an empty array of Course objects
+	    //Sections already loaded for each Course name, so duplicates are found without searching the list
+	    HashMap<String, HashSet<String>> seen = new HashMap<String, HashSet<String>>();
+	    //Reused for every line so parsing doesn't build a Scanner or throw per line
+	    CourseRecordParser parser = new CourseRecordParser(dictionary);
 	    while (fileReader.hasNextLine()) { //While we have more lines in the file
-	        try { //Attempt to do the following
-	            //Read the line, process it in readCourse, and get the object
-	            //If trying to construct a Course in readCourse() results in an exception, flow of control will transfer to the catch block, below
-	            Course course = readCourse(fileReader.nextLine()); 
-
-	            //Create a flag to see if the newly created Course is a duplicate of something already in the list  
-	            boolean duplicate = false;
-	            //Look at all the courses in our list
-	            for (int i = 0; i < courses.size(); i++) {
-	                //Get the course at index i
-	                Course current = courses.get(i);
-	                //Check if the name and section are the same
-	                if (course.getName().equals(current.getName()) &&
-	                        course.getSection().equals(current.getSection())) {
-	                    //It's a duplicate!
-	                    duplicate = true;
-	                    break; //We can break out of the loop, no need to continue searching
-	                }
-	            }
-	            //If the course is NOT a duplicate
-	            if (!duplicate) {
-	                courses.add(course); //Add to the ArrayList!
-	            } //Otherwise ignore
-	        } catch (IllegalArgumentException e) {
-	            //The line is invalid b/c we couldn't create a course, skip it!
-	        }
+	        //Read the line and process it in the parser, then add it if it's valid and not a duplicate
+	        String line = fileReader.nextLine();
+	        readLine(parser, line, 0, line.length(), courses, seen, stats);
 	    }
 	    //Close the Scanner b/c we're responsible with our file handles
 	    fileReader.close();
@@ -69,87 +98,344 @@ public class CourseRecordIO {
 	}
 
 	/**
-	 * Helper method to parse a line into Course fields
-	 * @param nextLine line of text file to parse
-	 * @return the information as a Course
-	 * @throws IllegalArgumentException "Invalid course entry" if there are more fields than expected
-	 * @throws IllegalArgumentException "Invalid course entry" if an exception is caught from the IO
+	 * Returns a lazy Stream of the valid Courses in a course record file.  The file is read a
+	 * block at a time as the Stream is consumed, so the whole catalog is never held in memory.
+	 * The Stream should be closed, for example with try-with-resources, to release the file if 
+	 * it isn't consumed to the end.
+	 * @param fileName file to read Course records from
+	 * @param deduplicate true to skip Courses with the same name and section as an earlier one
+	 * @return a Stream of the valid Courses in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
 	 */
-	private static Course readCourse(String nextLine) {
-		Scanner lineScanner = new Scanner(nextLine);
-		lineScanner.useDelimiter(",");
+	public static Stream<Course> streamCourseRecords(String fileName, boolean deduplicate) throws FileNotFoundException {
+		final CourseRecordIterator courses = new CourseRecordIterator(fileName, deduplicate);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(courses, 
+				Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							courses.close();
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					}
+				});
+	}
+
+	/**
+	 * Reads course records from a file by parsing line-aligned chunks of it in parallel on the
+	 * common fork-join pool.  The result is the same list readCourseRecords() returns: Courses
+	 * are in file order and the first Course with a given name and section wins.
+	 * @param fileName file to read Course records from
+	 * @return a list of valid Courses
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsParallel(String fileName) throws IOException {
+		return readCourseRecordsParallel(fileName, new CourseRecordStats(), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Reads course records from a file by parsing line-aligned chunks of it in parallel on the
+	 * given fork-join pool.  The result is the same list readCourseRecords() returns, and 
+	 * duplicate and invalid lines are counted in the given stats.
+	 * @param fileName file to read Course records from
+	 * @param stats counts of loaded, duplicate, and invalid lines, updated once the file is read
+	 * @param pool pool to parse the chunks on
+	 * @return a list of valid Courses
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsParallel(String fileName, CourseRecordStats stats, 
+			ForkJoinPool pool) throws IOException {
+		return readCourseRecordsParallel(fileName, stats, pool, new CourseFieldDictionary());
+	}
+
+	/**
+	 * Reads course records from a file by parsing line-aligned chunks of it in parallel on the
+	 * given fork-join pool, interning the String fields in the given dictionary.  The result
+	 * is the same list readCourseRecords() returns, and duplicate and invalid lines are counted
+	 * in the given stats.
+	 * @param fileName file to read Course records from
+	 * @param stats counts of loaded, duplicate, and invalid lines, updated once the file is read
+	 * @param pool pool to parse the chunks on
+	 * @param dictionary dictionary to intern the String fields in, shared by every chunk
+	 * @return a list of valid Courses
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsParallel(String fileName, CourseRecordStats stats, 
+			ForkJoinPool pool, CourseFieldDictionary dictionary) throws IOException {
+		return readCourseRecordsParallel(fileName, stats, pool, dictionary, MIN_PARALLEL_LENGTH);
+	}
+
+	/**
+	 * Reads course records from a file by parsing line-aligned chunks of it in parallel, as
+	 * readCourseRecordsParallel(String, CourseRecordStats, ForkJoinPool, CourseFieldDictionary)
+	 * does, splitting files of at least the given length into chunks
+	 * @param fileName file to read Course records from
+	 * @param stats counts of loaded, duplicate, and invalid lines, updated once the file is read
+	 * @param pool pool to parse the chunks on
+	 * @param dictionary dictionary to intern the String fields in, shared by every chunk
+	 * @param minParallelLength files with fewer characters than this are read as a single chunk
+	 * @return a list of valid Courses
+	 * @throws IOException if the file cannot be found or read
+	 */
+	static ArrayList<Course> readCourseRecordsParallel(String fileName, CourseRecordStats stats, 
+			ForkJoinPool pool, CourseFieldDictionary dictionary, int minParallelLength) throws IOException {
+		String text = readFileText(fileName);
 		
-		try {
-			// Declare and initialize local variables
-			String name = lineScanner.next();
-			String title = lineScanner.next();
-			String section = lineScanner.next();
-			int credits = lineScanner.nextInt();
-			String instructorId = lineScanner.next();
-			String meetingDays = lineScanner.next();	
-			
-			//If meetingDays is arranged and there are no more tokens, return the Course with the appropriate fields
-			if ("A".equals(meetingDays)) {
-				//If there are more fields, throw IAE
-				if(lineScanner.hasNext()) {
-					lineScanner.close();
-					throw new IllegalArgumentException("Invalid course entry");
-				}
-				//Otherwise create and return the Course
-				else {
-					lineScanner.close();
-					Course course;
-					course = new Course(name, title, section, credits, instructorId, meetingDays);
-					return course;
+		//Parse the chunks in parallel, keeping the Courses of each chunk separate and in order
+		int chunks = text.length() < minParallelLength ? 1 : pool.getParallelism() * CHUNKS_PER_THREAD;
+		int[] bounds = CourseRecordChunkTask.chunkBounds(text, chunks);
+		chunks = bounds.length - 1;
+		ArrayList<ArrayList<Course>> chunkCourses = new ArrayList<ArrayList<Course>>();
+		for (int i = 0; i < chunks; i++)
+			chunkCourses.add(null);
+		int[] invalidLines = new int[chunks];
+		pool.invoke(new CourseRecordChunkTask(text, bounds, chunkCourses, invalidLines, dictionary, 0, chunks));
+		
+		//Merge the chunks in file order so the first duplicate still wins
+		ArrayList<Course> courses = new ArrayList<Course>();
+		HashMap<String, HashSet<String>> seen = new HashMap<String, HashSet<String>>();
+		for (int i = 0; i < chunks; i++) {
+			stats.invalidLines(invalidLines[i]);
+			ArrayList<Course> current = chunkCourses.get(i);
+			for (int j = 0; j < current.size(); j++) {
+				Course course = current.get(j);
+				if (markSeen(seen, course)) {
+					courses.add(course);
+					stats.courseLoaded();
+				} else {
+					stats.duplicateLine();
 				}
 			}
-			//Otherwise, get the start and end times and return the appropriate Course
-			else {
-				int startTime = lineScanner.nextInt();
-				int endTime = lineScanner.nextInt();
-				//If there are more fields after reading the times, throw IAE
-				if(lineScanner.hasNext()) {
-					lineScanner.close();
-					throw new IllegalArgumentException("Invalid course entry");
+		}
+		return courses;
+	}
+
+	/**
+	 * Reads course records from a file by mapping it into memory and parsing the bytes in
+	 * place, so the file is never copied into a char buffer.  Strings are only created for 
+	 * the fields a Course keeps.  The result is the same list readCourseRecords() returns, and
+	 * duplicate and invalid lines are counted in the given stats.
+	 * 
+	 * Lines are read as ASCII.  A line with any byte of 0x80 or more is decoded with the default
+	 * character set instead.  If the default character set isn't one where bytes below 0x80 are
+	 * always ASCII, the file is read with readCourseRecords().  A line too long to fit in the 
+	 * largest mapped window is counted as invalid.
+	 * @param fileName file to read Course records from
+	 * @param stats counts of loaded, duplicate, and invalid lines, updated as the file is read
+	 * @return a list of valid Courses
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsMapped(String fileName, CourseRecordStats stats) throws IOException {
+		return readCourseRecordsMapped(fileName, stats, new CourseFieldDictionary());
+	}
+
+	/**
+	 * Reads course records from a file by mapping it into memory and parsing the bytes in
+	 * place, interning the String fields in the given dictionary.  Otherwise the same as 
+	 * readCourseRecordsMapped(String, CourseRecordStats).
+	 * @param fileName file to read Course records from
+	 * @param stats counts of loaded, duplicate, and invalid lines, updated as the file is read
+	 * @param dictionary dictionary to intern the String fields in
+	 * @return a list of valid Courses
+	 * @throws IOException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecordsMapped(String fileName, CourseRecordStats stats, 
+			CourseFieldDictionary dictionary) throws IOException {
+		return readCourseRecordsMapped(fileName, stats, dictionary, MAX_MAPPED_WINDOW);
+	}
+
+	/**
+	 * Reads course records from a file by mapping it into memory a window of at most the given
+	 * size at a time.  Otherwise the same as readCourseRecordsMapped(String, CourseRecordStats).
+	 * @param fileName file to read Course records from
+	 * @param stats counts of loaded, duplicate, and invalid lines, updated as the file is read
+	 * @param dictionary dictionary to intern the String fields in
+	 * @param maxWindow largest part of the file to map at once; longer lines are counted as invalid
+	 * @return a list of valid Courses
+	 * @throws IOException if the file cannot be found or read
+	 */
+	static ArrayList<Course> readCourseRecordsMapped(String fileName, CourseRecordStats stats, 
+			CourseFieldDictionary dictionary, int maxWindow) throws IOException {
+		Charset charset = Charset.defaultCharset();
+		if (!isAsciiCompatible(charset))
+			return readCourseRecords(fileName, stats, dictionary);
+		
+		ArrayList<Course> courses = new ArrayList<Course>();
+		HashMap<String, HashSet<String>> seen = new HashMap<String, HashSet<String>>();
+		CourseRecordParser parser = new CourseRecordParser(dictionary);
+		FileChannel channel = new FileInputStream(fileName).getChannel();
+		try {
+			long size = channel.size();
+			long position = 0;
+			boolean skippingLongLine = false;
+			//Map the file a window at a time, starting each window at the first unfinished line
+			while (position < size) {
+				int windowSize = (int) Math.min(maxWindow, size - position);
+				boolean lastWindow = position + windowSize == size;
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+				AsciiByteSequence text = new AsciiByteSequence(window);
+				
+				int lineStart = 0;
+				if (skippingLongLine) {
+					//Skip the rest of a line that didn't fit in the last window, or the terminator of
+					//the line the last window ended with
+					lineStart = CourseRecordParser.nextLineStart(text, CourseRecordParser.lineEnd(text, 0, windowSize), windowSize);
+					if (!lastWindow && lineStart == windowSize && windowSize > 1 && window.get(windowSize - 1) == '\r') {
+						//The \r may be followed by a \n in the next window, so skip the line from the \r there
+						lineStart = windowSize - 1;
+					} else {
+						skippingLongLine = lineStart == windowSize && !isLineTerminator(window.get(windowSize - 1));
+					}
 				}
-				//Otherwise, create and return the Course
-				else {
-					lineScanner.close();
-					Course course;
-					course = new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime);
-					return course;
+				while (lineStart < windowSize) {
+					//Find the end of the line and whether it is all ASCII
+					int lineEnd = lineStart;
+					boolean ascii = true;
+					byte b = 0;
+					while (lineEnd < windowSize && !isLineTerminator(b = window.get(lineEnd))) {
+						ascii &= b >= 0;
+						lineEnd++;
+					}
+					//A line that might continue in the next window, or whose \r might be followed by a
+					//\n there, is read again from there unless it started the window
+					boolean unfinished = !lastWindow && (lineEnd == windowSize || lineEnd == windowSize - 1 && b == '\r' && windowSize > 1);
+					if (unfinished && lineStart > 0)
+						break;
+					if (unfinished && lineEnd == windowSize) {
+						//The line is longer than a whole window and can't be read
+						stats.invalidLine();
+						skippingLongLine = true;
+						lineStart = windowSize;
+						break;
+					}
+					
+					if (ascii) {
+						readLine(parser, text, lineStart, lineEnd, courses, seen, stats);
+					} else {
+						//Decode the line and read it, splitting it on any non-ASCII line terminators
+						String line = text.decode(lineStart, lineEnd, charset);
+						int pos = 0;
+						do {
+							int end = CourseRecordParser.lineEnd(line, pos, line.length());
+							readLine(parser, line, pos, end, courses, seen, stats);
+							pos = CourseRecordParser.nextLineStart(line, end, line.length());
+						} while (pos < line.length());
+					}
+					if (unfinished) {
+						//The line filled the window up to its \r, so the next window starts at the \r
+						//and skips past its terminator
+						skippingLongLine = true;
+						lineStart = lineEnd;
+						break;
+					}
+					lineStart = CourseRecordParser.nextLineStart(text, lineEnd, windowSize);
 				}
+				position += lineStart;
 			}
-		} 
-		catch (IllegalArgumentException e){
-			lineScanner.close();
-			throw new IllegalArgumentException("Invalid course entry");				
+		} finally {
+			channel.close();
 		}
-		catch (InputMismatchException e) {
-			lineScanner.close();
-			throw new IllegalArgumentException("Invalid course entry");
+		return courses;
+	}
+
+	/**
+	 * Parses one line and adds its Course to the list unless it is invalid or a duplicate
+	 * @param parser parser to use
+	 * @param text characters holding the line
+	 * @param start position of the first character of the line
+	 * @param end position just past the last character of the line
+	 * @param courses list to add the Course to
+	 * @param seen sections already loaded for each Course name
+	 * @param stats counts of loaded, duplicate, and invalid lines
+	 */
+	private static void readLine(CourseRecordParser parser, CharSequence text, int start, int end,
+			ArrayList<Course> courses, HashMap<String, HashSet<String>> seen, CourseRecordStats stats) {
+		//If the line can't be made into a Course, the parser says why instead of throwing
+		if (parser.parse(text, start, end) != CourseRecordParser.ACCEPTED) {
+			//The line is invalid b/c we couldn't create a course, skip it!
+			stats.invalidLine();
+			return;
 		}
-		catch (NoSuchElementException e) {
-			lineScanner.close();
-			throw new IllegalArgumentException("Invalid course entry");
+		Course course = parser.toCourse();
+
+		//If the course is NOT a duplicate
+		if (markSeen(seen, course)) {
+			courses.add(course); //Add to the ArrayList!
+			stats.courseLoaded();
+		} else { //Otherwise count it and move on, the first one wins
+			stats.duplicateLine();
 		}
+	}
+
+	/**
+	 * Checks whether a byte is a \n or \r line terminator
+	 * @param b byte to check
+	 * @return true if the byte ends a line
+	 */
+	private static boolean isLineTerminator(byte b) {
+		return b == '\n' || b == '\r';
+	}
 
+	/**
+	 * Checks whether every byte below 0x80 in the given character set is the ASCII character 
+	 * with that value, so ASCII lines can be read without decoding them
+	 * @param charset character set to check
+	 * @return true if the character set is ASCII compatible
+	 */
+	static boolean isAsciiCompatible(Charset charset) {
+		return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+				|| StandardCharsets.ISO_8859_1.equals(charset) || "windows-1252".equals(charset.name());
 	}
 
 	/**
-     * Writes the given list of Courses to 
+	 * Reads a whole file into a String using the default character set, like a Scanner
+	 * over the file would
+	 * @param fileName file to read
+	 * @return the text of the file
+	 * @throws IOException if the file cannot be found or read
+	 */
+	private static String readFileText(String fileName) throws IOException {
+		return new String(Files.readAllBytes(Paths.get(fileName)), Charset.defaultCharset());
+	}
+
+	/**
+	 * Records the name and section of the given Course as seen
+	 * @param seen sections already seen for each Course name
+	 * @param course Course to record
+	 * @return true if no Course with the same name and section was seen before
+	 */
+	static boolean markSeen(HashMap<String, HashSet<String>> seen, Course course) {
+		HashSet<String> sections = seen.get(course.getName());
+		if (sections == null) {
+			sections = new HashSet<String>();
+			seen.put(course.getName(), sections);
+		}
+		return sections.add(course.getSection());
+	}
+
+	/**
+     * Writes the given list of Courses to a file, one record per line.  The records are written
+     * to a temporary file that then replaces the file, so a failed write leaves the old file alone.
      * @param fileName file to write schedule of Courses to
      * @param courses list of Courses to write
      * @throws IOException if cannot write to file
      */
 	public static void writeCourseRecords(String fileName, ArrayList<Course> courses) throws IOException {
-		PrintStream fileWriter = new PrintStream(new File(fileName));
-
-		for (int i = 0; i < courses.size(); i++) {
-		    fileWriter.println(courses.get(i).toString());
-		}
+		writeCourseRecords(fileName, courses, DEFAULT_FLUSH_SIZE);
+	}
 
-		fileWriter.close();
+	/**
+	 * Writes the given list of Courses to a file, one record per line, encoding the records into
+	 * a buffer that is written to the file each time it fills.  The records are written to a 
+	 * temporary file that then replaces the file, so a failed write leaves the old file alone.
+	 * @param fileName file to write schedule of Courses to
+	 * @param courses list of Courses to write
+	 * @param flushSize number of bytes to buffer between writes to the file
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeCourseRecords(String fileName, ArrayList<Course> courses, int flushSize) throws IOException {
+		new CourseRecordWriter(flushSize).write(fileName, courses);
 	}
 
 }
@@ -0,0 +1,174 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Lazily reads the valid Courses of a course record file one at a time.  Only a block of the
+ * file is held in memory at once, so a file of any size can be scanned without loading all of
+ * its Courses.  Invalid lines are skipped.  If duplicates are skipped too, the iterator keeps
+ * the name and section of every Course it has returned, and only that grows with the file.
+ *
+ * The iterator must be closed to release the file.  Reaching the end of the file closes it.
+ *
+ * @author Ben Morris
+ */
+public class CourseRecordIterator implements Iterator<Course>, Closeable {
+
+	/** Number of characters read from the file at a time */
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	/** Reader for the file */
+	private final Reader reader;
+	/** Parser for each line */
+	private final CourseRecordParser parser;
+	/** Counts of loaded, duplicate, and invalid lines so far */
+	private final CourseRecordStats stats = new CourseRecordStats();
+	/** Sections already returned for each Course name, or null if duplicates are returned */
+	private final HashMap<String, HashSet<String>> seen;
+
+	/** Characters read from the file but not yet parsed */
+	private char[] block = new char[BLOCK_SIZE];
+	/** View of block that the parser reads */
+	private CharBuffer text = CharBuffer.wrap(block);
+	/** Position of the next unparsed character in block */
+	private int pos;
+	/** Position just past the last character read into block */
+	private int limit;
+	/** Whether the end of the file has been read */
+	private boolean endOfFile;
+	/** Next Course to return, or null if it hasn't been found yet */
+	private Course next;
+
+	/**
+	 * Opens a course record file for iteration
+	 * @param fileName file to read Course records from
+	 * @param deduplicate true to skip Courses with the same name and section as an earlier one
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public CourseRecordIterator(String fileName, boolean deduplicate) throws FileNotFoundException {
+		this(fileName, deduplicate, new CourseFieldDictionary());
+	}
+
+	/**
+	 * Opens a course record file for iteration, interning the String fields of the Courses
+	 * returned in the given dictionary
+	 * @param fileName file to read Course records from
+	 * @param deduplicate true to skip Courses with the same name and section as an earlier one
+	 * @param dictionary dictionary to intern the String fields in
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public CourseRecordIterator(String fileName, boolean deduplicate, CourseFieldDictionary dictionary) 
+			throws FileNotFoundException {
+		reader = new InputStreamReader(new FileInputStream(fileName), Charset.defaultCharset());
+		seen = deduplicate ? new HashMap<String, HashSet<String>>() : null;
+		parser = new CourseRecordParser(dictionary);
+	}
+
+	/**
+	 * Returns true if there is another valid Course in the file
+	 * @return true if next() will return a Course
+	 * @throws UncheckedIOException if the file cannot be read
+	 */
+	@Override
+	public boolean hasNext() {
+		try {
+			while (next == null) {
+				int lineEnd = CourseRecordParser.lineEnd(text, pos, limit);
+				//Read more of the file until the line and its terminator are both in the block
+				if (lineEnd >= limit - 1 && !endOfFile) {
+					fill();
+					continue;
+				}
+				if (pos >= limit)
+					return false;
+
+				if (parser.parse(text, pos, lineEnd) != CourseRecordParser.ACCEPTED) {
+					stats.invalidLine();
+				} else {
+					Course course = parser.toCourse();
+					if (seen == null || CourseRecordIO.markSeen(seen, course)) {
+						stats.courseLoaded();
+						next = course;
+					} else {
+						stats.duplicateLine();
+					}
+				}
+				pos = CourseRecordParser.nextLineStart(text, lineEnd, limit);
+			}
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the next valid Course in the file
+	 * @return the next Course
+	 * @throws NoSuchElementException if there are no more Courses
+	 * @throws UncheckedIOException if the file cannot be read
+	 */
+	@Override
+	public Course next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		Course course = next;
+		next = null;
+		return course;
+	}
+
+	/**
+	 * Moves the unparsed characters to the front of the block and reads more of the file after
+	 * them, growing the block only if a single line fills it
+	 * @throws IOException if the file cannot be read
+	 */
+	private void fill() throws IOException {
+		int remaining = limit - pos;
+		if (remaining == block.length) {
+			block = Arrays.copyOf(block, block.length * 2);
+			text = CharBuffer.wrap(block);
+		} else {
+			System.arraycopy(block, pos, block, 0, remaining);
+		}
+		pos = 0;
+		limit = remaining;
+		int read = reader.read(block, limit, block.length - limit);
+		if (read == -1) {
+			endOfFile = true;
+			close();
+		} else {
+			limit += read;
+		}
+	}
+
+	/**
+	 * Returns the counts of loaded, duplicate, and invalid lines read so far
+	 * @return the stats
+	 */
+	public CourseRecordStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Closes the file
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
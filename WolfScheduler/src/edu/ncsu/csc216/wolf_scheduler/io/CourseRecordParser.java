@@ -0,0 +1,333 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Parses one line of a course record file in a single pass over its characters.  Fields are
+ * split on commas the same way a Scanner with a "," delimiter splits them, and the numeric
+ * fields are read straight from the characters, so only the Strings a Course keeps are created.
+ * Instead of throwing, parse() returns a code saying why a line was rejected.  A seat capacity
+ * may follow the end time.  An arranged course's record ends after its meeting days, unless
+ * it has a capacity, which must come after both times given as 0, as in "A,0,0,30".  A field
+ * after "A" is never mistaken for a capacity, and "A,0,0" is rejected as it always was.  Given a
+ * CourseFieldDictionary, the parser interns the String fields of each accepted line so repeated
+ * values are shared, and the fields of rejected lines are never added to the dictionary.
+ *
+ * A parser is reused from line to line and is not safe to share between threads.
+ *
+ * @author Ben Morris
+ */
+class CourseRecordParser {
+
+	/** The line is a valid Course */
+	static final int ACCEPTED = 0;
+	/** The line ended before all of the fields were read */
+	static final int MISSING_FIELD = 1;
+	/** The line has fields after the last expected field */
+	static final int EXTRA_FIELD = 2;
+	/** A credits or time field is not an integer */
+	static final int INVALID_NUMBER = 3;
+	/** The fields were read but at least one isn't valid for a Course */
+	static final int INVALID_FIELD = 4;
+
+	/** Character that separates fields */
+	private static final char DELIMITER = ',';
+	/** Grouping separator a Scanner allows inside integers for the default locale */
+	private static final char GROUP_SEPARATOR =
+			DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getGroupingSeparator();
+	/** Number of digits between grouping separators */
+	private static final int GROUP_SIZE = 3;
+
+	/** Dictionary the String fields are interned in, or null to keep every copy */
+	private final CourseFieldDictionary dictionary;
+	/** Characters being parsed */
+	private CharSequence line;
+	/** Position of the next character to read */
+	private int pos;
+	/** Position just past the last character of the line */
+	private int end;
+	/** Start of the last field read */
+	private int fieldStart;
+	/** End of the last field read */
+	private int fieldEnd;
+	/** Value of the last integer read */
+	private int intValue;
+
+	/** Parsed name */
+	private String name;
+	/** Parsed title */
+	private String title;
+	/** Parsed section */
+	private String section;
+	/** Parsed credits */
+	private int credits;
+	/** Parsed instructor id */
+	private String instructorId;
+	/** Parsed meeting days */
+	private String meetingDays;
+	/** Parsed start time */
+	private int startTime;
+	/** Parsed end time */
+	private int endTime;
+	/** Parsed capacity, Course.UNLIMITED_CAPACITY if the record has none */
+	private int capacity;
+
+	/**
+	 * Creates a parser that keeps its own copy of every String field
+	 */
+	CourseRecordParser() {
+		this(null);
+	}
+
+	/**
+	 * Creates a parser that interns the String fields in the given dictionary
+	 * @param dictionary dictionary to intern the fields in, or null to keep every copy
+	 */
+	CourseRecordParser(CourseFieldDictionary dictionary) {
+		this.dictionary = dictionary;
+	}
+
+	/**
+	 * Parses a whole line
+	 * @param line line of a course record file without its line terminator
+	 * @return ACCEPTED if the line is a valid Course, otherwise the reason it was rejected
+	 */
+	int parse(CharSequence line) {
+		return parse(line, 0, line.length());
+	}
+
+	/**
+	 * Parses the characters of one line from start up to, but not including, end
+	 * @param chars characters holding the line
+	 * @param start position of the first character of the line
+	 * @param end position just past the last character of the line
+	 * @return ACCEPTED if the line is a valid Course, otherwise the reason it was rejected
+	 */
+	int parse(CharSequence chars, int start, int end) {
+		this.line = chars;
+		this.pos = start;
+		this.end = end;
+		try {
+			return parseFields();
+		} finally {
+			this.line = null;
+		}
+	}
+
+	/**
+	 * Reads the fields of the current line and validates them
+	 * @return ACCEPTED if the line is a valid Course, otherwise the reason it was rejected
+	 */
+	private int parseFields() {
+		if (!nextField())
+			return MISSING_FIELD;
+		name = fieldString();
+		if (!nextField())
+			return MISSING_FIELD;
+		title = fieldString();
+		if (!nextField())
+			return MISSING_FIELD;
+		section = fieldString();
+		if (!nextField())
+			return MISSING_FIELD;
+		if (!fieldInt())
+			return INVALID_NUMBER;
+		credits = intValue;
+		if (!nextField())
+			return MISSING_FIELD;
+		instructorId = fieldString();
+		if (!nextField())
+			return MISSING_FIELD;
+		meetingDays = fieldString();
+
+		capacity = Course.UNLIMITED_CAPACITY;
+		if (!nextField()) {
+			//Only arranged courses have no times, and their record may end after the meeting days
+			if (!"A".equals(meetingDays))
+				return MISSING_FIELD;
+			startTime = 0;
+			endTime = 0;
+		} else {
+			//Any field after the meeting days is a start time, so a capacity is only ever read
+			//after both times, even for an arranged course
+			if (!fieldInt())
+				return INVALID_NUMBER;
+			startTime = intValue;
+			if (!nextField())
+				return MISSING_FIELD;
+			if (!fieldInt())
+				return INVALID_NUMBER;
+			endTime = intValue;
+			if (nextField()) {
+				//An empty field is not a capacity
+				if (fieldStart == fieldEnd)
+					return EXTRA_FIELD;
+				if (!fieldInt())
+					return INVALID_NUMBER;
+				capacity = intValue;
+			} else if ("A".equals(meetingDays)) {
+				//Arranged courses only give their times to come before a capacity
+				return EXTRA_FIELD;
+			}
+		}
+		if (hasNextField())
+			return EXTRA_FIELD;
+
+		if (!Course.isValidName(name) || !Course.isValidTitle(title) || !Course.isValidSection(section)
+				|| !Course.isValidCredits(credits) || !Course.isValidInstructorId(instructorId)
+				|| !Course.isValidMeetingDaysAndTime(meetingDays, startTime, endTime) || !Course.isValidCapacity(capacity))
+			return INVALID_FIELD;
+		if (dictionary != null) {
+			name = dictionary.intern(name);
+			title = dictionary.intern(title);
+			section = dictionary.intern(section);
+			instructorId = dictionary.intern(instructorId);
+			meetingDays = dictionary.intern(meetingDays);
+		}
+		return ACCEPTED;
+	}
+
+	/**
+	 * Checks for another field without reading it.  Like a Scanner, one delimiter before the
+	 * field is skipped, and there is no field once the end of the line is reached.
+	 * @return true if there is another field
+	 */
+	private boolean hasNextField() {
+		int p = pos;
+		if (p < end && line.charAt(p) == DELIMITER)
+			p++;
+		return p < end;
+	}
+
+	/**
+	 * Moves to the next field, which runs up to the next delimiter or the end of the line
+	 * @return true if there was another field
+	 */
+	private boolean nextField() {
+		if (pos < end && line.charAt(pos) == DELIMITER)
+			pos++;
+		if (pos >= end)
+			return false;
+		fieldStart = pos;
+		while (pos < end && line.charAt(pos) != DELIMITER)
+			pos++;
+		fieldEnd = pos;
+		return true;
+	}
+
+	/**
+	 * Returns the last field read as a String
+	 * @return the field
+	 */
+	private String fieldString() {
+		return line.subSequence(fieldStart, fieldEnd).toString();
+	}
+
+	/**
+	 * Reads the last field as an int into intValue, accepting the same integers that
+	 * Scanner.nextInt() does: an optional sign, then digits that may be grouped by the
+	 * locale's grouping separator.
+	 * @return true if the field is an integer in int range
+	 */
+	private boolean fieldInt() {
+		int p = fieldStart;
+		boolean negative = false;
+		if (p < fieldEnd && (line.charAt(p) == '-' || line.charAt(p) == '+')) {
+			negative = line.charAt(p) == '-';
+			p++;
+		}
+		if (p >= fieldEnd)
+			return false;
+
+		//Accumulate as a negative number so Integer.MIN_VALUE can be read
+		long value = 0;
+		int digits = 0;
+		int groupDigits = -1;
+		for (; p < fieldEnd; p++) {
+			char c = line.charAt(p);
+			if (c == GROUP_SEPARATOR && c != DELIMITER) {
+				//Groups follow one to three leading digits, the first of which isn't 0
+				if (groupDigits == -1 ? (digits == 0 || digits > GROUP_SIZE || leadingZero(p - digits))
+						: groupDigits != GROUP_SIZE)
+					return false;
+				groupDigits = 0;
+				continue;
+			}
+			int digit = Character.digit(c, 10);
+			if (digit < 0 || !Character.isDigit(c))
+				return false;
+			value = value * 10 - digit;
+			if (value < Integer.MIN_VALUE)
+				return false;
+			digits++;
+			if (groupDigits != -1)
+				groupDigits++;
+		}
+		if (groupDigits != -1 && groupDigits != GROUP_SIZE)
+			return false;
+		if (!negative && value == Integer.MIN_VALUE)
+			return false;
+		intValue = (int) (negative ? value : -value);
+		return true;
+	}
+
+	/**
+	 * Checks whether the digit at the given position is a zero
+	 * @param p position of the digit
+	 * @return true if the digit is a zero
+	 */
+	private boolean leadingZero(int p) {
+		return Character.digit(line.charAt(p), 10) == 0;
+	}
+
+	/**
+	 * Finds the end of the line that starts at the given position.  The same line terminators
+	 * as Scanner.nextLine() are recognized: \n, \r, \r\n, \u2028, \u2029, and \u0085.
+	 * @param chars characters to search
+	 * @param start position of the first character of the line
+	 * @param end position to stop searching at
+	 * @return position of the line terminator, or end if the line has none
+	 */
+	static int lineEnd(CharSequence chars, int start, int end) {
+		for (int p = start; p < end; p++) {
+			if (isLineTerminator(chars.charAt(p)))
+				return p;
+		}
+		return end;
+	}
+
+	/**
+	 * Returns the position of the line after the terminator at lineEnd
+	 * @param chars characters being read
+	 * @param lineEnd position of a line terminator, or end
+	 * @param end position just past the last character
+	 * @return position of the first character of the next line
+	 */
+	static int nextLineStart(CharSequence chars, int lineEnd, int end) {
+		if (lineEnd >= end)
+			return end;
+		if (chars.charAt(lineEnd) == '\r' && lineEnd + 1 < end && chars.charAt(lineEnd + 1) == '\n')
+			return lineEnd + 2;
+		return lineEnd + 1;
+	}
+
+	/**
+	 * Checks whether a character ends a line
+	 * @param c character to check
+	 * @return true if the character is a line terminator
+	 */
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085';
+	}
+
+	/**
+	 * Creates a Course from the last line that was ACCEPTED
+	 * @return the Course
+	 */
+	Course toCourse() {
+		return new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime, capacity);
+	}
+}
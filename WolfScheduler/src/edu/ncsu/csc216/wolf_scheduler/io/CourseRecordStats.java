@@ -0,0 +1,96 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Counts what happened to each line while CourseRecordIO read a file of Course records.
+ * Every line read is either loaded as a Course, skipped because a Course with the same
+ * name and section was already loaded, or skipped because it isn't a valid Course.
+ * 
+ * @author Ben Morris
+ */
+public class CourseRecordStats {
+
+	/** Number of lines read from the file */
+	private int linesRead;
+	/** Number of lines loaded as Courses */
+	private int coursesLoaded;
+	/** Number of lines skipped as duplicates of an earlier Course */
+	private int duplicateLines;
+	/** Number of lines skipped because they are not valid Courses */
+	private int invalidLines;
+
+	/**
+	 * Returns the number of lines read from the file
+	 * @return the linesRead
+	 */
+	public int getLinesRead() {
+		return linesRead;
+	}
+
+	/**
+	 * Returns the number of lines that were loaded as Courses
+	 * @return the coursesLoaded
+	 */
+	public int getCoursesLoaded() {
+		return coursesLoaded;
+	}
+
+	/**
+	 * Returns the number of lines skipped because a Course with the same name and
+	 * section appeared earlier in the file
+	 * @return the duplicateLines
+	 */
+	public int getDuplicateLines() {
+		return duplicateLines;
+	}
+
+	/**
+	 * Returns the number of lines skipped because they could not be made into a Course
+	 * @return the invalidLines
+	 */
+	public int getInvalidLines() {
+		return invalidLines;
+	}
+
+	/**
+	 * Records a line that was loaded as a Course
+	 */
+	void courseLoaded() {
+		linesRead++;
+		coursesLoaded++;
+	}
+
+	/**
+	 * Records a line that was skipped as a duplicate
+	 */
+	void duplicateLine() {
+		linesRead++;
+		duplicateLines++;
+	}
+
+	/**
+	 * Records a line that was skipped as invalid
+	 */
+	void invalidLine() {
+		linesRead++;
+		invalidLines++;
+	}
+
+	/**
+	 * Records several lines that were skipped as invalid
+	 * @param count number of invalid lines
+	 */
+	void invalidLines(int count) {
+		linesRead += count;
+		invalidLines += count;
+	}
+
+	/**
+	 * Returns a summary of the counts
+	 * @return String representation of the counts
+	 */
+	@Override
+	public String toString() {
+		return linesRead + " lines read: " + coursesLoaded + " loaded, " + duplicateLines + " duplicate, " 
+				+ invalidLines + " invalid";
+	}
+}
@@ -0,0 +1,189 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Writes Course records to a file through one reusable byte buffer.  Each field is encoded
+ * straight into the buffer instead of building the record as a String first, and the buffer
+ * is written to the file whenever it fills.  Records are written through an AtomicFileWriter,
+ * so the target is either the old file or the complete new one.
+ *
+ * @author Ben Morris
+ */
+class CourseRecordWriter {
+
+	/** Smallest buffer used, large enough for any int field */
+	private static final int MIN_FLUSH_SIZE = 16;
+
+	/** Character set records are written in, the same one a PrintStream uses */
+	private final Charset charset = Charset.defaultCharset();
+	/** Whether ASCII characters can be written as single bytes in the character set */
+	private final boolean asciiCompatible = CourseRecordIO.isAsciiCompatible(charset);
+	/** Bytes written after each record */
+	private final byte[] lineSeparator = System.lineSeparator().getBytes(charset);
+	/** Buffer records are encoded into */
+	private final ByteBuffer buffer;
+	/** Channel of the temporary file being written */
+	private FileChannel channel;
+
+	/**
+	 * Creates a writer that writes to the file every time flushSize bytes are buffered.
+	 * Sizes below MIN_FLUSH_SIZE are raised to it.
+	 * @param flushSize size of the buffer in bytes
+	 */
+	CourseRecordWriter(int flushSize) {
+		buffer = ByteBuffer.allocate(Math.max(flushSize, MIN_FLUSH_SIZE));
+	}
+
+	/**
+	 * Writes the Courses to the file, one record per line, replacing the file if it exists
+	 * @param fileName file to write to
+	 * @param courses list of Courses to write
+	 * @throws IOException if cannot write to file
+	 */
+	void write(String fileName, ArrayList<Course> courses) throws IOException {
+		try (AtomicFileWriter file = new AtomicFileWriter(fileName)) {
+			channel = file.getChannel();
+			buffer.clear();
+			for (int i = 0; i < courses.size(); i++)
+				writeCourse(courses.get(i));
+			flush();
+			file.commit();
+		} finally {
+			channel = null;
+		}
+	}
+
+	/**
+	 * Encodes one Course in the same format as Course.toString(), followed by a line separator
+	 * @param course Course to write
+	 * @throws IOException if cannot write to file
+	 */
+	private void writeCourse(Course course) throws IOException {
+		if (!asciiCompatible) {
+			writeBytes((course.toString() + System.lineSeparator()).getBytes(charset));
+			return;
+		}
+		writeField(course.getName());
+		writeComma();
+		writeField(course.getTitle());
+		writeComma();
+		writeField(course.getSection());
+		writeComma();
+		writeInt(course.getCredits());
+		writeComma();
+		writeField(course.getInstructorId());
+		writeComma();
+		writeField(course.getMeetingDays());
+		if (!"A".equals(course.getMeetingDays()) || course.hasLimitedCapacity()) {
+			writeComma();
+			writeInt(course.getStartTime());
+			writeComma();
+			writeInt(course.getEndTime());
+		}
+		if (course.hasLimitedCapacity()) {
+			writeComma();
+			writeInt(course.getCapacity());
+		}
+		writeBytes(lineSeparator);
+	}
+
+	/**
+	 * Encodes a String field.  ASCII characters are copied one byte each, and a field with any
+	 * other character is encoded with the character set.
+	 * @param field field to write
+	 * @throws IOException if cannot write to file
+	 */
+	private void writeField(String field) throws IOException {
+		int length = field.length();
+		for (int i = 0; i < length; i++) {
+			if (field.charAt(i) >= 0x80) {
+				writeBytes(field.getBytes(charset));
+				return;
+			}
+		}
+		if (length > buffer.capacity()) {
+			writeBytes(field.getBytes(charset));
+			return;
+		}
+		ensureRoom(length);
+		for (int i = 0; i < length; i++)
+			buffer.put((byte) field.charAt(i));
+	}
+
+	/**
+	 * Encodes a comma between fields
+	 * @throws IOException if cannot write to file
+	 */
+	private void writeComma() throws IOException {
+		ensureRoom(1);
+		buffer.put((byte) ',');
+	}
+
+	/**
+	 * Encodes an int in decimal without creating a String
+	 * @param value value to write
+	 * @throws IOException if cannot write to file
+	 */
+	private void writeInt(int value) throws IOException {
+		long remaining = value;
+		if (remaining < 0) {
+			ensureRoom(1);
+			buffer.put((byte) '-');
+			remaining = -remaining;
+		}
+		int digits = 1;
+		for (long scale = 10; scale <= remaining; scale *= 10)
+			digits++;
+		ensureRoom(digits);
+		int position = buffer.position() + digits;
+		for (int i = 1; i <= digits; i++) {
+			buffer.put(position - i, (byte) ('0' + remaining % 10));
+			remaining /= 10;
+		}
+		buffer.position(position);
+	}
+
+	/**
+	 * Copies bytes into the buffer, flushing as often as needed
+	 * @param bytes bytes to write
+	 * @throws IOException if cannot write to file
+	 */
+	private void writeBytes(byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			if (!buffer.hasRemaining())
+				flush();
+			int count = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.put(bytes, offset, count);
+			offset += count;
+		}
+	}
+
+	/**
+	 * Flushes the buffer if it can't hold the given number of bytes
+	 * @param bytes number of bytes about to be written, no more than the buffer capacity
+	 * @throws IOException if cannot write to file
+	 */
+	private void ensureRoom(int bytes) throws IOException {
+		if (buffer.remaining() < bytes)
+			flush();
+	}
+
+	/**
+	 * Writes everything in the buffer to the file and empties the buffer
+	 * @throws IOException if cannot write to file
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+}
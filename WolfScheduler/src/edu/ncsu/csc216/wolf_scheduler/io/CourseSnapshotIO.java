@@ -0,0 +1,226 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Writes a list of Courses to a compact binary snapshot and reads it back.  Loading a snapshot
+ * skips the text parsing, and each distinct field value is decoded only once from the string
+ * table.  A checksum guards against changes since the snapshot was written, and each Course is
+ * still built through its constructor, so even a snapshot with a matching checksum can't load
+ * an invalid Course.
+ *
+ * A snapshot holds, in order:
+ * <ul>
+ * <li>the int MAGIC and the int format VERSION</li>
+ * <li>the number of Strings in the string table, then each String as its UTF-8 length and bytes.
+ * Every distinct field value is stored once.</li>
+ * <li>the number of Courses, then for each Course the string table indexes of its name, title,
+ * section, instructor id, and meeting days, followed by its credits, start time, end time, and
+ * capacity.  Version 1 snapshots have no capacity, and their Courses are read as unlimited.</li>
+ * <li>the CRC-32 of everything before it, as a long</li>
+ * </ul>
+ *
+ * @author Ben Morris
+ */
+public class CourseSnapshotIO {
+
+	/** First four bytes of every snapshot, 0x89 then "WSC".  No text course record starts with 0x89. */
+	public static final int MAGIC = 0x89575343;
+	/** Version of the snapshot format that is written */
+	public static final int VERSION = 2;
+	/** Oldest version of the snapshot format that can be read */
+	private static final int FIRST_VERSION = 1;
+	/** Number of bytes in the checksum at the end of a snapshot */
+	private static final int CHECKSUM_LENGTH = 8;
+
+	/**
+	 * Writes the given Courses to a snapshot file.  The snapshot is written through an
+	 * AtomicFileWriter, so a failed write never leaves a partial snapshot in place of the file.
+	 * @param fileName file to write the snapshot to
+	 * @param courses list of Courses to write
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeCourseSnapshot(String fileName, ArrayList<Course> courses) throws IOException {
+		//Build the string table, giving each distinct value an index in order of first use
+		ArrayList<String> strings = new ArrayList<String>();
+		HashMap<String, Integer> ids = new HashMap<String, Integer>();
+		int[] fieldIds = new int[courses.size() * 5];
+		for (int i = 0; i < courses.size(); i++) {
+			Course course = courses.get(i);
+			fieldIds[i * 5] = stringId(course.getName(), strings, ids);
+			fieldIds[i * 5 + 1] = stringId(course.getTitle(), strings, ids);
+			fieldIds[i * 5 + 2] = stringId(course.getSection(), strings, ids);
+			fieldIds[i * 5 + 3] = stringId(course.getInstructorId(), strings, ids);
+			fieldIds[i * 5 + 4] = stringId(course.getMeetingDays(), strings, ids);
+		}
+
+		CRC32 checksum = new CRC32();
+		try (AtomicFileWriter file = new AtomicFileWriter(fileName)) {
+			//The streams only wrap the channel, which the writer closes
+			OutputStream stream = Channels.newOutputStream(file.getChannel());
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(stream, checksum)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			out.writeInt(strings.size());
+			for (int i = 0; i < strings.size(); i++) {
+				byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
+			out.writeInt(courses.size());
+			for (int i = 0; i < courses.size(); i++) {
+				Course course = courses.get(i);
+				for (int j = 0; j < 5; j++)
+					out.writeInt(fieldIds[i * 5 + j]);
+				out.writeByte(course.getCredits());
+				out.writeShort(course.getStartTime());
+				out.writeShort(course.getEndTime());
+				out.writeInt(course.getCapacity());
+			}
+			out.flush();
+
+			//The checksum covers everything written so far, so it goes straight to the file
+			new DataOutputStream(stream).writeLong(checksum.getValue());
+			file.commit();
+		}
+	}
+
+	/**
+	 * Returns the index of the given String in the string table, adding it if it is new
+	 * @param value String to look up
+	 * @param strings the string table
+	 * @param ids index of each String in the table
+	 * @return index of the String in the table
+	 */
+	private static int stringId(String value, ArrayList<String> strings, HashMap<String, Integer> ids) {
+		Integer id = ids.get(value);
+		if (id == null) {
+			id = strings.size();
+			strings.add(value);
+			ids.put(value, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Reads the Courses from a snapshot file.  The checksum of the whole file is checked before
+	 * any Course is created.
+	 * @param fileName file to read the snapshot from
+	 * @return the Courses in the snapshot, in the order they were written
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IOException if the file cannot be read or is not a valid snapshot
+	 */
+	public static ArrayList<Course> readCourseSnapshot(String fileName) throws IOException {
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(Paths.get(fileName));
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(fileName);
+		}
+		if (bytes.length < CHECKSUM_LENGTH)
+			throw new IOException("Invalid course snapshot.");
+
+		ByteBuffer data = ByteBuffer.wrap(bytes);
+		CRC32 checksum = new CRC32();
+		checksum.update(bytes, 0, bytes.length - CHECKSUM_LENGTH);
+		if (data.getLong(bytes.length - CHECKSUM_LENGTH) != checksum.getValue())
+			throw new IOException("Invalid course snapshot.");
+		data.limit(bytes.length - CHECKSUM_LENGTH);
+
+		try {
+			if (data.getInt() != MAGIC)
+				throw new IOException("Invalid course snapshot.");
+			int version = data.getInt();
+			if (version < FIRST_VERSION || version > VERSION)
+				throw new IOException("Invalid course snapshot.");
+
+			String[] strings = new String[readCount(data)];
+			for (int i = 0; i < strings.length; i++) {
+				int length = data.getInt();
+				strings[i] = new String(bytes, data.position(), length, StandardCharsets.UTF_8);
+				data.position(data.position() + length);
+			}
+
+			int count = readCount(data);
+			ArrayList<Course> courses = new ArrayList<Course>(count);
+			for (int i = 0; i < count; i++) {
+				String name = strings[data.getInt()];
+				String title = strings[data.getInt()];
+				String section = strings[data.getInt()];
+				String instructorId = strings[data.getInt()];
+				String meetingDays = strings[data.getInt()];
+				int credits = data.get();
+				int startTime = data.getShort();
+				int endTime = data.getShort();
+				int capacity = version == FIRST_VERSION ? Course.UNLIMITED_CAPACITY : data.getInt();
+				courses.add(new Course(name, title, section, credits, instructorId, meetingDays,
+						startTime, endTime, capacity));
+			}
+			if (data.hasRemaining())
+				throw new IOException("Invalid course snapshot.");
+			return courses;
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Invalid course snapshot.");
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Invalid course snapshot.");
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid course snapshot.");
+		}
+	}
+
+	/**
+	 * Reads the number of entries in a table of the snapshot.  Every entry takes at least one
+	 * byte, so a count larger than the bytes left can't be valid.
+	 * @param data snapshot positioned at the count
+	 * @return the count
+	 * @throws IOException if the count is negative or larger than the bytes left
+	 */
+	private static int readCount(ByteBuffer data) throws IOException {
+		int count = data.getInt();
+		if (count < 0 || count > data.remaining())
+			throw new IOException("Invalid course snapshot.");
+		return count;
+	}
+
+	/**
+	 * Checks whether the given file starts like a snapshot
+	 * @param fileName file to check
+	 * @return true if the file starts with MAGIC
+	 * @throws FileNotFoundException if the file cannot be found
+	 */
+	public static boolean isCourseSnapshot(String fileName) throws FileNotFoundException {
+		DataInputStream in = new DataInputStream(new FileInputStream(fileName));
+		try {
+			return in.readInt() == MAGIC;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				//Nothing was written, so there is nothing to lose
+			}
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Changes to a catalog, each keyed by a Course's name and section: adding a Course whose name
+ * and section aren't in the catalog, updating the fields of one that is, or removing one.
+ * Changes are applied in the order they were made, so one delta can, for example, remove a
+ * section and then add it back.  WolfScheduler.applyCatalogDelta() applies a delta in time
+ * proportional to the number of changes.
+ *
+ * diff() builds the delta between a loaded catalog and a newly read one by comparing a content
+ * hash of each Course's record, so only the Courses that changed are touched.
+ *
+ * @author Ben Morris
+ */
+public class CatalogDelta {
+
+	/** Kind of a change that adds a Course */
+	static final int ADD = 0;
+	/** Kind of a change that updates a Course */
+	static final int UPDATE = 1;
+	/** Kind of a change that removes a Course */
+	static final int REMOVE = 2;
+
+	/** Kind of each change */
+	private final ArrayList<Integer> kinds = new ArrayList<Integer>();
+	/** Name of the Course each change is for */
+	private final ArrayList<String> names = new ArrayList<String>();
+	/** Section of the Course each change is for */
+	private final ArrayList<String> sections = new ArrayList<String>();
+	/** New Course of each change, or null for a removal */
+	private final ArrayList<Course> courses = new ArrayList<Course>();
+	/** Number of changes of each kind */
+	private final int[] counts = new int[REMOVE + 1];
+
+	/**
+	 * Adds a Course whose name and section aren't in the catalog
+	 * @param course Course to add
+	 * @return this delta
+	 * @throws IllegalArgumentException "Invalid course." if the course is null
+	 */
+	public CatalogDelta add(Course course) {
+		return change(ADD, course);
+	}
+
+	/**
+	 * Replaces the catalog's Course with the same name and section
+	 * @param course Course with the new fields
+	 * @return this delta
+	 * @throws IllegalArgumentException "Invalid course." if the course is null
+	 */
+	public CatalogDelta update(Course course) {
+		return change(UPDATE, course);
+	}
+
+	/**
+	 * Records a change that adds or updates a Course
+	 * @param kind ADD or UPDATE
+	 * @param course new Course
+	 * @return this delta
+	 * @throws IllegalArgumentException "Invalid course." if the course is null
+	 */
+	private CatalogDelta change(int kind, Course course) {
+		if (course == null)
+			throw new IllegalArgumentException("Invalid course.");
+		kinds.add(kind);
+		names.add(course.getName());
+		sections.add(course.getSection());
+		courses.add(course);
+		counts[kind]++;
+		return this;
+	}
+
+	/**
+	 * Removes the catalog's Course with the given name and section
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return this delta
+	 * @throws IllegalArgumentException "Invalid course." if the name or section is null
+	 */
+	public CatalogDelta remove(String name, String section) {
+		if (name == null || section == null)
+			throw new IllegalArgumentException("Invalid course.");
+		kinds.add(REMOVE);
+		names.add(name);
+		sections.add(section);
+		courses.add(null);
+		counts[REMOVE]++;
+		return this;
+	}
+
+	/**
+	 * Returns the number of changes
+	 * @return the number of changes
+	 */
+	public int size() {
+		return kinds.size();
+	}
+
+	/**
+	 * Returns the number of Courses added
+	 * @return the number of additions
+	 */
+	public int getAddCount() {
+		return counts[ADD];
+	}
+
+	/**
+	 * Returns the number of Courses updated
+	 * @return the number of updates
+	 */
+	public int getUpdateCount() {
+		return counts[UPDATE];
+	}
+
+	/**
+	 * Returns the number of Courses removed
+	 * @return the number of removals
+	 */
+	public int getRemoveCount() {
+		return counts[REMOVE];
+	}
+
+	/**
+	 * Returns the kind of a change
+	 * @param index index of the change
+	 * @return ADD, UPDATE, or REMOVE
+	 */
+	int getKind(int index) {
+		return kinds.get(index);
+	}
+
+	/**
+	 * Returns the name of the Course a change is for
+	 * @param index index of the change
+	 * @return the name
+	 */
+	String getName(int index) {
+		return names.get(index);
+	}
+
+	/**
+	 * Returns the section of the Course a change is for
+	 * @param index index of the change
+	 * @return the section
+	 */
+	String getSection(int index) {
+		return sections.get(index);
+	}
+
+	/**
+	 * Returns the new Course of a change
+	 * @param index index of the change
+	 * @return the Course, or null for a removal
+	 */
+	Course getCourse(int index) {
+		return courses.get(index);
+	}
+
+	/**
+	 * Returns the number of changes of each kind
+	 * @return the counts as a String
+	 */
+	@Override
+	public String toString() {
+		return getAddCount() + " added, " + getUpdateCount() + " updated, " + getRemoveCount() + " removed";
+	}
+
+	/**
+	 * Builds the delta that turns one catalog into another.  Each Course is matched by name and
+	 * section, and a matched Course is updated only if the content hash of its record changed.
+	 * Like lookups, only the first Course with a given name and section in each catalog is used.
+	 * Removals come first, then updates and additions in the order of the updated catalog.
+	 * @param loaded catalog the delta applies to
+	 * @param updated catalog the delta should produce
+	 * @return the changes from loaded to updated
+	 */
+	public static CatalogDelta diff(CourseCatalog loaded, CourseCatalog updated) {
+		LinkedHashMap<String, Course> before = firstByKey(loaded);
+		LinkedHashMap<String, Course> after = firstByKey(updated);
+
+		CatalogDelta delta = new CatalogDelta();
+		for (Map.Entry<String, Course> entry : before.entrySet()) {
+			if (!after.containsKey(entry.getKey()))
+				delta.remove(entry.getValue().getName(), entry.getValue().getSection());
+		}
+		for (Map.Entry<String, Course> entry : after.entrySet()) {
+			Course old = before.get(entry.getKey());
+			if (old == null)
+				delta.add(entry.getValue());
+			else if (contentHash(old) != contentHash(entry.getValue()))
+				delta.update(entry.getValue());
+		}
+		return delta;
+	}
+
+	/**
+	 * Returns the first Course with each name and section in a catalog, in catalog order
+	 * @param catalog catalog to read
+	 * @return the Courses by key
+	 */
+	private static LinkedHashMap<String, Course> firstByKey(CourseCatalog catalog) {
+		LinkedHashMap<String, Course> byKey = new LinkedHashMap<String, Course>();
+		HashSet<String> seen = new HashSet<String>();
+		for (int i = 0; i < catalog.size(); i++) {
+			Course course = catalog.getCourse(i);
+			String key = key(course.getName(), course.getSection());
+			if (seen.add(key))
+				byKey.put(key, course);
+		}
+		return byKey;
+	}
+
+	/**
+	 * Returns the key of a name and section.  Names can't contain commas, so the key is unique.
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return the key
+	 */
+	static String key(String name, String section) {
+		return name + "," + section;
+	}
+
+	/**
+	 * Hashes a Course's record, which holds every field, with 64-bit FNV-1a
+	 * @param course Course to hash
+	 * @return the content hash
+	 */
+	static long contentHash(Course course) {
+		String record = course.toString();
+		long hash = 0xCBF29CE484222325L;
+		for (int i = 0; i < record.length(); i++) {
+			hash ^= record.charAt(i);
+			hash *= 0x100000001B3L;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,293 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseFieldDictionary;
+
+/**
+ * Keeps the catalogs of many terms, each registered under a key with the file it is read from.
+ * A catalog is read the first time it is asked for and then shared by every caller, including
+ * every WolfScheduler created through the registry.  Each term also has one EnrollmentTracker,
+ * shared by the schedulers the registry creates for it, so a section's capacity holds across
+ * all of them.  The tracker also keeps the term's waitlists, so a ScheduleSessionManager
+ * built on it gives the seats those schedulers drop to its waiting users, and the schedulers
+ * can't take a seat someone is waiting for.  The tracker is kept when the term's catalog is
+ * dropped or registered again, so seats already taken stay counted.  When the estimated size of the loaded
+ * catalogs goes over the memory budget, the least recently used catalogs are dropped until it
+ * fits again, and are read again if they are asked for later.  The catalog just loaded is never
+ * dropped, so one catalog larger than the budget can still be used.
+ *
+ * Dropping a catalog only removes it from the registry.  Schedulers already using it keep
+ * working, and its memory is freed once they are gone.
+ *
+ * A registry can be shared between threads.  Catalogs are read outside the registry's lock,
+ * and threads asking for a catalog that is being read wait for that read rather than starting
+ * another.
+ *
+ * @author Ben Morris
+ */
+public class CatalogRegistry {
+
+	/**
+	 * Estimated bytes each Course adds to a loaded catalog besides its Strings: the Course
+	 * object, its slot in the catalog list, and its entry in the name and section index
+	 */
+	static final long COURSE_SIZE = 120;
+
+	/** Most bytes of loaded catalogs to keep */
+	private final long memoryBudget;
+	/** File of each registered key */
+	private final HashMap<String, String> files = new HashMap<String, String>();
+	/** Loaded catalogs, least recently used first */
+	private final LinkedHashMap<String, LoadedCatalog> loaded = new LinkedHashMap<String, LoadedCatalog>(16, 0.75f, true);
+	/** Tracker of the seats taken in each registered term's sections */
+	private final HashMap<String, EnrollmentTracker> trackers = new HashMap<String, EnrollmentTracker>();
+	/** Reads in progress */
+	private final HashMap<String, FutureTask<LoadedCatalog>> loading = new HashMap<String, FutureTask<LoadedCatalog>>();
+	/** Estimated bytes of the loaded catalogs */
+	private long usedBytes;
+	/** Number of catalogs read */
+	private long loadCount;
+	/** Number of catalogs dropped to stay within the budget */
+	private long evictionCount;
+
+	/**
+	 * Creates an empty registry
+	 * @param memoryBudget most estimated bytes of loaded catalogs to keep
+	 * @throws IllegalArgumentException "Invalid memory budget." if the budget isn't positive
+	 */
+	public CatalogRegistry(long memoryBudget) {
+		if (memoryBudget <= 0)
+			throw new IllegalArgumentException("Invalid memory budget.");
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Registers the file a term's catalog is read from.  If the key was already registered, its
+	 * loaded catalog is dropped so the next use reads the file again, even if it is the same
+	 * file, and a read that is still in progress is never kept.
+	 * @param key key of the term, such as "2024FA"
+	 * @param fileName course records or catalog snapshot file of the term
+	 * @throws IllegalArgumentException "Invalid term." if the key or file name is null
+	 */
+	public synchronized void register(String key, String fileName) {
+		if (key == null || fileName == null)
+			throw new IllegalArgumentException("Invalid term.");
+		files.put(key, fileName);
+		if (!trackers.containsKey(key))
+			trackers.put(key, new EnrollmentTracker());
+		//A read of the old file in progress is left to finish, but no one else waits for it
+		loading.remove(key);
+		LoadedCatalog old = loaded.remove(key);
+		if (old != null)
+			usedBytes -= old.size;
+	}
+
+	/**
+	 * Returns the catalog of a term, reading it if it isn't loaded
+	 * @param key key of the term
+	 * @return the catalog
+	 * @throws IllegalArgumentException "Unknown term." if the key isn't registered
+	 * @throws IllegalArgumentException "Cannot find file." if the term's file is not found
+	 * @throws IllegalArgumentException "Cannot read file." if the term's file is a snapshot that
+	 * 		   cannot be read
+	 */
+	public CourseCatalog getCatalog(String key) {
+		FutureTask<LoadedCatalog> task;
+		boolean reader = false;
+		synchronized (this) {
+			LoadedCatalog catalog = loaded.get(key);
+			if (catalog != null)
+				return catalog.catalog;
+			final String fileName = files.get(key);
+			if (fileName == null)
+				throw new IllegalArgumentException("Unknown term.");
+			task = loading.get(key);
+			if (task == null) {
+				task = new FutureTask<LoadedCatalog>(new Callable<LoadedCatalog>() {
+					@Override
+					public LoadedCatalog call() {
+						CourseCatalog catalog = readCatalog(fileName);
+						return new LoadedCatalog(catalog, estimateSize(catalog));
+					}
+				});
+				loading.put(key, task);
+				reader = true;
+			}
+		}
+
+		if (!reader)
+			return await(task).catalog;
+		task.run();
+		LoadedCatalog catalog = null;
+		try {
+			catalog = await(task);
+		} finally {
+			keep(key, task, catalog);
+		}
+		return catalog.catalog;
+	}
+
+	/**
+	 * Reads a term's catalog.  Called outside the registry's lock.
+	 * @param fileName course records or catalog snapshot file of the term
+	 * @return the catalog
+	 * @throws IllegalArgumentException if the file can't be read, as WolfScheduler.readCatalog() does
+	 */
+	CourseCatalog readCatalog(String fileName) {
+		return WolfScheduler.readCatalog(fileName);
+	}
+
+	/**
+	 * Waits for a read to finish
+	 * @param task the read
+	 * @return the catalog read
+	 * @throws IllegalArgumentException the exception the read failed with, or "Cannot read
+	 * 		   file." if the wait was interrupted
+	 */
+	private static LoadedCatalog await(FutureTask<LoadedCatalog> task) {
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalArgumentException("Cannot read file.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalArgumentException("Cannot read file.");
+		}
+	}
+
+	/**
+	 * Keeps a catalog that was just read, then drops least recently used catalogs until the
+	 * loaded catalogs fit in the budget.  Only the term's current read is kept, since
+	 * register() replaces it.  A failed read is only removed from the reads in progress, so the
+	 * next use tries again.
+	 * @param key key of the term
+	 * @param task the read
+	 * @param catalog the catalog read, or null if the read failed
+	 */
+	private synchronized void keep(String key, FutureTask<LoadedCatalog> task, LoadedCatalog catalog) {
+		boolean current = loading.get(key) == task;
+		if (current)
+			loading.remove(key);
+		//Skip the catalog if the term was registered again while it was read, even with the same file
+		if (catalog == null || !current)
+			return;
+		loaded.put(key, catalog);
+		loadCount++;
+		usedBytes += catalog.size;
+
+		Iterator<Map.Entry<String, LoadedCatalog>> leastRecent = loaded.entrySet().iterator();
+		while (usedBytes > memoryBudget && loaded.size() > 1) {
+			Map.Entry<String, LoadedCatalog> entry = leastRecent.next();
+			usedBytes -= entry.getValue().size;
+			leastRecent.remove();
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * Returns the tracker of the seats taken in a term's sections, shared by every scheduler
+	 * created for the term
+	 * @param key key of the term
+	 * @return the enrollment tracker
+	 * @throws IllegalArgumentException "Unknown term." if the key isn't registered
+	 */
+	public synchronized EnrollmentTracker getEnrollmentTracker(String key) {
+		EnrollmentTracker tracker = trackers.get(key);
+		if (tracker == null)
+			throw new IllegalArgumentException("Unknown term.");
+		return tracker;
+	}
+
+	/**
+	 * Creates a scheduler with an empty schedule over a term's catalog, claiming seats from the
+	 * term's enrollment tracker
+	 * @param key key of the term
+	 * @return the scheduler
+	 * @throws IllegalArgumentException if the catalog can't be returned by getCatalog()
+	 */
+	public WolfScheduler createScheduler(String key) {
+		return new WolfScheduler(getCatalog(key), getEnrollmentTracker(key));
+	}
+
+	/**
+	 * Returns whether a term's catalog is loaded
+	 * @param key key of the term
+	 * @return true if the catalog is loaded
+	 */
+	public synchronized boolean isLoaded(String key) {
+		//containsKey() doesn't count as a use
+		return loaded.containsKey(key);
+	}
+
+	/**
+	 * Returns the estimated bytes of the loaded catalogs
+	 * @return the estimated bytes
+	 */
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+
+	/**
+	 * Returns the number of catalogs read, counting catalogs read again after being dropped
+	 * @return the number of reads
+	 */
+	public synchronized long getLoadCount() {
+		return loadCount;
+	}
+
+	/**
+	 * Returns the number of catalogs dropped to stay within the budget
+	 * @return the number of catalogs dropped
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Estimates the heap bytes of a catalog, counting each distinct String value once
+	 * @param catalog catalog to measure
+	 * @return the estimated bytes
+	 */
+	static long estimateSize(CourseCatalog catalog) {
+		CourseFieldDictionary values = new CourseFieldDictionary();
+		for (int i = 0; i < catalog.size(); i++) {
+			Course course = catalog.getCourse(i);
+			values.idOf(course.getName());
+			values.idOf(course.getTitle());
+			values.idOf(course.getSection());
+			values.idOf(course.getInstructorId());
+			values.idOf(course.getMeetingDays());
+		}
+		return catalog.size() * COURSE_SIZE + values.getValueBytes();
+	}
+
+	/**
+	 * A loaded catalog with its estimated size
+	 */
+	private static class LoadedCatalog {
+		/** The catalog */
+		private final CourseCatalog catalog;
+		/** Estimated bytes of the catalog */
+		private final long size;
+
+		/**
+		 * Creates a loaded catalog
+		 * @param catalog the catalog
+		 * @param size estimated bytes of the catalog
+		 */
+		LoadedCatalog(CourseCatalog catalog, long size) {
+			this.catalog = catalog;
+			this.size = size;
+		}
+	}
+}
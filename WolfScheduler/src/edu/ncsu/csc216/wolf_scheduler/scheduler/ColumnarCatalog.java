@@ -0,0 +1,324 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseFieldDictionary;
+
+/**
+ * Catalog that stores each field of its Courses in its own array instead of keeping a Course
+ * object per row.  Numeric fields are plain int columns, and String fields are columns of
+ * CourseFieldDictionary ids, so a row costs a few dozen bytes no matter how many Courses
+ * repeat a title or instructor.  Scans of one field, such as totaling credits or counting
+ * sections on a day, read a single contiguous array.
+ *
+ * Lookups by name and section follow a chain through the rows with the same name id, so the
+ * index is two more int arrays rather than a map of maps.  getCourse() and the lookups build
+ * a new Course from the row each time they are called.
+ *
+ * The catalog can't be changed once it is built and can be shared between threads.
+ *
+ * @author Ben Morris
+ */
+public class ColumnarCatalog implements CourseCatalog {
+
+	/** Number of columns in the catalog array */
+	private static final int CATALOG_ARRAY_WIDTH = 3;
+	/** Marks the end of a chain of rows */
+	private static final int NONE = -1;
+
+	/** Dictionary the String columns are coded in */
+	private final CourseFieldDictionary dictionary;
+	/** Dictionary id of each row's name */
+	private final int[] names;
+	/** Dictionary id of each row's title */
+	private final int[] titles;
+	/** Dictionary id of each row's section */
+	private final int[] sections;
+	/** Credits of each row */
+	private final int[] credits;
+	/** Dictionary id of each row's instructor id */
+	private final int[] instructorIds;
+	/** Dictionary id of each row's meeting days */
+	private final int[] meetingDays;
+	/** Start time of each row */
+	private final int[] startTimes;
+	/** End time of each row */
+	private final int[] endTimes;
+	/** Meeting days mask of each row */
+	private final int[] meetingDaysMasks;
+	/** Capacity of each row */
+	private final int[] capacities;
+
+	/** First row with each name id, or NONE */
+	private final int[] firstWithName;
+	/** Next row with the same name and a different section, or NONE */
+	private final int[] nextWithName;
+
+	/** Catalog array, built the first time it is asked for */
+	private volatile String[][] catalogArray;
+
+	/**
+	 * Creates a catalog of the given Courses with its own dictionary
+	 * @param courses Courses in catalog order
+	 */
+	public ColumnarCatalog(ArrayList<Course> courses) {
+		this(courses, new CourseFieldDictionary());
+	}
+
+	/**
+	 * Creates a catalog of the given Courses, coding their String fields in the given
+	 * dictionary.  Sharing the dictionary the Courses were read with reuses its ids.
+	 * @param courses Courses in catalog order
+	 * @param dictionary dictionary to code the String fields in
+	 */
+	public ColumnarCatalog(ArrayList<Course> courses, CourseFieldDictionary dictionary) {
+		this.dictionary = dictionary;
+		int size = courses.size();
+		names = new int[size];
+		titles = new int[size];
+		sections = new int[size];
+		credits = new int[size];
+		instructorIds = new int[size];
+		meetingDays = new int[size];
+		startTimes = new int[size];
+		endTimes = new int[size];
+		meetingDaysMasks = new int[size];
+		capacities = new int[size];
+		for (int i = 0; i < size; i++) {
+			Course course = courses.get(i);
+			names[i] = dictionary.idOf(course.getName());
+			titles[i] = dictionary.idOf(course.getTitle());
+			sections[i] = dictionary.idOf(course.getSection());
+			credits[i] = course.getCredits();
+			instructorIds[i] = dictionary.idOf(course.getInstructorId());
+			meetingDays[i] = dictionary.idOf(course.getMeetingDays());
+			startTimes[i] = course.getStartTime();
+			endTimes[i] = course.getEndTime();
+			meetingDaysMasks[i] = course.getMeetingDaysMask();
+			capacities[i] = course.getCapacity();
+		}
+
+		//Chain the rows of each name in catalog order, leaving out repeated sections
+		firstWithName = new int[dictionary.size()];
+		int[] lastWithName = new int[firstWithName.length];
+		nextWithName = new int[size];
+		Arrays.fill(firstWithName, NONE);
+		for (int i = 0; i < size; i++) {
+			nextWithName[i] = NONE;
+			if (firstWithName[names[i]] == NONE) {
+				firstWithName[names[i]] = i;
+				lastWithName[names[i]] = i;
+			} else if (findRow(names[i], sections[i]) == NONE) {
+				nextWithName[lastWithName[names[i]]] = i;
+				lastWithName[names[i]] = i;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of Courses in the catalog
+	 * @return the number of Courses
+	 */
+	@Override
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * Builds the Course at the given row
+	 * @param index row of the Course
+	 * @return a new Course with the row's fields
+	 * @throws IndexOutOfBoundsException if there is no row at the index
+	 */
+	@Override
+	public Course getCourse(int index) {
+		return new Course(getName(index), getTitle(index), getSection(index), credits[index],
+				getInstructorId(index), getMeetingDays(index), startTimes[index], endTimes[index], capacities[index]);
+	}
+
+	/**
+	 * Searches for a Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return a new Course with the given name and section, or null if it isn't in the catalog
+	 */
+	@Override
+	public Course getCourseFromCatalog(String name, String section) {
+		int row = indexOf(name, section);
+		return row == NONE ? null : getCourse(row);
+	}
+
+	/**
+	 * Returns the row of the Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return the row, or -1 if the Course isn't in the catalog
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		int nameId = dictionary.find(name);
+		int sectionId = dictionary.find(section);
+		if (nameId == NONE || sectionId == NONE || nameId >= firstWithName.length)
+			return NONE;
+		return findRow(nameId, sectionId);
+	}
+
+	/**
+	 * Follows the chain of rows with a name to the row with a section
+	 * @param nameId dictionary id of the name
+	 * @param sectionId dictionary id of the section
+	 * @return the row, or NONE if no chained row has the section
+	 */
+	private int findRow(int nameId, int sectionId) {
+		int row = firstWithName[nameId];
+		while (row != NONE && sections[row] != sectionId)
+			row = nextWithName[row];
+		return row;
+	}
+
+	/**
+	 * Returns every section of the Course with the given name, in catalog order
+	 * @param name Course's name
+	 * @return new Courses for the sections, or an empty list if the name isn't in the catalog
+	 */
+	@Override
+	public ArrayList<Course> getSections(String name) {
+		ArrayList<Course> found = new ArrayList<Course>();
+		int nameId = dictionary.find(name);
+		if (nameId == NONE || nameId >= firstWithName.length)
+			return found;
+		for (int row = firstWithName[nameId]; row != NONE; row = nextWithName[row])
+			found.add(getCourse(row));
+		return found;
+	}
+
+	/**
+	 * Returns a 2D String array of the catalog with a row for each Course holding its name,
+	 * section, and title.  The array is built once and the same array is returned by every
+	 * call, so callers must not modify it.
+	 * @return 2D String array of the catalog
+	 */
+	@Override
+	public String[][] getCourseCatalog() {
+		String[][] catalog = catalogArray;
+		if (catalog == null) {
+			catalog = new String[size()][CATALOG_ARRAY_WIDTH];
+			for (int i = 0; i < catalog.length; i++) {
+				catalog[i][0] = getName(i);
+				catalog[i][1] = getSection(i);
+				catalog[i][2] = getTitle(i);
+			}
+			catalogArray = catalog;
+		}
+		return catalog;
+	}
+
+	/**
+	 * Returns the dictionary the String columns are coded in
+	 * @return the dictionary
+	 */
+	public CourseFieldDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * Returns the name of the Course at a row
+	 * @param index row of the Course
+	 * @return the name
+	 */
+	public String getName(int index) {
+		return dictionary.valueOf(names[index]);
+	}
+
+	/**
+	 * Returns the dictionary id of the name of the Course at a row
+	 * @param index row of the Course
+	 * @return the name id
+	 */
+	public int getNameId(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Returns the title of the Course at a row
+	 * @param index row of the Course
+	 * @return the title
+	 */
+	public String getTitle(int index) {
+		return dictionary.valueOf(titles[index]);
+	}
+
+	/**
+	 * Returns the section of the Course at a row
+	 * @param index row of the Course
+	 * @return the section
+	 */
+	public String getSection(int index) {
+		return dictionary.valueOf(sections[index]);
+	}
+
+	/**
+	 * Returns the credits of the Course at a row
+	 * @param index row of the Course
+	 * @return the credits
+	 */
+	public int getCredits(int index) {
+		return credits[index];
+	}
+
+	/**
+	 * Returns the instructor id of the Course at a row
+	 * @param index row of the Course
+	 * @return the instructor id
+	 */
+	public String getInstructorId(int index) {
+		return dictionary.valueOf(instructorIds[index]);
+	}
+
+	/**
+	 * Returns the meeting days of the Course at a row
+	 * @param index row of the Course
+	 * @return the meeting days
+	 */
+	public String getMeetingDays(int index) {
+		return dictionary.valueOf(meetingDays[index]);
+	}
+
+	/**
+	 * Returns the start time of the Course at a row
+	 * @param index row of the Course
+	 * @return the start time
+	 */
+	public int getStartTime(int index) {
+		return startTimes[index];
+	}
+
+	/**
+	 * Returns the end time of the Course at a row
+	 * @param index row of the Course
+	 * @return the end time
+	 */
+	public int getEndTime(int index) {
+		return endTimes[index];
+	}
+
+	/**
+	 * Returns the meeting days mask of the Course at a row
+	 * @param index row of the Course
+	 * @return the meeting days mask, 0 for arranged Courses
+	 */
+	public int getMeetingDaysMask(int index) {
+		return meetingDaysMasks[index];
+	}
+
+	/**
+	 * Returns the capacity of the Course at a row
+	 * @param index row of the Course
+	 * @return the capacity, Course.UNLIMITED_CAPACITY if there is no limit
+	 */
+	public int getCapacity(int index) {
+		return capacities[index];
+	}
+}
@@ -0,0 +1,416 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Scheduler that many threads can use at once without locking, for servers with many users.
+ * It has the same schedule operations and messages as WolfScheduler.
+ *
+ * The catalog, schedule, and title make up one immutable state.  Each change builds a new
+ * state from the current one and installs it with a compare-and-set, trying again if another
+ * thread changed the state first, so every operation takes effect at a single point and no
+ * thread ever waits on a lock.  Queries read the current state once and see one whole schedule
+ * over one whole catalog.  Catalogs are immutable, so one catalog, such as one from a
+ * CatalogRegistry, can be shared by every scheduler, and schedulers never contend with each
+ * other.
+ *
+ * Each scheduled Course holds a seat claimed from an EnrollmentTracker.  An add claims its seat
+ * once it has checked the Course against the current state, and keeps the seat while it tries
+ * again after another thread changed the state, checking the Course against each new state.
+ * The seat is only given back if the add fails, so a retry never frees and reclaims a seat that
+ * a scheduler sharing the tracker could be turned away from in between.
+ *
+ * @author Ben Morris
+ */
+public class ConcurrentWolfScheduler implements CourseCatalog {
+	/** Width of the limited Schedule array */
+	private static final int CATALOG_ARRAY_WIDTH = 3;
+	/** Width of the full array containing all of the fields */
+	private static final int FULL_ARRAY_WIDTH = 6;
+
+	/** Current catalog, schedule, and title */
+	private final AtomicReference<ScheduleState> state;
+	/** Seats taken in each section */
+	private final EnrollmentTracker enrollment;
+
+	/**
+	 * Creates a scheduler with an empty schedule over the given catalog with its own enrollment
+	 * tracker.  Seats are only counted for this one scheduler, so schedulers of users who share
+	 * sections must be given a shared tracker instead.
+	 * @param catalog catalog to choose Courses from
+	 */
+	public ConcurrentWolfScheduler(CourseCatalog catalog) {
+		this(catalog, new EnrollmentTracker());
+	}
+
+	/**
+	 * Creates a scheduler with an empty schedule over the given catalog, claiming seats from the
+	 * given tracker
+	 * @param catalog catalog to choose Courses from
+	 * @param enrollment tracker of the seats taken in each section
+	 */
+	public ConcurrentWolfScheduler(CourseCatalog catalog, EnrollmentTracker enrollment) {
+		state = new AtomicReference<ScheduleState>(new ScheduleState(catalog, "My Schedule"));
+		this.enrollment = enrollment;
+	}
+
+	/**
+	 * Creates a scheduler with an empty schedule over a catalog read from a file, counting seats
+	 * only for itself as ConcurrentWolfScheduler(CourseCatalog) does
+	 * @param file filename for the course records or catalog snapshot that should be read in and stored
+	 * @throws IllegalArgumentException "Cannot find file." if the file to read from is not found
+	 * @throws IllegalArgumentException "Cannot read file." if the file is a snapshot that cannot be read
+	 */
+	public ConcurrentWolfScheduler(String file) {
+		this(WolfScheduler.readCatalog(file));
+	}
+
+	/**
+	 * Returns the catalog the schedule is built from
+	 * @return the current catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return state.get().catalog;
+	}
+
+	/**
+	 * Returns the tracker of the seats taken in each section
+	 * @return the enrollment tracker
+	 */
+	public EnrollmentTracker getEnrollmentTracker() {
+		return enrollment;
+	}
+
+	/**
+	 * Returns a 2D String array of the catalog with a row for each Course holding its name,
+	 * section, and title
+	 * @return 2D String array of the catalog
+	 */
+	@Override
+	public String[][] getCourseCatalog() {
+		return getCatalog().getCourseCatalog();
+	}
+
+	/**
+	 * Searches for a Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return Course with the given name and section, or null if it isn't in the catalog
+	 */
+	@Override
+	public Course getCourseFromCatalog(String name, String section) {
+		return getCatalog().getCourseFromCatalog(name, section);
+	}
+
+	/**
+	 * Returns the position of the Course with the given name and section in the catalog
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return the position, or -1 if the Course isn't in the catalog
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		return getCatalog().indexOf(name, section);
+	}
+
+	/**
+	 * Returns the number of Courses in the catalog
+	 * @return the number of Courses
+	 */
+	@Override
+	public int size() {
+		return getCatalog().size();
+	}
+
+	/**
+	 * Returns the Course at the given position in the catalog
+	 * @param index position of the Course
+	 * @return the Course
+	 * @throws IndexOutOfBoundsException if there is no Course at the index
+	 */
+	@Override
+	public Course getCourse(int index) {
+		return getCatalog().getCourse(index);
+	}
+
+	/**
+	 * Returns every section of the Course with the given name, in catalog order
+	 * @param name Course's name
+	 * @return the sections, or an empty list if the name isn't in the catalog
+	 */
+	@Override
+	public ArrayList<Course> getSections(String name) {
+		return getCatalog().getSections(name);
+	}
+
+	/**
+	 * Returns a 2D String array of the schedule with a row for each Course holding its name,
+	 * section, and title.  The array is built once for each state of the schedule and must not
+	 * be modified.
+	 * @return 2D String array of the schedule
+	 */
+	public String[][] getScheduledCourses() {
+		return state.get().getScheduleArray();
+	}
+
+	/**
+	 * Returns a 2D String array of the schedule with a row for each Course holding its name,
+	 * section, title, credits, instructor id, and meeting string.  The array is built once for
+	 * each state of the schedule and must not be modified.
+	 * @return 2D String array of the schedule with all information
+	 */
+	public String[][] getFullScheduledCourses() {
+		return state.get().getFullScheduleArray();
+	}
+
+	/**
+	 * Adds a Course from the catalog to the schedule
+	 * @param name name of the Course to add to the schedule
+	 * @param section section of the Course to add to the schedule
+	 * @return true if the Course exists and was added to the schedule, false if it isn't in the catalog
+	 * @throws IllegalArgumentException "You are already enrolled in [course]" if a course with the
+	 * 		   same name is already scheduled
+	 * @throws IllegalArgumentException "The course cannot be added due to a conflict with [course]-[section]"
+	 * 		   if the course meets at the same time as a scheduled course
+	 * @throws IllegalArgumentException "The course [course]-[section] is full." if every seat in the
+	 * 		   section is taken or other users are waiting for one
+	 */
+	public boolean addCourseToSchedule(String name, String section) {
+		//Section the seat was claimed in, until the add succeeds
+		Course claimed = null;
+		try {
+			while (true) {
+				ScheduleState current = state.get();
+				Course addedCourse = current.catalog.getCourseFromCatalog(name, section);
+				if (addedCourse == null)
+					return false;
+				if (current.index.getCourse(name) != null)
+					throw new IllegalArgumentException("You are already enrolled in " + name);
+				Course conflict = current.index.findConflict(addedCourse);
+				if (conflict != null)
+					throw new IllegalArgumentException("The course cannot be added due to a conflict with "
+							+ conflict.getName() + "-" + conflict.getSection());
+
+				if (claimed == null) {
+					if (!enrollment.claimSeat(addedCourse))
+						throw new IllegalArgumentException("The course " + name + "-" + section + " is full.");
+					claimed = addedCourse;
+				}
+
+				Course[] courses = Arrays.copyOf(current.courses, current.courses.length + 1);
+				courses[current.courses.length] = addedCourse;
+				ScheduleState added = new ScheduleState(current.catalog, courses, current.index.plus(addedCourse), current.title);
+				if (state.compareAndSet(current, added)) {
+					claimed = null;
+					return true;
+				}
+			}
+		} finally {
+			if (claimed != null)
+				enrollment.releaseSeat(claimed);
+		}
+	}
+
+	/**
+	 * Removes a Course from the schedule
+	 * @param name name of the course to remove
+	 * @param section section number of the course to remove
+	 * @return true if the Course is removed from the schedule, false if it isn't scheduled
+	 */
+	public boolean removeCourseFromSchedule(String name, String section) {
+		while (true) {
+			ScheduleState current = state.get();
+			Course courseToRemove = current.index.getCourse(name);
+			if (courseToRemove == null || !courseToRemove.getSection().equals(section))
+				return false;
+
+			Course[] courses = new Course[current.courses.length - 1];
+			int next = 0;
+			for (int i = 0; i < current.courses.length; i++) {
+				if (current.courses[i] != courseToRemove)
+					courses[next++] = current.courses[i];
+			}
+			ScheduleState removed = new ScheduleState(current.catalog, courses, current.index.minus(courseToRemove), current.title);
+			if (state.compareAndSet(current, removed)) {
+				enrollment.releaseSeat(courseToRemove);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Removes every Course from the schedule
+	 */
+	public void resetSchedule() {
+		while (true) {
+			ScheduleState current = state.get();
+			if (state.compareAndSet(current, new ScheduleState(current.catalog, current.title))) {
+				for (int i = 0; i < current.courses.length; i++)
+					enrollment.releaseSeat(current.courses[i]);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Replaces the catalog and re-resolves the schedule against it, as WolfScheduler does.  Each
+	 * scheduled Course is replaced by the new catalog's Course with the same name and section,
+	 * and is dropped if its section is no longer in the catalog or it now conflicts with a Course
+	 * earlier in the schedule.  Courses added on other threads are re-resolved too, since they
+	 * are added either before the new catalog, or from it.  Dropped Courses give back their seats.
+	 * @param newCatalog catalog to use from now on
+	 * @return the scheduled Courses that were dropped, as they were before the catalog was replaced
+	 */
+	public ArrayList<Course> replaceCatalog(CourseCatalog newCatalog) {
+		while (true) {
+			ScheduleState current = state.get();
+			ArrayList<Course> resolved = new ArrayList<Course>(current.courses.length);
+			ArrayList<Course> dropped = new ArrayList<Course>();
+			ScheduleConflictIndex index = WolfScheduler.resolveSchedule(Arrays.asList(current.courses), newCatalog,
+					resolved, dropped);
+			Course[] courses = resolved.toArray(new Course[resolved.size()]);
+			if (state.compareAndSet(current, new ScheduleState(newCatalog, courses, index, current.title))) {
+				for (int i = 0; i < dropped.size(); i++)
+					enrollment.releaseSeat(dropped.get(i));
+				return dropped;
+			}
+		}
+	}
+
+	/**
+	 * Reads a new catalog from a file and replaces the current one with it, keeping the schedule
+	 * and title.  The file is read before anything is changed.
+	 * @param file filename for the course records or catalog snapshot of the new catalog
+	 * @return the scheduled Courses that were dropped, as described by replaceCatalog()
+	 * @throws IllegalArgumentException "Cannot find file." if the file to read from is not found
+	 * @throws IllegalArgumentException "Cannot read file." if the file is a snapshot that cannot be read
+	 */
+	public ArrayList<Course> reloadCatalog(String file) {
+		return replaceCatalog(WolfScheduler.readCatalog(file));
+	}
+
+	/**
+	 * Sets the schedule's title
+	 * @param title new schedule title
+	 * @throws IllegalArgumentException "Title cannot be null" if the title is null.
+	 */
+	public void setScheduleTitle(String title) {
+		if (title == null)
+			throw new IllegalArgumentException("Title cannot be null");
+		while (true) {
+			ScheduleState current = state.get();
+			if (state.compareAndSet(current, new ScheduleState(current.catalog, current.courses, current.index, title)))
+				return;
+		}
+	}
+
+	/**
+	 * Returns the schedule title
+	 * @return title of the schedule
+	 */
+	public String getScheduleTitle() {
+		return state.get().title;
+	}
+
+	/**
+	 * Exports the schedule to file with the passed name
+	 * @param fileName file to export to
+	 * @throws IllegalArgumentException "The file cannot be saved." if there is an IOException when trying to save the file.
+	 */
+	public void exportSchedule(String fileName) {
+		try {
+			CourseRecordIO.writeCourseRecords(fileName, new ArrayList<Course>(Arrays.asList(state.get().courses)));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
+	/**
+	 * One immutable state of a scheduler.  Its index is never changed in place.  A change builds
+	 * the next state's index from the current one with plus() or minus(), which copy only the day
+	 * maps the Course meets on, so an add or a retried add never indexes the whole schedule again.
+	 * The state's arrays are built the first time they are asked for.
+	 */
+	private static class ScheduleState {
+		/** Catalog the Courses are chosen from */
+		private final CourseCatalog catalog;
+		/** Scheduled Courses, in the order they were added */
+		private final Course[] courses;
+		/** Index of the scheduled Courses by name and meeting time */
+		private final ScheduleConflictIndex index;
+		/** Schedule title */
+		private final String title;
+		/** Schedule array, built the first time it is needed */
+		private volatile String[][] scheduleArray;
+		/** Full schedule array, built the first time it is needed */
+		private volatile String[][] fullScheduleArray;
+
+		/**
+		 * Creates a state with an empty schedule
+		 * @param catalog catalog the Courses are chosen from
+		 * @param title schedule title
+		 */
+		ScheduleState(CourseCatalog catalog, String title) {
+			this(catalog, new Course[0], new ScheduleConflictIndex(), title);
+		}
+
+		/**
+		 * Creates a state
+		 * @param catalog catalog the Courses are chosen from
+		 * @param courses scheduled Courses, which the state keeps
+		 * @param index index of the scheduled Courses, which is never changed in place after
+		 * @param title schedule title
+		 */
+		ScheduleState(CourseCatalog catalog, Course[] courses, ScheduleConflictIndex index, String title) {
+			this.catalog = catalog;
+			this.courses = courses;
+			this.index = index;
+			this.title = title;
+		}
+
+		/**
+		 * Returns the name, section, and title of each scheduled Course
+		 * @return the schedule array
+		 */
+		String[][] getScheduleArray() {
+			String[][] array = scheduleArray;
+			if (array == null) {
+				array = new String[courses.length][CATALOG_ARRAY_WIDTH];
+				for (int i = 0; i < courses.length; i++) {
+					array[i][0] = courses[i].getName();
+					array[i][1] = courses[i].getSection();
+					array[i][2] = courses[i].getTitle();
+				}
+				scheduleArray = array;
+			}
+			return array;
+		}
+
+		/**
+		 * Returns every field of each scheduled Course
+		 * @return the full schedule array
+		 */
+		String[][] getFullScheduleArray() {
+			String[][] array = fullScheduleArray;
+			if (array == null) {
+				array = new String[courses.length][FULL_ARRAY_WIDTH];
+				for (int i = 0; i < courses.length; i++) {
+					array[i][0] = courses[i].getName();
+					array[i][1] = courses[i].getSection();
+					array[i][2] = courses[i].getTitle();
+					array[i][3] = "" + courses[i].getCredits();
+					array[i][4] = courses[i].getInstructorId();
+					array[i][5] = courses[i].getMeetingString();
+				}
+				fullScheduleArray = array;
+			}
+			return array;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Read-only queries over a catalog of Courses.  Courses are numbered in catalog order, which
+ * also orders getCourseCatalog() and getSections().  When more than one Course has the same
+ * name and section, lookups return the first of them.
+ *
+ * @author Ben Morris
+ */
+public interface CourseCatalog {
+
+	/**
+	 * Returns the number of Courses in the catalog
+	 * @return the number of Courses
+	 */
+	int size();
+
+	/**
+	 * Returns the Course at the given position in the catalog
+	 * @param index position of the Course
+	 * @return the Course
+	 * @throws IndexOutOfBoundsException if there is no Course at the index
+	 */
+	Course getCourse(int index);
+
+	/**
+	 * Searches for a Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return Course with the given name and section, or null if it isn't in the catalog
+	 */
+	Course getCourseFromCatalog(String name, String section);
+
+	/**
+	 * Returns the position of the Course getCourseFromCatalog() returns for a name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return the position, or -1 if the Course isn't in the catalog
+	 */
+	int indexOf(String name, String section);
+
+	/**
+	 * Returns every section of the Course with the given name, in catalog order
+	 * @param name Course's name
+	 * @return the sections, or an empty list if the name isn't in the catalog
+	 */
+	ArrayList<Course> getSections(String name);
+
+	/**
+	 * Returns a 2D String array of the catalog with a row for each Course holding its name,
+	 * section, and title.  Catalogs don't change, so implementations build the array the first
+	 * time it is asked for and return the same array after that, which lets a table be redrawn
+	 * without copying the catalog.  The array must not be modified.
+	 * @return 2D String array of the catalog
+	 */
+	String[][] getCourseCatalog();
+}
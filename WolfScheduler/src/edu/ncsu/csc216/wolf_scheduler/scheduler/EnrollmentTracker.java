@@ -0,0 +1,190 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Counts the seats taken in each section so a section is never enrolled past its capacity.
+ * Each section has its own atomic counter, found by name and section without locking.  A seat
+ * is claimed with a compare-and-set that only succeeds while the count is below the capacity,
+ * so concurrent claims can't oversell a section.
+ *
+ * When a popular section fills, most claims see a full count on their first read and are
+ * turned away without writing to the counter, so the rush after a section fills doesn't keep
+ * its counter's cache line moving between cores.  The totals of claims and rejections are kept
+ * in LongAdders, which spread those writes over many cells.
+ *
+ * Seats are counted by name and section rather than by Course object, so the counts carry over
+ * when the catalog is replaced.  A tracker is shared by every scheduler enrolling in the same
+ * sections.
+ *
+ * The tracker also owns the sections' SectionWaitlists, so every scheduler sharing it keeps to
+ * them.  A seat given back marks its section's waitlist, and while anyone is waiting for a
+ * section, claimSeat() turns everyone else away, so nobody takes a freed seat ahead of the
+ * users queued for it.
+ *
+ * @author Ben Morris
+ */
+public class EnrollmentTracker {
+
+	/** Seats taken in each section, by name and section */
+	private final ConcurrentHashMap<String, AtomicInteger> enrolled = new ConcurrentHashMap<String, AtomicInteger>();
+	/** Number of seats claimed */
+	private final LongAdder claimCount = new LongAdder();
+	/** Number of claims turned away because the section was full or had a waitlist */
+	private final LongAdder rejectedCount = new LongAdder();
+	/** Waitlist of each section */
+	private final SectionWaitlists waitlists;
+
+	/**
+	 * Creates a tracker with no seats taken that promotes waiting users on the common fork-join
+	 * pool
+	 */
+	public EnrollmentTracker() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a tracker with no seats taken that promotes waiting users on the given executor
+	 * @param executor executor to promote waiting users on
+	 */
+	public EnrollmentTracker(Executor executor) {
+		waitlists = new SectionWaitlists(executor);
+	}
+
+	/**
+	 * Claims a seat in a section if it isn't full and nobody is waiting for it.  Sections with
+	 * unlimited capacity always have a seat.
+	 * @param course section to claim a seat in
+	 * @return true if a seat was claimed, false if the section is full or has a waitlist
+	 */
+	public boolean claimSeat(Course course) {
+		String key = CatalogDelta.key(course.getName(), course.getSection());
+		//A freed seat goes to the users already waiting for it
+		if (waitlists.hasWaiting(key)) {
+			rejectedCount.increment();
+			return false;
+		}
+		return claim(key, course);
+	}
+
+	/**
+	 * Claims a seat in a section for a user whose turn on its waitlist has come.  Called by
+	 * SectionWaitlists while promoting.
+	 * @param course section to claim a seat in
+	 * @return true if a seat was claimed, false if the section is full
+	 */
+	boolean claimWaitingSeat(Course course) {
+		return claim(CatalogDelta.key(course.getName(), course.getSection()), course);
+	}
+
+	/**
+	 * Claims a seat in a section if it isn't full
+	 * @param key name and section of the section, as built by CatalogDelta.key()
+	 * @param course section to claim a seat in
+	 * @return true if a seat was claimed, false if the section is full
+	 */
+	private boolean claim(String key, Course course) {
+		AtomicInteger seats = counter(key);
+		if (!course.hasLimitedCapacity()) {
+			seats.incrementAndGet();
+			claimCount.increment();
+			return true;
+		}
+		while (true) {
+			int taken = seats.get();
+			if (taken >= course.getCapacity()) {
+				rejectedCount.increment();
+				return false;
+			}
+			if (seats.compareAndSet(taken, taken + 1)) {
+				claimCount.increment();
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Gives back a seat claimed in a section and lets the section's waitlist know it is free
+	 * @param course section to give the seat back to
+	 */
+	public void releaseSeat(Course course) {
+		String key = CatalogDelta.key(course.getName(), course.getSection());
+		AtomicInteger seats = enrolled.get(key);
+		if (seats == null)
+			return;
+		while (true) {
+			int taken = seats.get();
+			if (taken == 0)
+				return;
+			if (seats.compareAndSet(taken, taken - 1))
+				break;
+		}
+		waitlists.seatReleased(key);
+	}
+
+	/**
+	 * Returns the counter of a section, adding it if the section has none
+	 * @param key name and section of the section, as built by CatalogDelta.key()
+	 * @return the counter
+	 */
+	private AtomicInteger counter(String key) {
+		AtomicInteger seats = enrolled.get(key);
+		if (seats == null) {
+			AtomicInteger created = new AtomicInteger();
+			seats = enrolled.putIfAbsent(key, created);
+			if (seats == null)
+				seats = created;
+		}
+		return seats;
+	}
+
+	/**
+	 * Returns the number of seats taken in a section
+	 * @param name name of the section
+	 * @param section section number
+	 * @return the seats taken
+	 */
+	public int getEnrolled(String name, String section) {
+		AtomicInteger seats = enrolled.get(CatalogDelta.key(name, section));
+		return seats == null ? 0 : seats.get();
+	}
+
+	/**
+	 * Returns whether a section has no open seats
+	 * @param course the section
+	 * @return true if the section has a limited capacity and every seat is taken
+	 */
+	public boolean isFull(Course course) {
+		return course.hasLimitedCapacity() && getEnrolled(course.getName(), course.getSection()) >= course.getCapacity();
+	}
+
+	/**
+	 * Returns the waitlist of each section
+	 * @return the waitlists
+	 */
+	public SectionWaitlists getWaitlists() {
+		return waitlists;
+	}
+
+	/**
+	 * Returns the number of seats claimed, including seats given back since
+	 * @return the number of claims
+	 */
+	public long getClaimCount() {
+		return claimCount.sum();
+	}
+
+	/**
+	 * Returns the number of claims turned away because the section was full or had a waitlist
+	 * @return the number of rejected claims
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.sum();
+	}
+}
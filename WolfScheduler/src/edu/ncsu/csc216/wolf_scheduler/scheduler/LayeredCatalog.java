@@ -0,0 +1,481 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Catalog made of an unchanged base catalog and the CatalogDeltas applied to it since.  Each
+ * delta becomes a layer mapping name and then section to the new Course, or to null if the
+ * Course was removed.  Applying a delta copies the list of layers but not the layers, so it
+ * takes time proportional to the delta and the old catalog is left as it was.
+ *
+ * Lookups check the layers from newest to oldest and then the base.  Sections added by deltas
+ * come after the base sections of their name.  size(), getCourse(), and getCourseCatalog() need
+ * every row in order, so the first of them builds the rows, which are kept.  When the rows of
+ * the catalog the delta was applied to were built, the new rows are made from them by copying
+ * their arrays of base rows and rebuilding only the rows the delta changed, so redrawing a table
+ * of the catalog after a delta doesn't look up or rebuild every row.  Otherwise the rows are
+ * built from the base and every layer.
+ *
+ * Once there are too many layers they are merged into one, and once the changes add up to a
+ * large part of the base the rows become the new base.  Both are paid for by the deltas that
+ * caused them, so applying a delta still takes time proportional to its size on average.
+ *
+ * @author Ben Morris
+ */
+class LayeredCatalog implements CourseCatalog {
+
+	/** Most layers kept before they are merged */
+	static final int MAX_LAYERS = 16;
+	/** Fewest changes that cause the rows to become the new base */
+	static final int MIN_REBASE_CHANGES = 1024;
+	/** The rows become the new base once the changes are more than the base size over this */
+	static final int REBASE_DIVISOR = 8;
+
+	/** Catalog the deltas were applied to */
+	private final CourseCatalog base;
+	/** Changes of each delta, oldest first, by name and then section */
+	private final ArrayList<LinkedHashMap<String, LinkedHashMap<String, Course>>> layers;
+	/** Number of changes in the layers */
+	private final int changeCount;
+	/** Changes of the newest delta */
+	private final LinkedHashMap<String, LinkedHashMap<String, Course>> newestLayer;
+	/** Rows of the catalog the newest delta was applied to, or null if they weren't built */
+	private volatile Rows previousRows;
+	/** Every row in order, built the first time it is needed */
+	private volatile Rows rows;
+
+	/**
+	 * Creates a catalog from a base and its layers
+	 * @param base catalog the deltas were applied to
+	 * @param layers changes of each delta, oldest first
+	 * @param changeCount number of changes in the layers
+	 * @param newestLayer changes of the newest delta
+	 * @param previousRows rows of the catalog the newest delta was applied to, or null
+	 */
+	private LayeredCatalog(CourseCatalog base, ArrayList<LinkedHashMap<String, LinkedHashMap<String, Course>>> layers,
+			int changeCount, LinkedHashMap<String, LinkedHashMap<String, Course>> newestLayer, Rows previousRows) {
+		this.base = base;
+		this.layers = layers;
+		this.changeCount = changeCount;
+		this.newestLayer = newestLayer;
+		this.previousRows = previousRows;
+	}
+
+	/**
+	 * Applies a delta to a catalog, leaving the catalog unchanged
+	 * @param catalog catalog to apply the delta to
+	 * @param delta changes to apply, in order
+	 * @return the changed catalog
+	 * @throws IllegalArgumentException "The course [name]-[section] is already in the catalog." if
+	 * 		   a Course is added that is already in the catalog
+	 * @throws IllegalArgumentException "The course [name]-[section] is not in the catalog." if a
+	 * 		   Course is updated or removed that isn't in the catalog
+	 */
+	static CourseCatalog apply(CourseCatalog catalog, CatalogDelta delta) {
+		CourseCatalog base = catalog;
+		ArrayList<LinkedHashMap<String, LinkedHashMap<String, Course>>> layers =
+				new ArrayList<LinkedHashMap<String, LinkedHashMap<String, Course>>>();
+		int changeCount = 0;
+		Rows previousRows = null;
+		if (catalog instanceof LayeredCatalog) {
+			LayeredCatalog layered = (LayeredCatalog) catalog;
+			base = layered.base;
+			layers.addAll(layered.layers);
+			changeCount = layered.changeCount;
+			previousRows = layered.rows;
+		}
+
+		LinkedHashMap<String, LinkedHashMap<String, Course>> layer = new LinkedHashMap<String, LinkedHashMap<String, Course>>();
+		layers.add(layer);
+		LayeredCatalog applied = new LayeredCatalog(base, layers, changeCount + delta.size(), layer, previousRows);
+		for (int i = 0; i < delta.size(); i++) {
+			String name = delta.getName(i);
+			String section = delta.getSection(i);
+			boolean present = applied.getCourseFromCatalog(name, section) != null;
+			if (delta.getKind(i) == CatalogDelta.ADD && present)
+				throw new IllegalArgumentException("The course " + name + "-" + section + " is already in the catalog.");
+			if (delta.getKind(i) != CatalogDelta.ADD && !present)
+				throw new IllegalArgumentException("The course " + name + "-" + section + " is not in the catalog.");
+
+			LinkedHashMap<String, Course> changes = layer.get(name);
+			if (changes == null) {
+				changes = new LinkedHashMap<String, Course>();
+				layer.put(name, changes);
+			}
+			changes.put(section, delta.getCourse(i));
+		}
+
+		if (applied.changeCount > Math.max(MIN_REBASE_CHANGES, base.size() / REBASE_DIVISOR))
+			return new ListCatalog(new ArrayList<Course>(Arrays.asList(applied.rows().courses())));
+		if (layers.size() > MAX_LAYERS)
+			return new LayeredCatalog(base, applied.mergeLayers(), applied.changeCount, layer, previousRows);
+		return applied;
+	}
+
+	/**
+	 * Merges the layers into one with the same effect
+	 * @return a list holding the merged layer
+	 */
+	private ArrayList<LinkedHashMap<String, LinkedHashMap<String, Course>>> mergeLayers() {
+		LinkedHashMap<String, LinkedHashMap<String, Course>> merged = new LinkedHashMap<String, LinkedHashMap<String, Course>>();
+		for (int i = 0; i < layers.size(); i++) {
+			for (Map.Entry<String, LinkedHashMap<String, Course>> name : layers.get(i).entrySet()) {
+				LinkedHashMap<String, Course> changes = merged.get(name.getKey());
+				if (changes == null) {
+					changes = new LinkedHashMap<String, Course>();
+					merged.put(name.getKey(), changes);
+				}
+				for (Map.Entry<String, Course> change : name.getValue().entrySet()) {
+					//A removed Course the base never had needs no entry, so adding it back puts it last
+					if (change.getValue() == null && base.getCourseFromCatalog(name.getKey(), change.getKey()) == null)
+						changes.remove(change.getKey());
+					else
+						changes.put(change.getKey(), change.getValue());
+				}
+			}
+		}
+		ArrayList<LinkedHashMap<String, LinkedHashMap<String, Course>>> mergedLayers =
+				new ArrayList<LinkedHashMap<String, LinkedHashMap<String, Course>>>();
+		mergedLayers.add(merged);
+		return mergedLayers;
+	}
+
+	/**
+	 * Returns the catalog the deltas were applied to
+	 * @return the base catalog
+	 */
+	CourseCatalog getBase() {
+		return base;
+	}
+
+	/**
+	 * Returns the number of layers
+	 * @return the number of layers
+	 */
+	int getLayerCount() {
+		return layers.size();
+	}
+
+	/**
+	 * Searches for a Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return Course with the given name and section, or null if it isn't in the catalog
+	 */
+	@Override
+	public Course getCourseFromCatalog(String name, String section) {
+		for (int i = layers.size() - 1; i >= 0; i--) {
+			LinkedHashMap<String, Course> changes = layers.get(i).get(name);
+			if (changes != null && changes.containsKey(section))
+				return changes.get(section);
+		}
+		return base.getCourseFromCatalog(name, section);
+	}
+
+	/**
+	 * Returns the position of the Course with the given name and section, building the rows
+	 * if they haven't been built
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return the position, or -1 if the Course isn't in the catalog
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		return rows().indexOf(name, section);
+	}
+
+	/**
+	 * Returns every section of the Course with the given name, with the base sections in
+	 * catalog order followed by the sections added by deltas
+	 * @param name Course's name
+	 * @return the sections, or an empty list if the name isn't in the catalog
+	 */
+	@Override
+	public ArrayList<Course> getSections(String name) {
+		ArrayList<Course> sections = base.getSections(name);
+		for (int i = 0; i < layers.size(); i++) {
+			LinkedHashMap<String, Course> changes = layers.get(i).get(name);
+			if (changes == null)
+				continue;
+			for (Map.Entry<String, Course> change : changes.entrySet()) {
+				int at = 0;
+				while (at < sections.size() && !sections.get(at).getSection().equals(change.getKey()))
+					at++;
+				if (at == sections.size()) {
+					if (change.getValue() != null)
+						sections.add(change.getValue());
+				} else if (change.getValue() == null) {
+					sections.remove(at);
+				} else {
+					sections.set(at, change.getValue());
+				}
+			}
+		}
+		return sections;
+	}
+
+	/**
+	 * Returns the number of Courses in the catalog
+	 * @return the number of Courses
+	 */
+	@Override
+	public int size() {
+		return rows().size;
+	}
+
+	/**
+	 * Returns the Course at the given position in the catalog
+	 * @param index position of the Course
+	 * @return the Course
+	 * @throws IndexOutOfBoundsException if there is no Course at the index
+	 */
+	@Override
+	public Course getCourse(int index) {
+		Course[] courses = rows().courses();
+		if (index < 0 || index >= courses.length)
+			throw new IndexOutOfBoundsException("No row " + index);
+		return courses[index];
+	}
+
+	/**
+	 * Returns a 2D String array of the catalog with a row for each Course holding its name,
+	 * section, and title.  The array is built the first time it is asked for, reusing the rows
+	 * of base Courses that the deltas didn't change.
+	 * @return 2D String array of the catalog
+	 */
+	@Override
+	public String[][] getCourseCatalog() {
+		return rows().catalogArray();
+	}
+
+	/**
+	 * Returns every row in order, building them the first time.  A base row whose name and
+	 * section were changed is replaced by its new Course, or left out if it was removed, and
+	 * base rows that repeat an earlier name and section are left out.  The added Courses follow,
+	 * grouped by name in the order the names were first changed.
+	 * @return the rows
+	 */
+	private Rows rows() {
+		Rows built = rows;
+		if (built != null)
+			return built;
+
+		Rows previous = previousRows;
+		if (previous != null)
+			built = previous.apply(Collections.singletonList(newestLayer));
+		else
+			built = new Rows(base).apply(layers);
+		rows = built;
+		//The previous rows aren't needed once these are built
+		previousRows = null;
+		return built;
+	}
+
+	/**
+	 * Builds the catalog array row of a Course
+	 * @param course Course to build the row of
+	 * @return the Course's name, section, and title
+	 */
+	private static String[] catalogRow(Course course) {
+		return new String[] { course.getName(), course.getSection(), course.getTitle() };
+	}
+
+	/**
+	 * The rows of a catalog in order.  Each base row has a slot holding the Course in its place,
+	 * or null if it was removed, along with its catalog array row.  Applying layers copies the
+	 * slot arrays and only changes the slots of the Courses in the layers, and the arrays of all
+	 * the rows in order are built from the slots when they are first asked for.  A Rows is not
+	 * changed once it is built, so the catalogs made from it can share it.
+	 */
+	private static class Rows {
+		/** First base row of each name and section, shared by every Rows of the base */
+		private final HashMap<String, Integer> baseIndex;
+		/** Course in place of each base row, or null if it was removed or repeats an earlier row */
+		private final Course[] slots;
+		/** Catalog array row of each slot that holds a Course */
+		private final String[][] slotRows;
+		/** Added Courses by name, in the order the names were first changed */
+		private final LinkedHashMap<String, ArrayList<Course>> added;
+		/** Number of rows */
+		private final int size;
+		/** Every Course in order, built the first time it is needed */
+		private volatile Course[] courses;
+		/** Catalog array, built the first time it is needed */
+		private volatile String[][] catalogArray;
+		/** Number of kept base rows before each slot and, last, in all, built the first time it is needed */
+		private volatile int[] slotPositions;
+
+		/**
+		 * Creates the rows of a base catalog with no changes
+		 * @param base the base catalog
+		 */
+		Rows(CourseCatalog base) {
+			baseIndex = new HashMap<String, Integer>();
+			slots = new Course[base.size()];
+			slotRows = new String[slots.length][];
+			added = new LinkedHashMap<String, ArrayList<Course>>();
+			int kept = 0;
+			for (int i = 0; i < slots.length; i++) {
+				Course course = base.getCourse(i);
+				if (baseIndex.putIfAbsent(CatalogDelta.key(course.getName(), course.getSection()), i) == null) {
+					slots[i] = course;
+					slotRows[i] = catalogRow(course);
+					kept++;
+				}
+			}
+			size = kept;
+		}
+
+		/**
+		 * Creates rows from their parts
+		 * @param baseIndex first base row of each name and section
+		 * @param slots Course in place of each base row
+		 * @param slotRows catalog array row of each slot
+		 * @param added added Courses by name
+		 * @param size number of rows
+		 */
+		private Rows(HashMap<String, Integer> baseIndex, Course[] slots, String[][] slotRows,
+				LinkedHashMap<String, ArrayList<Course>> added, int size) {
+			this.baseIndex = baseIndex;
+			this.slots = slots;
+			this.slotRows = slotRows;
+			this.added = added;
+			this.size = size;
+		}
+
+		/**
+		 * Returns the rows with layers of changes applied, leaving these rows unchanged
+		 * @param changes layers to apply, oldest first
+		 * @return the changed rows
+		 */
+		Rows apply(List<LinkedHashMap<String, LinkedHashMap<String, Course>>> changes) {
+			Course[] newSlots = slots.clone();
+			String[][] newSlotRows = slotRows.clone();
+			LinkedHashMap<String, ArrayList<Course>> newAdded = new LinkedHashMap<String, ArrayList<Course>>(added);
+			HashSet<String> copied = new HashSet<String>();
+			int newSize = size;
+			for (int i = 0; i < changes.size(); i++) {
+				for (Map.Entry<String, LinkedHashMap<String, Course>> name : changes.get(i).entrySet()) {
+					//Copy the added sections of a name before changing them, adding the name if it's new
+					ArrayList<Course> sections = newAdded.get(name.getKey());
+					if (copied.add(name.getKey())) {
+						sections = sections == null ? new ArrayList<Course>() : new ArrayList<Course>(sections);
+						newAdded.put(name.getKey(), sections);
+					}
+					for (Map.Entry<String, Course> change : name.getValue().entrySet()) {
+						Course course = change.getValue();
+						Integer row = baseIndex.get(CatalogDelta.key(name.getKey(), change.getKey()));
+						if (row != null) {
+							newSize += (course == null ? 0 : 1) - (newSlots[row] == null ? 0 : 1);
+							newSlots[row] = course;
+							newSlotRows[row] = course == null ? null : catalogRow(course);
+							continue;
+						}
+						int at = 0;
+						while (at < sections.size() && !sections.get(at).getSection().equals(change.getKey()))
+							at++;
+						if (at == sections.size()) {
+							if (course != null) {
+								sections.add(course);
+								newSize++;
+							}
+						} else if (course == null) {
+							sections.remove(at);
+							newSize--;
+						} else {
+							sections.set(at, course);
+						}
+					}
+				}
+			}
+			return new Rows(baseIndex, newSlots, newSlotRows, newAdded, newSize);
+		}
+
+		/**
+		 * Returns the position of the Course with the given name and section
+		 * @param name Course's name
+		 * @param section Course's section
+		 * @return the position, or -1 if the Course isn't in the catalog
+		 */
+		int indexOf(String name, String section) {
+			int[] positions = slotPositions;
+			if (positions == null) {
+				positions = new int[slots.length + 1];
+				for (int i = 0; i < slots.length; i++)
+					positions[i + 1] = positions[i] + (slots[i] == null ? 0 : 1);
+				slotPositions = positions;
+			}
+			Integer row = baseIndex.get(CatalogDelta.key(name, section));
+			if (row != null)
+				return slots[row] == null ? -1 : positions[row];
+
+			//Added Courses follow the base rows, grouped by name
+			int position = positions[slots.length];
+			for (Map.Entry<String, ArrayList<Course>> group : added.entrySet()) {
+				ArrayList<Course> sections = group.getValue();
+				if (group.getKey().equals(name)) {
+					for (int i = 0; i < sections.size(); i++) {
+						if (sections.get(i).getSection().equals(section))
+							return position + i;
+					}
+					return -1;
+				}
+				position += sections.size();
+			}
+			return -1;
+		}
+
+		/**
+		 * Returns every Course in order, building the array the first time
+		 * @return the Courses
+		 */
+		Course[] courses() {
+			Course[] built = courses;
+			if (built == null) {
+				built = new Course[size];
+				int at = 0;
+				for (int i = 0; i < slots.length; i++) {
+					if (slots[i] != null)
+						built[at++] = slots[i];
+				}
+				for (ArrayList<Course> sections : added.values()) {
+					for (int i = 0; i < sections.size(); i++)
+						built[at++] = sections.get(i);
+				}
+				courses = built;
+			}
+			return built;
+		}
+
+		/**
+		 * Returns the catalog array, building it the first time from the rows of the slots
+		 * @return 2D String array of the catalog
+		 */
+		String[][] catalogArray() {
+			String[][] built = catalogArray;
+			if (built == null) {
+				built = new String[size][];
+				int at = 0;
+				for (int i = 0; i < slotRows.length; i++) {
+					if (slotRows[i] != null)
+						built[at++] = slotRows[i];
+				}
+				for (ArrayList<Course> sections : added.values()) {
+					for (int i = 0; i < sections.size(); i++)
+						built[at++] = catalogRow(sections.get(i));
+				}
+				catalogArray = built;
+			}
+			return built;
+		}
+	}
+}
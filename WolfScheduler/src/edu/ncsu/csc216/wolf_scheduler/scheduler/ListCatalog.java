@@ -0,0 +1,132 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Catalog backed by a list of Course objects, with an index by name and then section.
+ * Lookups return the Courses in the list, so the same name and section always gives the
+ * same Course.
+ *
+ * The catalog doesn't copy the list, which must not be changed after the catalog is built.
+ * Once built, the catalog can be shared between threads.
+ *
+ * @author Ben Morris
+ */
+public class ListCatalog implements CourseCatalog {
+
+	/** Number of columns in the catalog array */
+	private static final int CATALOG_ARRAY_WIDTH = 3;
+
+	/** Courses in catalog order */
+	private final ArrayList<Course> courses;
+	/** Position of each Course by name and then section, with sections in catalog order */
+	private final HashMap<String, HashMap<String, Integer>> index = new HashMap<String, HashMap<String, Integer>>();
+	/** Catalog array, built the first time it is asked for */
+	private volatile String[][] catalogArray;
+
+	/**
+	 * Creates a catalog of the given Courses
+	 * @param courses Courses in catalog order
+	 */
+	public ListCatalog(ArrayList<Course> courses) {
+		this.courses = courses;
+		for (int i = 0; i < courses.size(); i++) {
+			Course current = courses.get(i);
+			HashMap<String, Integer> sections = index.get(current.getName());
+			if (sections == null) {
+				sections = new LinkedHashMap<String, Integer>();
+				index.put(current.getName(), sections);
+			}
+			//Keep the first Course with a given name and section, like a linear search would
+			if (!sections.containsKey(current.getSection()))
+				sections.put(current.getSection(), i);
+		}
+	}
+
+	/**
+	 * Returns the number of Courses in the catalog
+	 * @return the number of Courses
+	 */
+	@Override
+	public int size() {
+		return courses.size();
+	}
+
+	/**
+	 * Returns the Course at the given position in the catalog
+	 * @param index position of the Course
+	 * @return the Course
+	 * @throws IndexOutOfBoundsException if there is no Course at the index
+	 */
+	@Override
+	public Course getCourse(int index) {
+		return courses.get(index);
+	}
+
+	/**
+	 * Searches for a Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return Course with the given name and section, or null if it isn't in the catalog
+	 */
+	@Override
+	public Course getCourseFromCatalog(String name, String section) {
+		int row = indexOf(name, section);
+		return row == -1 ? null : courses.get(row);
+	}
+
+	/**
+	 * Returns the position of the Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return the position, or -1 if the Course isn't in the catalog
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		HashMap<String, Integer> sections = index.get(name);
+		Integer row = sections == null ? null : sections.get(section);
+		return row == null ? -1 : row;
+	}
+
+	/**
+	 * Returns every section of the Course with the given name, in catalog order
+	 * @param name Course's name
+	 * @return the sections, or an empty list if the name isn't in the catalog
+	 */
+	@Override
+	public ArrayList<Course> getSections(String name) {
+		ArrayList<Course> found = new ArrayList<Course>();
+		HashMap<String, Integer> sections = index.get(name);
+		if (sections != null) {
+			for (int row : sections.values())
+				found.add(courses.get(row));
+		}
+		return found;
+	}
+
+	/**
+	 * Returns a 2D String array of the catalog with a row for each Course holding its name,
+	 * section, and title.  The array is built once and the same array is returned by every
+	 * call, so callers must not modify it.
+	 * @return 2D String array of the catalog
+	 */
+	@Override
+	public String[][] getCourseCatalog() {
+		String[][] catalog = catalogArray;
+		if (catalog == null) {
+			catalog = new String[courses.size()][CATALOG_ARRAY_WIDTH];
+			for (int i = 0; i < courses.size(); i++) {
+				Course current = courses.get(i);
+				catalog[i][0] = current.getName();
+				catalog[i][1] = current.getSection();
+				catalog[i][2] = current.getTitle();
+			}
+			catalogArray = catalog;
+		}
+		return catalog;
+	}
+}
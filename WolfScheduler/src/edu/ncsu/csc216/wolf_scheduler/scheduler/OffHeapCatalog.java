@@ -0,0 +1,618 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.AtomicFileWriter;
+
+/**
+ * Catalog stored outside the Java heap in a direct or memory-mapped ByteBuffer.  The heap only
+ * holds the catalog object itself, so many large catalogs can be loaded without adding to the
+ * objects the garbage collector has to trace.  Fields are read straight from the buffer,
+ * either by row index or through a reusable Cursor, and a Course is only built when one is
+ * asked for.
+ *
+ * The buffer holds, in order:
+ * <ul>
+ * <li>the int MAGIC, the int format VERSION, the number of rows, the number of hash slots, and
+ * the length of the string region</li>
+ * <li>a fixed size record per row with the string region offsets of its name, title, section,
+ * instructor id, and meeting days, followed by its credits, start time, end time, meeting days
+ * mask, the next row with the same name, and its capacity</li>
+ * <li>an open addressing hash table from name to the first row with that name</li>
+ * <li>the string region, each distinct value stored once as its UTF-8 length and bytes</li>
+ * </ul>
+ * Rows with the same name are chained in catalog order, leaving out repeated sections, so a
+ * lookup by name and section hashes the name and follows its chain.
+ *
+ * A catalog built from Courses uses a direct buffer.  save() writes the buffer to a file, and
+ * map() maps such a file read-only so the operating system pages it in as it is read.  Every
+ * row is checked when the catalog is created, with the same checks a Course makes of its
+ * fields, so a changed file is rejected instead of handing out invalid Courses.  The catalog
+ * only reads the buffer at absolute positions and can be shared between threads, but each
+ * Cursor belongs to one thread.
+ *
+ * @author Ben Morris
+ */
+public class OffHeapCatalog implements CourseCatalog {
+
+	/** First four bytes of every off-heap catalog, 0x89 then "WOC" */
+	public static final int MAGIC = 0x89574F43;
+	/** Version of the off-heap catalog format.  Version 1 files have no capacity and are rebuilt. */
+	public static final int VERSION = 2;
+
+	/** Number of bytes in the header */
+	private static final int HEADER_SIZE = 20;
+	/** Position of the number of rows in the header */
+	private static final int SIZE_POSITION = 8;
+	/** Position of the number of hash slots in the header */
+	private static final int SLOTS_POSITION = 12;
+	/** Position of the length of the string region in the header */
+	private static final int STRINGS_LENGTH_POSITION = 16;
+	/** Number of bytes in each row */
+	private static final int ROW_SIZE = 44;
+	/** Number of String fields at the start of each row */
+	private static final int STRING_FIELDS = 5;
+	/** Offset of the name in a row */
+	private static final int NAME = 0;
+	/** Offset of the title in a row */
+	private static final int TITLE = 4;
+	/** Offset of the section in a row */
+	private static final int SECTION = 8;
+	/** Offset of the instructor id in a row */
+	private static final int INSTRUCTOR_ID = 12;
+	/** Offset of the meeting days in a row */
+	private static final int MEETING_DAYS = 16;
+	/** Offset of the credits in a row */
+	private static final int CREDITS = 20;
+	/** Offset of the start time in a row */
+	private static final int START_TIME = 24;
+	/** Offset of the end time in a row */
+	private static final int END_TIME = 28;
+	/** Offset of the meeting days mask in a row */
+	private static final int MEETING_DAYS_MASK = 32;
+	/** Offset of the next row with the same name in a row */
+	private static final int NEXT_WITH_NAME = 36;
+	/** Offset of the capacity in a row */
+	private static final int CAPACITY = 40;
+	/** Number of bytes in an int */
+	private static final int INT_SIZE = 4;
+	/** Number of columns in the catalog array */
+	private static final int CATALOG_ARRAY_WIDTH = 3;
+	/** Marks an empty hash slot or the end of a chain of rows */
+	private static final int NONE = -1;
+
+	/** Encoded catalog */
+	private final ByteBuffer data;
+	/** Number of rows */
+	private final int size;
+	/** Number of hash slots, a power of two */
+	private final int slotCount;
+	/** Position of the hash table */
+	private final int slotsStart;
+	/** Position of the string region */
+	private final int stringsStart;
+	/** Catalog array, built the first time it is asked for */
+	private volatile String[][] catalogArray;
+
+	/**
+	 * Encodes the given Courses into a direct buffer
+	 * @param courses Courses in catalog order
+	 */
+	public OffHeapCatalog(ArrayList<Course> courses) {
+		this(encode(courses));
+	}
+
+	/**
+	 * Creates a catalog over an encoded buffer, checking that every offset in it is in bounds
+	 * and that every row holds a valid Course
+	 * @param data encoded catalog
+	 * @throws IllegalArgumentException "Invalid off-heap catalog." if the buffer is not a valid
+	 * 		   encoded catalog
+	 */
+	private OffHeapCatalog(ByteBuffer data) {
+		this.data = data;
+		if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC || data.getInt(INT_SIZE) != VERSION)
+			throw new IllegalArgumentException("Invalid off-heap catalog.");
+		size = data.getInt(SIZE_POSITION);
+		slotCount = data.getInt(SLOTS_POSITION);
+		int stringsLength = data.getInt(STRINGS_LENGTH_POSITION);
+		if (size < 0 || slotCount <= 0 || Integer.bitCount(slotCount) != 1 || stringsLength < 0
+				|| HEADER_SIZE + (long) size * ROW_SIZE + (long) slotCount * INT_SIZE + stringsLength != data.capacity())
+			throw new IllegalArgumentException("Invalid off-heap catalog.");
+		slotsStart = HEADER_SIZE + size * ROW_SIZE;
+		stringsStart = slotsStart + slotCount * INT_SIZE;
+
+		//Check every offset once so reads never leave the buffer and every probe and chain ends
+		for (int i = 0; i < size; i++) {
+			for (int column = 0; column < STRING_FIELDS; column++) {
+				int offset = field(i, column * INT_SIZE);
+				if (offset < 0 || offset > stringsLength - INT_SIZE)
+					throw new IllegalArgumentException("Invalid off-heap catalog.");
+				int length = data.getInt(stringsStart + offset);
+				if (length < 0 || length > stringsLength - INT_SIZE - offset)
+					throw new IllegalArgumentException("Invalid off-heap catalog.");
+			}
+			int next = field(i, NEXT_WITH_NAME);
+			if (next != NONE && (next <= i || next >= size) || !isValidRow(i))
+				throw new IllegalArgumentException("Invalid off-heap catalog.");
+		}
+		boolean hasEmptySlot = false;
+		for (int slot = 0; slot < slotCount; slot++) {
+			int row = data.getInt(slotsStart + slot * INT_SIZE);
+			if (row < NONE || row >= size)
+				throw new IllegalArgumentException("Invalid off-heap catalog.");
+			hasEmptySlot |= row == NONE;
+		}
+		if (!hasEmptySlot)
+			throw new IllegalArgumentException("Invalid off-heap catalog.");
+	}
+
+	/**
+	 * Checks the fields of a row whose string offsets are in bounds as a Course would check them
+	 * @param row row to check
+	 * @return true if the row holds a valid Course with a matching meeting days mask
+	 */
+	private boolean isValidRow(int row) {
+		String meetingDays = string(row, MEETING_DAYS);
+		return Course.isValidName(string(row, NAME)) && Course.isValidTitle(string(row, TITLE))
+				&& Course.isValidSection(string(row, SECTION)) && Course.isValidCredits(field(row, CREDITS))
+				&& Course.isValidInstructorId(string(row, INSTRUCTOR_ID))
+				&& Course.isValidMeetingDaysAndTime(meetingDays, field(row, START_TIME), field(row, END_TIME))
+				&& Course.toMeetingDaysMask(meetingDays) == field(row, MEETING_DAYS_MASK)
+				&& Course.isValidCapacity(field(row, CAPACITY));
+	}
+
+	/**
+	 * Encodes Courses into a new direct buffer
+	 * @param courses Courses in catalog order
+	 * @return the encoded catalog
+	 */
+	private static ByteBuffer encode(ArrayList<Course> courses) {
+		//Lay out the string region, storing each distinct value once
+		HashMap<String, Integer> offsets = new HashMap<String, Integer>();
+		ArrayList<byte[]> strings = new ArrayList<byte[]>();
+		int stringsLength = 0;
+		int[] fields = new int[courses.size() * STRING_FIELDS];
+		for (int i = 0; i < courses.size(); i++) {
+			Course course = courses.get(i);
+			String[] values = { course.getName(), course.getTitle(), course.getSection(), course.getInstructorId(),
+					course.getMeetingDays() };
+			for (int column = 0; column < STRING_FIELDS; column++) {
+				Integer offset = offsets.get(values[column]);
+				if (offset == null) {
+					byte[] bytes = values[column].getBytes(StandardCharsets.UTF_8);
+					offset = stringsLength;
+					offsets.put(values[column], offset);
+					strings.add(bytes);
+					stringsLength += INT_SIZE + bytes.length;
+				}
+				fields[i * STRING_FIELDS + column] = offset;
+			}
+		}
+
+		//Chain the rows of each name in catalog order, leaving out repeated sections
+		int[] nextWithName = new int[courses.size()];
+		HashMap<String, Integer> firstWithName = new HashMap<String, Integer>();
+		HashMap<String, Integer> lastWithName = new HashMap<String, Integer>();
+		HashMap<String, HashSet<String>> seen = new HashMap<String, HashSet<String>>();
+		for (int i = 0; i < courses.size(); i++) {
+			Course course = courses.get(i);
+			nextWithName[i] = NONE;
+			HashSet<String> sections = seen.get(course.getName());
+			if (sections == null) {
+				sections = new HashSet<String>();
+				seen.put(course.getName(), sections);
+				firstWithName.put(course.getName(), i);
+			} else if (!sections.contains(course.getSection())) {
+				nextWithName[lastWithName.get(course.getName())] = i;
+			}
+			if (sections.add(course.getSection()))
+				lastWithName.put(course.getName(), i);
+		}
+
+		//Keep the hash table at most half full
+		int slotCount = Integer.highestOneBit(Math.max(1, firstWithName.size() * 2 - 1)) * 2;
+		ByteBuffer data = ByteBuffer.allocateDirect(HEADER_SIZE + courses.size() * ROW_SIZE + slotCount * INT_SIZE
+				+ stringsLength);
+		data.putInt(MAGIC);
+		data.putInt(VERSION);
+		data.putInt(courses.size());
+		data.putInt(slotCount);
+		data.putInt(stringsLength);
+		for (int i = 0; i < courses.size(); i++) {
+			Course course = courses.get(i);
+			for (int column = 0; column < STRING_FIELDS; column++)
+				data.putInt(fields[i * STRING_FIELDS + column]);
+			data.putInt(course.getCredits());
+			data.putInt(course.getStartTime());
+			data.putInt(course.getEndTime());
+			data.putInt(course.getMeetingDaysMask());
+			data.putInt(nextWithName[i]);
+			data.putInt(course.getCapacity());
+		}
+
+		int slotsStart = data.position();
+		for (int slot = 0; slot < slotCount; slot++)
+			data.putInt(NONE);
+		for (int i = 0; i < courses.size(); i++) {
+			if (firstWithName.get(courses.get(i).getName()) != i)
+				continue;
+			int slot = hash(courses.get(i).getName().getBytes(StandardCharsets.UTF_8)) & (slotCount - 1);
+			while (data.getInt(slotsStart + slot * INT_SIZE) != NONE)
+				slot = (slot + 1) & (slotCount - 1);
+			data.putInt(slotsStart + slot * INT_SIZE, i);
+		}
+
+		for (int i = 0; i < strings.size(); i++) {
+			data.putInt(strings.get(i).length);
+			data.put(strings.get(i));
+		}
+		data.clear();
+		return data;
+	}
+
+	/**
+	 * Hashes the UTF-8 bytes of a name with 32-bit FNV-1a
+	 * @param bytes bytes to hash
+	 * @return the hash
+	 */
+	private static int hash(byte[] bytes) {
+		int hash = 0x811C9DC5;
+		for (int i = 0; i < bytes.length; i++) {
+			hash ^= bytes[i] & 0xFF;
+			hash *= 0x01000193;
+		}
+		return hash;
+	}
+
+	/**
+	 * Writes the encoded catalog to a file that map() can open.  The file is written through an
+	 * AtomicFileWriter, so a failed write never leaves a partial catalog for map() to open.
+	 * @param fileName file to write the catalog to
+	 * @throws IOException if cannot write to file
+	 */
+	public void save(String fileName) throws IOException {
+		try (AtomicFileWriter file = new AtomicFileWriter(fileName)) {
+			ByteBuffer contents = data.duplicate();
+			contents.clear();
+			while (contents.hasRemaining())
+				file.getChannel().write(contents);
+			file.commit();
+		}
+	}
+
+	/**
+	 * Maps a file written by save() into memory without reading it onto the heap
+	 * @param fileName file to map
+	 * @return a catalog reading the mapped file
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IOException if the file cannot be read or is not a valid off-heap catalog
+	 */
+	public static OffHeapCatalog map(String fileName) throws IOException {
+		FileChannel channel;
+		try {
+			channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(fileName);
+		}
+		try {
+			//A single buffer can't address more than Integer.MAX_VALUE bytes
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("Invalid off-heap catalog.");
+			return new OffHeapCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid off-heap catalog.");
+		} finally {
+			//The mapping stays valid after the channel is closed
+			channel.close();
+		}
+	}
+
+	/**
+	 * Returns the number of bytes the encoded catalog takes outside the heap
+	 * @return the size of the buffer
+	 */
+	public int getByteSize() {
+		return data.capacity();
+	}
+
+	/**
+	 * Returns the number of Courses in the catalog
+	 * @return the number of Courses
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Builds the Course at the given row
+	 * @param index row of the Course
+	 * @return a new Course with the row's fields
+	 * @throws IndexOutOfBoundsException if there is no row at the index
+	 */
+	@Override
+	public Course getCourse(int index) {
+		checkIndex(index);
+		return new Course(string(index, NAME), string(index, TITLE), string(index, SECTION),
+				field(index, CREDITS), string(index, INSTRUCTOR_ID), string(index, MEETING_DAYS),
+				field(index, START_TIME), field(index, END_TIME), field(index, CAPACITY));
+	}
+
+	/**
+	 * Searches for a Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return a new Course with the given name and section, or null if it isn't in the catalog
+	 */
+	@Override
+	public Course getCourseFromCatalog(String name, String section) {
+		int row = indexOf(name, section);
+		return row == NONE ? null : getCourse(row);
+	}
+
+	/**
+	 * Returns the row of the Course with the given name and section
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return the row, or -1 if the Course isn't in the catalog
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		byte[] sectionBytes = section.getBytes(StandardCharsets.UTF_8);
+		int row = firstWithName(name);
+		while (row != NONE && !stringEquals(field(row, SECTION), sectionBytes))
+			row = field(row, NEXT_WITH_NAME);
+		return row;
+	}
+
+	/**
+	 * Finds the first row with a name in the hash table
+	 * @param name name to find
+	 * @return the first row with the name, or NONE
+	 */
+	private int firstWithName(String name) {
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		int slot = hash(nameBytes) & (slotCount - 1);
+		//The table is never full, so every probe ends at the name or an empty slot
+		int row = data.getInt(slotsStart + slot * INT_SIZE);
+		while (row != NONE && !stringEquals(field(row, NAME), nameBytes)) {
+			slot = (slot + 1) & (slotCount - 1);
+			row = data.getInt(slotsStart + slot * INT_SIZE);
+		}
+		return row;
+	}
+
+	/**
+	 * Returns every section of the Course with the given name, in catalog order
+	 * @param name Course's name
+	 * @return new Courses for the sections, or an empty list if the name isn't in the catalog
+	 */
+	@Override
+	public ArrayList<Course> getSections(String name) {
+		ArrayList<Course> found = new ArrayList<Course>();
+		for (int row = firstWithName(name); row != NONE; row = field(row, NEXT_WITH_NAME))
+			found.add(getCourse(row));
+		return found;
+	}
+
+	/**
+	 * Returns a 2D String array of the catalog with a row for each Course holding its name,
+	 * section, and title.  The array is built on the heap the first time it is asked for and
+	 * the same array is returned after that.
+	 * @return 2D String array of the catalog
+	 */
+	@Override
+	public String[][] getCourseCatalog() {
+		String[][] catalog = catalogArray;
+		if (catalog == null) {
+			catalog = new String[size][CATALOG_ARRAY_WIDTH];
+			for (int i = 0; i < size; i++) {
+				catalog[i][0] = string(i, NAME);
+				catalog[i][1] = string(i, SECTION);
+				catalog[i][2] = string(i, TITLE);
+			}
+			catalogArray = catalog;
+		}
+		return catalog;
+	}
+
+	/**
+	 * Creates a cursor for reading the fields of rows without building Courses.  The cursor
+	 * starts at row 0 and must not be read if the catalog is empty.
+	 * @return a cursor at row 0
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Throws if there is no row at an index
+	 * @param index index to check
+	 * @throws IndexOutOfBoundsException if there is no row at the index
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("No row " + index);
+	}
+
+	/**
+	 * Reads an int field of a row
+	 * @param row row to read
+	 * @param offset offset of the field in the row
+	 * @return the field
+	 */
+	private int field(int row, int offset) {
+		return data.getInt(HEADER_SIZE + row * ROW_SIZE + offset);
+	}
+
+	/**
+	 * Decodes a String field of a row
+	 * @param row row to read
+	 * @param offset offset of the field in the row
+	 * @return the field
+	 */
+	private String string(int row, int offset) {
+		int position = stringsStart + field(row, offset);
+		byte[] bytes = new byte[data.getInt(position)];
+		position += INT_SIZE;
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = data.get(position + i);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compares a String in the string region to encoded bytes without decoding it
+	 * @param offset offset of the String in the string region
+	 * @param bytes UTF-8 bytes to compare to
+	 * @return true if the String has exactly the given bytes
+	 */
+	private boolean stringEquals(int offset, byte[] bytes) {
+		int position = stringsStart + offset;
+		if (data.getInt(position) != bytes.length)
+			return false;
+		position += INT_SIZE;
+		for (int i = 0; i < bytes.length; i++) {
+			if (data.get(position + i) != bytes[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Flyweight view of one row of the catalog.  Moving the cursor to another row changes what
+	 * its getters return, so scans of the whole catalog can use a single cursor.  The numeric
+	 * getters read the buffer directly, and the String getters decode a new String.
+	 */
+	public class Cursor {
+
+		/** Row the cursor is at */
+		private int row;
+
+		/**
+		 * Cursors are created by OffHeapCatalog.cursor()
+		 */
+		private Cursor() {
+			row = 0;
+		}
+
+		/**
+		 * Moves the cursor to a row
+		 * @param index row to move to
+		 * @return this cursor
+		 * @throws IndexOutOfBoundsException if there is no row at the index
+		 */
+		public Cursor moveTo(int index) {
+			checkIndex(index);
+			row = index;
+			return this;
+		}
+
+		/**
+		 * Returns the row the cursor is at
+		 * @return the row
+		 */
+		public int getRow() {
+			return row;
+		}
+
+		/**
+		 * Returns the name of the Course at the cursor
+		 * @return the name
+		 */
+		public String getName() {
+			return string(row, NAME);
+		}
+
+		/**
+		 * Returns the title of the Course at the cursor
+		 * @return the title
+		 */
+		public String getTitle() {
+			return string(row, TITLE);
+		}
+
+		/**
+		 * Returns the section of the Course at the cursor
+		 * @return the section
+		 */
+		public String getSection() {
+			return string(row, SECTION);
+		}
+
+		/**
+		 * Returns the credits of the Course at the cursor
+		 * @return the credits
+		 */
+		public int getCredits() {
+			return field(row, CREDITS);
+		}
+
+		/**
+		 * Returns the instructor id of the Course at the cursor
+		 * @return the instructor id
+		 */
+		public String getInstructorId() {
+			return string(row, INSTRUCTOR_ID);
+		}
+
+		/**
+		 * Returns the meeting days of the Course at the cursor
+		 * @return the meeting days
+		 */
+		public String getMeetingDays() {
+			return string(row, MEETING_DAYS);
+		}
+
+		/**
+		 * Returns the start time of the Course at the cursor
+		 * @return the start time
+		 */
+		public int getStartTime() {
+			return field(row, START_TIME);
+		}
+
+		/**
+		 * Returns the end time of the Course at the cursor
+		 * @return the end time
+		 */
+		public int getEndTime() {
+			return field(row, END_TIME);
+		}
+
+		/**
+		 * Returns the meeting days mask of the Course at the cursor
+		 * @return the meeting days mask, 0 for arranged Courses
+		 */
+		public int getMeetingDaysMask() {
+			return field(row, MEETING_DAYS_MASK);
+		}
+
+		/**
+		 * Returns the capacity of the Course at the cursor
+		 * @return the capacity, Course.UNLIMITED_CAPACITY if there is no limit
+		 */
+		public int getCapacity() {
+			return field(row, CAPACITY);
+		}
+
+		/**
+		 * Builds the Course at the cursor
+		 * @return a new Course with the row's fields
+		 */
+		public Course toCourse() {
+			return getCourse(row);
+		}
+	}
+}
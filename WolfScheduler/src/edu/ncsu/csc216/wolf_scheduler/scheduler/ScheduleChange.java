@@ -0,0 +1,124 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+
+/**
+ * A set of Courses to drop from and add to a schedule together, such as swapping the sections
+ * of a lecture and its lab.  WolfScheduler.applyScheduleChange() checks every change before
+ * making any of them, so either all of them are made or the schedule is left alone.
+ *
+ * Drops are made before adds, whatever order they were given in, so a Course can be dropped
+ * and another section of it added in one change.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleChange {
+
+	/** Names of the Courses to drop */
+	private final ArrayList<String> dropNames = new ArrayList<String>();
+	/** Sections of the Courses to drop */
+	private final ArrayList<String> dropSections = new ArrayList<String>();
+	/** Names of the Courses to add */
+	private final ArrayList<String> addNames = new ArrayList<String>();
+	/** Sections of the Courses to add */
+	private final ArrayList<String> addSections = new ArrayList<String>();
+
+	/**
+	 * Adds a Course from the catalog to the schedule
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return this change
+	 * @throws IllegalArgumentException "Invalid course." if the name or section is null
+	 */
+	public ScheduleChange add(String name, String section) {
+		if (name == null || section == null)
+			throw new IllegalArgumentException("Invalid course.");
+		addNames.add(name);
+		addSections.add(section);
+		return this;
+	}
+
+	/**
+	 * Drops a Course from the schedule
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return this change
+	 * @throws IllegalArgumentException "Invalid course." if the name or section is null
+	 */
+	public ScheduleChange drop(String name, String section) {
+		if (name == null || section == null)
+			throw new IllegalArgumentException("Invalid course.");
+		dropNames.add(name);
+		dropSections.add(section);
+		return this;
+	}
+
+	/**
+	 * Returns the number of Courses to add
+	 * @return the number of adds
+	 */
+	public int getAddCount() {
+		return addNames.size();
+	}
+
+	/**
+	 * Returns the number of Courses to drop
+	 * @return the number of drops
+	 */
+	public int getDropCount() {
+		return dropNames.size();
+	}
+
+	/**
+	 * Returns the number of changes
+	 * @return the number of adds and drops
+	 */
+	public int size() {
+		return addNames.size() + dropNames.size();
+	}
+
+	/**
+	 * Returns the name of a Course to add
+	 * @param index index of the add
+	 * @return the name
+	 */
+	String getAddName(int index) {
+		return addNames.get(index);
+	}
+
+	/**
+	 * Returns the section of a Course to add
+	 * @param index index of the add
+	 * @return the section
+	 */
+	String getAddSection(int index) {
+		return addSections.get(index);
+	}
+
+	/**
+	 * Returns the name of a Course to drop
+	 * @param index index of the drop
+	 * @return the name
+	 */
+	String getDropName(int index) {
+		return dropNames.get(index);
+	}
+
+	/**
+	 * Returns the section of a Course to drop
+	 * @param index index of the drop
+	 * @return the section
+	 */
+	String getDropSection(int index) {
+		return dropSections.get(index);
+	}
+
+	/**
+	 * Returns a summary of the change
+	 * @return the number of adds and drops
+	 */
+	@Override
+	public String toString() {
+		return getAddCount() + " added, " + getDropCount() + " dropped";
+	}
+}
@@ -0,0 +1,146 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Indexes the Courses of a schedule so a new Course can be checked against them without
+ * comparing it to every one.  Scheduled Courses are kept by name, and each weekday has a
+ * TreeMap of the Courses meeting that day keyed by start minute.
+ *
+ * Courses in the index never conflict with each other, so on any day their intervals are
+ * disjoint and sorted by start are also sorted by end.  The only Course on a day that can
+ * overlap a new interval is the last one starting at or before the new end, which the TreeMap
+ * finds in logarithmic time.
+ *
+ * An index is either changed in place with add() and remove(), or used as an immutable value
+ * with plus() and minus().  Those return a new index that shares the day maps of every day the
+ * Course doesn't meet on with the old one, so a change copies the name map and only the day
+ * maps it touches rather than indexing the whole schedule again.
+ *
+ * @author Ben Morris
+ */
+class ScheduleConflictIndex {
+
+	/** Day bits of a meeting days mask, in the order of the day maps */
+	private static final int[] DAYS = { Course.MONDAY, Course.TUESDAY, Course.WEDNESDAY, Course.THURSDAY,
+			Course.FRIDAY };
+
+	/** Scheduled Courses by name */
+	private final HashMap<String, Course> byName;
+	/** Scheduled Courses meeting on each day, by start minute */
+	private final ArrayList<TreeMap<Integer, Course>> byDay = new ArrayList<TreeMap<Integer, Course>>(DAYS.length);
+
+	/**
+	 * Creates an empty index
+	 */
+	ScheduleConflictIndex() {
+		byName = new HashMap<String, Course>();
+		for (int i = 0; i < DAYS.length; i++)
+			byDay.add(new TreeMap<Integer, Course>());
+	}
+
+	/**
+	 * Creates a copy of an index that shares its day maps, except for the days in the mask,
+	 * which are copied so they can be changed
+	 * @param index index to copy
+	 * @param mask meeting days mask of the days to copy
+	 */
+	private ScheduleConflictIndex(ScheduleConflictIndex index, int mask) {
+		byName = new HashMap<String, Course>(index.byName);
+		for (int i = 0; i < DAYS.length; i++) {
+			TreeMap<Integer, Course> day = index.byDay.get(i);
+			byDay.add((mask & DAYS[i]) == 0 ? day : new TreeMap<Integer, Course>(day));
+		}
+	}
+
+	/**
+	 * Returns the scheduled Course with the given name
+	 * @param name name of the Course
+	 * @return the scheduled Course, or null if no Course with the name is scheduled
+	 */
+	Course getCourse(String name) {
+		return byName.get(name);
+	}
+
+	/**
+	 * Finds a scheduled Course that meets at the same time as the given Course
+	 * @param course Course to check
+	 * @return a conflicting Course, or null if there is none
+	 */
+	Course findConflict(Course course) {
+		int mask = course.getMeetingDaysMask();
+		for (int i = 0; i < DAYS.length; i++) {
+			if ((mask & DAYS[i]) == 0)
+				continue;
+			Map.Entry<Integer, Course> before = byDay.get(i).floorEntry(course.getEndMinutes());
+			if (before != null && before.getValue().getEndMinutes() >= course.getStartMinutes())
+				return before.getValue();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds a Course that has no conflict with the indexed Courses
+	 * @param course Course to add
+	 */
+	void add(Course course) {
+		byName.put(course.getName(), course);
+		int mask = course.getMeetingDaysMask();
+		for (int i = 0; i < DAYS.length; i++) {
+			if ((mask & DAYS[i]) != 0)
+				byDay.get(i).put(course.getStartMinutes(), course);
+		}
+	}
+
+	/**
+	 * Removes a Course from the index
+	 * @param course Course to remove
+	 */
+	void remove(Course course) {
+		if (byName.get(course.getName()) == course)
+			byName.remove(course.getName());
+		int mask = course.getMeetingDaysMask();
+		for (int i = 0; i < DAYS.length; i++) {
+			if ((mask & DAYS[i]) != 0 && byDay.get(i).get(course.getStartMinutes()) == course)
+				byDay.get(i).remove(course.getStartMinutes());
+		}
+	}
+
+	/**
+	 * Returns a new index with a Course added, leaving this one unchanged.  Neither index may be
+	 * changed in place afterwards, since they share day maps.
+	 * @param course Course to add, which has no conflict with the indexed Courses
+	 * @return the new index
+	 */
+	ScheduleConflictIndex plus(Course course) {
+		ScheduleConflictIndex index = new ScheduleConflictIndex(this, course.getMeetingDaysMask());
+		index.add(course);
+		return index;
+	}
+
+	/**
+	 * Returns a new index with a Course removed, leaving this one unchanged.  Neither index may
+	 * be changed in place afterwards, since they share day maps.
+	 * @param course Course to remove
+	 * @return the new index
+	 */
+	ScheduleConflictIndex minus(Course course) {
+		ScheduleConflictIndex index = new ScheduleConflictIndex(this, course.getMeetingDaysMask());
+		index.remove(course);
+		return index;
+	}
+
+	/**
+	 * Removes every Course from the index
+	 */
+	void clear() {
+		byName.clear();
+		for (int i = 0; i < DAYS.length; i++)
+			byDay.get(i).clear();
+	}
+}
@@ -0,0 +1,245 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Finds every combination of one section per course in which no two sections conflict.
+ *
+ * All of the sections are numbered, and each section gets a bitset of the sections it
+ * conflicts with, so checking a choice against everything already chosen is a few bitwise
+ * operations.  The search picks a section of each course in turn, keeps the union of the
+ * chosen sections' conflicts, and backs up as soon as some later course has every one of its
+ * sections blocked.  Each section of the first course is searched by its own fork-join task.
+ * The same bitsets are used by generateBest() to find the highest scoring schedules.
+ *
+ * A generator holds no state between searches and can be shared between threads.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleGenerator {
+
+	/** Number of bits in each word of a bitset */
+	private static final int WORD_SIZE = 64;
+
+	/** Every section, grouped by course */
+	private final Course[] sections;
+	/** Index of the first section of each course, followed by the number of sections */
+	private final int[] courseStart;
+	/** Sections each section conflicts with, as a bitset over section indexes */
+	private final long[][] conflicts;
+	/** Sections of each course, as a bitset over section indexes */
+	private final long[][] courseSections;
+	/** Sections of the courses from each course on, for ScheduleScorer bounds */
+	private final ArrayList<List<ArrayList<Course>>> remaining = new ArrayList<List<ArrayList<Course>>>();
+
+	/**
+	 * Creates a generator for the given courses
+	 * @param sectionsByCourse sections that may be chosen for each course, one list per course
+	 */
+	public ScheduleGenerator(ArrayList<ArrayList<Course>> sectionsByCourse) {
+		courseStart = new int[sectionsByCourse.size() + 1];
+		for (int i = 0; i < sectionsByCourse.size(); i++)
+			courseStart[i + 1] = courseStart[i] + sectionsByCourse.get(i).size();
+
+		sections = new Course[courseStart[sectionsByCourse.size()]];
+		for (int i = 0; i < sectionsByCourse.size(); i++) {
+			for (int j = 0; j < sectionsByCourse.get(i).size(); j++)
+				sections[courseStart[i] + j] = sectionsByCourse.get(i).get(j);
+		}
+
+		int words = (sections.length + WORD_SIZE - 1) / WORD_SIZE;
+		conflicts = new long[sections.length][words];
+		for (int i = 0; i < sections.length; i++) {
+			for (int j = i + 1; j < sections.length; j++) {
+				if (sections[i].isConflict(sections[j])) {
+					conflicts[i][j / WORD_SIZE] |= 1L << j;
+					conflicts[j][i / WORD_SIZE] |= 1L << i;
+				}
+			}
+		}
+
+		courseSections = new long[sectionsByCourse.size()][words];
+		for (int i = 0; i < sectionsByCourse.size(); i++) {
+			for (int j = courseStart[i]; j < courseStart[i + 1]; j++)
+				courseSections[i][j / WORD_SIZE] |= 1L << j;
+		}
+
+		ArrayList<ArrayList<Course>> copy = new ArrayList<ArrayList<Course>>();
+		for (int i = 0; i < sectionsByCourse.size(); i++)
+			copy.add(new ArrayList<Course>(sectionsByCourse.get(i)));
+		for (int i = 0; i <= copy.size(); i++)
+			remaining.add(Collections.unmodifiableList(copy.subList(i, copy.size())));
+	}
+
+	/**
+	 * Finds conflict-free schedules using the common fork-join pool
+	 * @param maxResults most schedules to return
+	 * @param timeLimitMillis milliseconds to search before returning the schedules found so far,
+	 * 		  or 0 or less to search without a time limit
+	 * @return the schedules, each with one section of every course in course order
+	 * @throws IllegalArgumentException "Invalid result limit." if maxResults is less than 1
+	 */
+	public ArrayList<ArrayList<Course>> generate(int maxResults, long timeLimitMillis) {
+		return generate(maxResults, timeLimitMillis, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Finds conflict-free schedules, searching each section of the first course in parallel.
+	 * Without a time limit, the schedules returned are the first maxResults in order of the
+	 * sections chosen, so the result does not depend on the number of threads.  There are no
+	 * schedules if there are no courses or a course has no sections.
+	 * @param maxResults most schedules to return
+	 * @param timeLimitMillis milliseconds to search before returning the schedules found so far,
+	 * 		  or 0 or less to search without a time limit
+	 * @param pool pool to run the search in
+	 * @return the schedules, each with one section of every course in course order
+	 * @throws IllegalArgumentException "Invalid result limit." if maxResults is less than 1
+	 */
+	public ArrayList<ArrayList<Course>> generate(int maxResults, long timeLimitMillis, ForkJoinPool pool) {
+		if (maxResults < 1)
+			throw new IllegalArgumentException("Invalid result limit.");
+		ArrayList<ArrayList<Course>> schedules = new ArrayList<ArrayList<Course>>();
+		if (courseCount() == 0 || courseStart[1] == 0)
+			return schedules;
+
+		long deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1000000L : 0;
+		ArrayList<ArrayList<int[]>> found = new ArrayList<ArrayList<int[]>>();
+		for (int i = 0; i < courseStart[1]; i++)
+			found.add(null);
+		pool.invoke(new ScheduleSearchTask(this, found, maxResults, timeLimitMillis > 0, deadline, 0, courseStart[1]));
+
+		//Merge the schedules of each first section in order
+		for (int i = 0; i < found.size() && schedules.size() < maxResults; i++) {
+			ArrayList<int[]> choices = found.get(i);
+			for (int j = 0; j < choices.size() && schedules.size() < maxResults; j++)
+				schedules.add(toSchedule(choices.get(j)));
+		}
+		return schedules;
+	}
+
+	/**
+	 * Finds the highest scoring conflict-free schedules by branch and bound, without
+	 * enumerating the schedules that the scorer's bound rules out.  Among schedules with equal
+	 * scores, those found first are kept.
+	 * @param count number of schedules to return
+	 * @param scorer scorer ranking the schedules
+	 * @param timeLimitMillis milliseconds to search before returning the best schedules found so
+	 * 		  far, or 0 or less to search without a time limit
+	 * @return up to count schedules, best first, each with one section of every course in course order
+	 * @throws IllegalArgumentException "Invalid result limit." if count is less than 1
+	 */
+	public ArrayList<ArrayList<Course>> generateBest(int count, ScheduleScorer scorer, long timeLimitMillis) {
+		if (count < 1)
+			throw new IllegalArgumentException("Invalid result limit.");
+		return new ScheduleRanker(this, scorer, count, timeLimitMillis).rank();
+	}
+
+	/**
+	 * Converts the chosen section indexes to a schedule
+	 * @param chosen index of the section chosen for each course
+	 * @return the schedule
+	 */
+	ArrayList<Course> toSchedule(int[] chosen) {
+		ArrayList<Course> schedule = new ArrayList<Course>(chosen.length);
+		for (int i = 0; i < chosen.length; i++)
+			schedule.add(sections[chosen[i]]);
+		return schedule;
+	}
+
+	/**
+	 * Returns the number of courses
+	 * @return the number of courses
+	 */
+	int courseCount() {
+		return courseStart.length - 1;
+	}
+
+	/**
+	 * Returns the number of words in each bitset
+	 * @return the number of words
+	 */
+	int wordCount() {
+		return (sections.length + WORD_SIZE - 1) / WORD_SIZE;
+	}
+
+	/**
+	 * Returns the index of the first section of a course
+	 * @param course index of the course
+	 * @return index of its first section
+	 */
+	int firstSection(int course) {
+		return courseStart[course];
+	}
+
+	/**
+	 * Returns one past the index of the last section of a course
+	 * @param course index of the course
+	 * @return one past the index of its last section
+	 */
+	int endSection(int course) {
+		return courseStart[course + 1];
+	}
+
+	/**
+	 * Returns the sections of the courses from the given one on
+	 * @param fromCourse index of the first course
+	 * @return the sections of each of the courses
+	 */
+	List<ArrayList<Course>> remainingCourses(int fromCourse) {
+		return remaining.get(fromCourse);
+	}
+
+	/**
+	 * Returns the section with the given index
+	 * @param section index of the section
+	 * @return the section
+	 */
+	Course getSection(int section) {
+		return sections[section];
+	}
+
+	/**
+	 * Checks whether a section is in a bitset
+	 * @param bits bitset over section indexes
+	 * @param section index of the section
+	 * @return true if the section's bit is set
+	 */
+	static boolean contains(long[] bits, int section) {
+		return (bits[section / WORD_SIZE] & 1L << section) != 0;
+	}
+
+	/**
+	 * Sets blocked to the sections in previous or in the conflicts of the given section
+	 * @param previous sections blocked before the section was chosen
+	 * @param section index of the chosen section
+	 * @param blocked bitset to fill in
+	 */
+	void block(long[] previous, int section, long[] blocked) {
+		long[] sectionConflicts = conflicts[section];
+		for (int i = 0; i < blocked.length; i++)
+			blocked[i] = previous[i] | sectionConflicts[i];
+	}
+
+	/**
+	 * Checks that every course from the given one on still has a section that isn't blocked
+	 * @param blocked sections that can't be chosen
+	 * @param fromCourse index of the first course to check
+	 * @return true if each course has a section left
+	 */
+	boolean hasOpenSections(long[] blocked, int fromCourse) {
+		for (int i = fromCourse; i < courseSections.length; i++) {
+			long[] own = courseSections[i];
+			boolean open = false;
+			for (int j = 0; j < own.length && !open; j++)
+				open = (own[j] & ~blocked[j]) != 0;
+			if (!open)
+				return false;
+		}
+		return true;
+	}
+}
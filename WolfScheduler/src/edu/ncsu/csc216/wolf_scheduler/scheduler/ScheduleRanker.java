@@ -0,0 +1,203 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Finds the highest scoring conflict-free schedules by branch and bound.  The best schedules
+ * found so far are kept in a priority queue no larger than the number wanted, with the worst of
+ * them at the head.  Once the queue is full, any partial schedule whose bound is no better than
+ * the head is dropped along with every completion of it.  The sections of each course are tried
+ * in order of their bounds so good schedules are found early and more is pruned.
+ *
+ * A ranker runs a single search and is not safe to share between threads.
+ *
+ * @author Ben Morris
+ */
+class ScheduleRanker {
+
+	/** Number of sections tried between checks of the clock */
+	private static final int CLOCK_INTERVAL = 1 << 10;
+	/** Largest initial capacity of the queue, which grows past it if more schedules are found */
+	private static final int MAX_INITIAL_CAPACITY = 1 << 10;
+
+	/** Orders ranked schedules from worst to best, with later schedules worse among equal scores */
+	private static final Comparator<RankedSchedule> WORST_FIRST = new Comparator<RankedSchedule>() {
+		@Override
+		public int compare(RankedSchedule a, RankedSchedule b) {
+			int byScore = Double.compare(a.score, b.score);
+			return byScore != 0 ? byScore : Long.compare(b.order, a.order);
+		}
+	};
+
+	/** Generator holding the sections and their conflicts */
+	private final ScheduleGenerator generator;
+	/** Scorer ranking the schedules */
+	private final ScheduleScorer scorer;
+	/** Number of schedules wanted */
+	private final int count;
+	/** Whether the search stops at the deadline */
+	private final boolean timeLimited;
+	/** Value of System.nanoTime() at which to stop searching */
+	private final long deadline;
+
+	/** Best schedules found so far, worst first */
+	private final PriorityQueue<RankedSchedule> best;
+	/** Sections chosen so far */
+	private final ArrayList<Course> partial = new ArrayList<Course>();
+	/** Sections blocked after each course's section was chosen, after an empty first entry */
+	private final long[][] blocked;
+	/** Index of the section chosen for each course */
+	private final int[] chosen;
+	/** Open sections of each course, in the order they will be tried */
+	private final int[][] candidates;
+	/** Bound of each candidate section */
+	private final double[][] bounds;
+	/** Number of schedules found so far */
+	private long found;
+	/** Sections tried since the clock was last checked */
+	private int tried;
+
+	/**
+	 * Creates a ranker for a single search
+	 * @param generator generator holding the sections and their conflicts
+	 * @param scorer scorer ranking the schedules
+	 * @param count number of schedules wanted
+	 * @param timeLimitMillis milliseconds to search before returning the best schedules found
+	 * 		  so far, or 0 or less to search without a time limit
+	 */
+	ScheduleRanker(ScheduleGenerator generator, ScheduleScorer scorer, int count, long timeLimitMillis) {
+		this.generator = generator;
+		this.scorer = scorer;
+		this.count = count;
+		this.timeLimited = timeLimitMillis > 0;
+		this.deadline = System.nanoTime() + timeLimitMillis * 1000000L;
+		this.best = new PriorityQueue<RankedSchedule>(Math.min(count, MAX_INITIAL_CAPACITY) + 1, WORST_FIRST);
+
+		int courses = generator.courseCount();
+		blocked = new long[courses + 1][generator.wordCount()];
+		chosen = new int[courses];
+		candidates = new int[courses][];
+		bounds = new double[courses][];
+		for (int i = 0; i < courses; i++) {
+			candidates[i] = new int[generator.endSection(i) - generator.firstSection(i)];
+			bounds[i] = new double[candidates[i].length];
+		}
+	}
+
+	/**
+	 * Runs the search
+	 * @return the best schedules, best first
+	 */
+	ArrayList<ArrayList<Course>> rank() {
+		if (generator.courseCount() > 0 && generator.hasOpenSections(blocked[0], 0))
+			search(0);
+
+		ArrayList<RankedSchedule> ranked = new ArrayList<RankedSchedule>(best);
+		Collections.sort(ranked, Collections.reverseOrder(WORST_FIRST));
+		ArrayList<ArrayList<Course>> schedules = new ArrayList<ArrayList<Course>>(ranked.size());
+		for (int i = 0; i < ranked.size(); i++)
+			schedules.add(generator.toSchedule(ranked.get(i).chosen));
+		return schedules;
+	}
+
+	/**
+	 * Bounds each open section of a course, then searches them from the best bound down
+	 * @param course index of the course to choose a section for
+	 * @return false if the search should stop because of the time limit
+	 */
+	private boolean search(int course) {
+		int[] order = candidates[course];
+		double[] orderBounds = bounds[course];
+		long[] previous = blocked[course];
+		long[] next = blocked[course + 1];
+		boolean last = course + 1 == chosen.length;
+
+		//Bound every open section, inserting it in order of its bound
+		int open = 0;
+		for (int s = generator.firstSection(course); s < generator.endSection(course); s++) {
+			if (ScheduleGenerator.contains(previous, s))
+				continue;
+			if (timeLimited && ++tried == CLOCK_INTERVAL) {
+				tried = 0;
+				if (System.nanoTime() - deadline >= 0)
+					return false;
+			}
+			generator.block(previous, s, next);
+			if (!last && !generator.hasOpenSections(next, course + 1))
+				continue;
+			partial.add(generator.getSection(s));
+			double bound = last ? scorer.score(partial) : scorer.bound(partial, generator.remainingCourses(course + 1));
+			partial.remove(partial.size() - 1);
+
+			int j = open++;
+			while (j > 0 && orderBounds[j - 1] < bound) {
+				order[j] = order[j - 1];
+				orderBounds[j] = orderBounds[j - 1];
+				j--;
+			}
+			order[j] = s;
+			orderBounds[j] = bound;
+		}
+
+		for (int i = 0; i < open; i++) {
+			//Every later section has a bound no better than this one
+			if (best.size() == count && orderBounds[i] <= best.peek().score)
+				break;
+			chosen[course] = order[i];
+			if (last) {
+				offer(orderBounds[i]);
+				continue;
+			}
+			generator.block(previous, order[i], next);
+			partial.add(generator.getSection(order[i]));
+			boolean keepGoing = search(course + 1);
+			partial.remove(partial.size() - 1);
+			if (!keepGoing)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Keeps the chosen schedule if it is one of the best found so far
+	 * @param score score of the schedule
+	 */
+	private void offer(double score) {
+		RankedSchedule schedule = new RankedSchedule(chosen.clone(), score, found++);
+		if (best.size() < count) {
+			best.add(schedule);
+		} else if (score > best.peek().score) {
+			best.poll();
+			best.add(schedule);
+		}
+	}
+
+	/**
+	 * A complete schedule with its score
+	 */
+	private static class RankedSchedule {
+		/** Index of the section chosen for each course */
+		private final int[] chosen;
+		/** Score of the schedule */
+		private final double score;
+		/** Number of schedules found before this one */
+		private final long order;
+
+		/**
+		 * Creates a ranked schedule
+		 * @param chosen index of the section chosen for each course
+		 * @param score score of the schedule
+		 * @param order number of schedules found before this one
+		 */
+		RankedSchedule(int[] chosen, double score, long order) {
+			this.chosen = chosen;
+			this.score = score;
+			this.order = order;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Scores schedules so the best ones can be found without scoring every combination.  Higher
+ * scores are better.  Built-in scorers are created by ScheduleScorers.
+ *
+ * @author Ben Morris
+ */
+public interface ScheduleScorer {
+
+	/**
+	 * Scores a complete schedule
+	 * @param schedule one section of each course
+	 * @return the score, higher is better
+	 */
+	double score(ArrayList<Course> schedule);
+
+	/**
+	 * Returns a score that no completion of a partial schedule can beat.  A partial schedule is
+	 * completed by adding one section of each remaining course.  A lower bound prunes more of
+	 * the search, but a bound below the score of some completion causes that completion to be
+	 * missed.
+	 * @param partial sections chosen so far
+	 * @param remaining sections of each course not yet chosen, some of which may conflict with
+	 * 		  the partial schedule
+	 * @return an upper bound on the score of every completion
+	 */
+	double bound(ArrayList<Course> partial, List<ArrayList<Course>> remaining);
+}
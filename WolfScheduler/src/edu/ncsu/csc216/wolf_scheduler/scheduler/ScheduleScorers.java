@@ -0,0 +1,255 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Creates the built-in ScheduleScorers.  Each scorer's bound only looks at the partial
+ * schedule and the remaining sections, so it is cheap enough to call for every partial
+ * schedule in a search.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleScorers {
+
+	/** Day bits of a meeting days mask */
+	private static final int[] DAYS = { Course.MONDAY, Course.TUESDAY, Course.WEDNESDAY, Course.THURSDAY,
+			Course.FRIDAY };
+
+	/**
+	 * ScheduleScorers only has static methods
+	 */
+	private ScheduleScorers() {
+		//Not instantiated
+	}
+
+	/**
+	 * Scores a schedule by the negated number of days it has classes on.  Adding a section
+	 * never removes a day, so a partial schedule's score bounds its completions.
+	 * @return a scorer preferring fewer days on campus
+	 */
+	public static ScheduleScorer fewestDays() {
+		return new ScheduleScorer() {
+			@Override
+			public double score(ArrayList<Course> schedule) {
+				int days = 0;
+				for (int i = 0; i < schedule.size(); i++)
+					days |= schedule.get(i).getMeetingDaysMask();
+				return -Integer.bitCount(days);
+			}
+
+			@Override
+			public double bound(ArrayList<Course> partial, List<ArrayList<Course>> remaining) {
+				return score(partial);
+			}
+		};
+	}
+
+	/**
+	 * Scores a schedule by the negated number of sections starting before the given time.
+	 * Arranged sections have no start time and are never counted.
+	 * @param time military time that classes should not start before, such as 1000
+	 * @return a scorer preferring no classes before the time
+	 */
+	public static ScheduleScorer noClassesBefore(final int time) {
+		return new ScheduleScorer() {
+			@Override
+			public double score(ArrayList<Course> schedule) {
+				int early = 0;
+				for (int i = 0; i < schedule.size(); i++) {
+					Course course = schedule.get(i);
+					if (course.getMeetingDaysMask() != 0 && course.getStartTime() < time)
+						early++;
+				}
+				return -early;
+			}
+
+			@Override
+			public double bound(ArrayList<Course> partial, List<ArrayList<Course>> remaining) {
+				return score(partial);
+			}
+		};
+	}
+
+	/**
+	 * Scores a schedule by the negated number of minutes between consecutive classes on the
+	 * same day, summed over the week.  Adding a section can only shorten the gaps by placing it
+	 * inside one, which shortens that gap by the section's length.  A section overlapping a
+	 * class conflicts with it, and one outside the classes of a day only adds a gap.  So the
+	 * partial schedule's gaps, less the most each remaining course could fill, bound its
+	 * completions.  Gaps usually appear only after several sections are chosen, so this bound
+	 * prunes less than the others and large searches with it should be given a time limit.
+	 * @return a scorer preferring fewer minutes between classes
+	 */
+	public static ScheduleScorer minimalGaps() {
+		return new ScheduleScorer() {
+			@Override
+			public double score(ArrayList<Course> schedule) {
+				return -gapMinutes(schedule);
+			}
+
+			@Override
+			public double bound(ArrayList<Course> partial, List<ArrayList<Course>> remaining) {
+				int[][] starts = new int[DAYS.length][partial.size()];
+				int[][] ends = new int[DAYS.length][partial.size()];
+				int[] counts = new int[DAYS.length];
+				int gaps = 0;
+				for (int d = 0; d < DAYS.length; d++) {
+					counts[d] = sortDay(partial, DAYS[d], starts[d], ends[d]);
+					for (int i = 1; i < counts[d]; i++)
+						gaps += starts[d][i] - ends[d][i - 1];
+				}
+
+				int fillable = 0;
+				for (int i = 0; i < remaining.size() && fillable < gaps; i++) {
+					int most = 0;
+					for (int j = 0; j < remaining.get(i).size(); j++)
+						most = Math.max(most, gapFill(remaining.get(i).get(j), starts, ends, counts));
+					fillable += most;
+				}
+				return -Math.max(0, gaps - fillable);
+			}
+		};
+	}
+
+	/**
+	 * Scores a schedule by the number of sections taught by one of the given instructors
+	 * @param instructorIds ids of the preferred instructors
+	 * @return a scorer preferring sections taught by the instructors
+	 */
+	public static ScheduleScorer preferredInstructors(String... instructorIds) {
+		final HashSet<String> preferred = new HashSet<String>(Arrays.asList(instructorIds));
+		return new ScheduleScorer() {
+			@Override
+			public double score(ArrayList<Course> schedule) {
+				int taught = 0;
+				for (int i = 0; i < schedule.size(); i++) {
+					if (preferred.contains(schedule.get(i).getInstructorId()))
+						taught++;
+				}
+				return taught;
+			}
+
+			@Override
+			public double bound(ArrayList<Course> partial, List<ArrayList<Course>> remaining) {
+				double best = score(partial);
+				for (int i = 0; i < remaining.size(); i++) {
+					for (int j = 0; j < remaining.get(i).size(); j++) {
+						if (preferred.contains(remaining.get(i).get(j).getInstructorId())) {
+							best++;
+							break;
+						}
+					}
+				}
+				return best;
+			}
+		};
+	}
+
+	/**
+	 * Scores a schedule by the sum of the given scorers' scores, each multiplied by its weight
+	 * @param weights weight of each scorer, which must not be negative
+	 * @param scorers scorers to combine
+	 * @return a scorer combining the others
+	 * @throws IllegalArgumentException "Invalid weights." if there isn't one non-negative weight
+	 * 		   per scorer
+	 */
+	public static ScheduleScorer weighted(final double[] weights, final ScheduleScorer... scorers) {
+		if (weights.length != scorers.length)
+			throw new IllegalArgumentException("Invalid weights.");
+		for (int i = 0; i < weights.length; i++) {
+			if (!(weights[i] >= 0))
+				throw new IllegalArgumentException("Invalid weights.");
+		}
+		return new ScheduleScorer() {
+			@Override
+			public double score(ArrayList<Course> schedule) {
+				double total = 0;
+				for (int i = 0; i < scorers.length; i++)
+					total += weights[i] * scorers[i].score(schedule);
+				return total;
+			}
+
+			@Override
+			public double bound(ArrayList<Course> partial, List<ArrayList<Course>> remaining) {
+				double total = 0;
+				for (int i = 0; i < scorers.length; i++)
+					total += weights[i] * scorers[i].bound(partial, remaining);
+				return total;
+			}
+		};
+	}
+
+	/**
+	 * Returns the minutes between consecutive classes on the same day, summed over the week.
+	 * The classes must not conflict.
+	 * @param schedule sections to check
+	 * @return the total gap in minutes
+	 */
+	private static int gapMinutes(ArrayList<Course> schedule) {
+		int[] starts = new int[schedule.size()];
+		int[] ends = new int[schedule.size()];
+		int gaps = 0;
+		for (int d = 0; d < DAYS.length; d++) {
+			int count = sortDay(schedule, DAYS[d], starts, ends);
+			for (int i = 1; i < count; i++)
+				gaps += starts[i] - ends[i - 1];
+		}
+		return gaps;
+	}
+
+	/**
+	 * Fills in the start and end minutes of the classes meeting on a day, in order of start time
+	 * @param schedule sections to check
+	 * @param day day bit of the day
+	 * @param starts filled in with the start minutes
+	 * @param ends filled in with the end minutes
+	 * @return the number of classes on the day
+	 */
+	private static int sortDay(ArrayList<Course> schedule, int day, int[] starts, int[] ends) {
+		int count = 0;
+		for (int i = 0; i < schedule.size(); i++) {
+			Course course = schedule.get(i);
+			if ((course.getMeetingDaysMask() & day) == 0)
+				continue;
+			int j = count++;
+			while (j > 0 && starts[j - 1] > course.getStartMinutes()) {
+				starts[j] = starts[j - 1];
+				ends[j] = ends[j - 1];
+				j--;
+			}
+			starts[j] = course.getStartMinutes();
+			ends[j] = course.getEndMinutes();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns how many minutes of gaps a section would fill if it were added to the classes
+	 * @param course section to check
+	 * @param starts start minutes of the classes on each day, in order
+	 * @param ends end minutes of the classes on each day, in order
+	 * @param counts number of classes on each day
+	 * @return the minutes filled, or 0 if the section conflicts with a class
+	 */
+	private static int gapFill(Course course, int[][] starts, int[][] ends, int[] counts) {
+		int filled = 0;
+		for (int d = 0; d < DAYS.length; d++) {
+			if ((course.getMeetingDaysMask() & DAYS[d]) == 0 || counts[d] == 0)
+				continue;
+			//Find the first class ending at or after the section starts
+			int next = 0;
+			while (next < counts[d] && ends[d][next] < course.getStartMinutes())
+				next++;
+			if (next < counts[d] && starts[d][next] <= course.getEndMinutes())
+				return 0;
+			if (next > 0 && next < counts[d])
+				filled += course.getEndMinutes() - course.getStartMinutes();
+		}
+		return filled;
+	}
+}
@@ -0,0 +1,123 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join task that searches for schedules starting with a range of sections of the first
+ * course.  The range is split in half until a single section is left, which is then searched
+ * depth first on its own.  The schedules found for each first section are kept in the order
+ * found so the generator can merge them in a fixed order.
+ *
+ * @author Ben Morris
+ */
+class ScheduleSearchTask extends RecursiveAction {
+
+	/** ID used for object serialization */
+	private static final long serialVersionUID = 1L;
+	/** Number of sections tried between checks of the clock */
+	private static final int CLOCK_INTERVAL = 1 << 10;
+
+	/** Generator holding the sections and their conflicts */
+	private final ScheduleGenerator generator;
+	/** Schedules found for each first section, as the index of each chosen section */
+	private final ArrayList<ArrayList<int[]>> found;
+	/** Most schedules to find for a single first section */
+	private final int maxResults;
+	/** Whether the search stops at the deadline */
+	private final boolean timeLimited;
+	/** Value of System.nanoTime() at which to stop searching */
+	private final long deadline;
+	/** First section handled by this task */
+	private final int lo;
+	/** One past the last section handled by this task */
+	private final int hi;
+
+	/** Sections blocked after each course's section was chosen */
+	private long[][] blocked;
+	/** Index of the section chosen for each course */
+	private int[] chosen;
+	/** Schedules found for the section being searched */
+	private ArrayList<int[]> results;
+	/** Sections tried since the clock was last checked */
+	private int tried;
+
+	/**
+	 * Creates a task for first sections lo up to, but not including, hi
+	 * @param generator generator holding the sections and their conflicts
+	 * @param found list of schedules for each first section, filled in by the task
+	 * @param maxResults most schedules to find for a single first section
+	 * @param timeLimited whether the search stops at the deadline
+	 * @param deadline value of System.nanoTime() at which to stop searching
+	 * @param lo first section to search
+	 * @param hi one past the last section to search
+	 */
+	ScheduleSearchTask(ScheduleGenerator generator, ArrayList<ArrayList<int[]>> found, int maxResults,
+			boolean timeLimited, long deadline, int lo, int hi) {
+		this.generator = generator;
+		this.found = found;
+		this.maxResults = maxResults;
+		this.timeLimited = timeLimited;
+		this.deadline = deadline;
+		this.lo = lo;
+		this.hi = hi;
+	}
+
+	/**
+	 * Searches the section if there is only one, otherwise splits the sections between two subtasks
+	 */
+	@Override
+	protected void compute() {
+		if (hi - lo == 1) {
+			searchFrom(lo);
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		invokeAll(new ScheduleSearchTask(generator, found, maxResults, timeLimited, deadline, lo, mid),
+				new ScheduleSearchTask(generator, found, maxResults, timeLimited, deadline, mid, hi));
+	}
+
+	/**
+	 * Finds the schedules that start with one section of the first course
+	 * @param first index of the section
+	 */
+	private void searchFrom(int first) {
+		int courses = generator.courseCount();
+		blocked = new long[courses][generator.wordCount()];
+		chosen = new int[courses];
+		results = new ArrayList<int[]>();
+		found.set(first, results);
+
+		chosen[0] = first;
+		generator.block(new long[generator.wordCount()], first, blocked[0]);
+		if (generator.hasOpenSections(blocked[0], 1))
+			search(1);
+	}
+
+	/**
+	 * Tries each open section of a course and searches the courses after it
+	 * @param course index of the course to choose a section for
+	 * @return false if the search should stop because of the result or time limit
+	 */
+	private boolean search(int course) {
+		if (course == chosen.length) {
+			results.add(chosen.clone());
+			return results.size() < maxResults;
+		}
+		long[] previous = blocked[course - 1];
+		for (int s = generator.firstSection(course); s < generator.endSection(course); s++) {
+			if (ScheduleGenerator.contains(previous, s))
+				continue;
+			if (timeLimited && ++tried == CLOCK_INTERVAL) {
+				tried = 0;
+				if (System.nanoTime() - deadline >= 0)
+					return false;
+			}
+			chosen[course] = s;
+			generator.block(previous, s, blocked[course]);
+			if (generator.hasOpenSections(blocked[course], course + 1) && !search(course + 1))
+				return false;
+		}
+		return true;
+	}
+}
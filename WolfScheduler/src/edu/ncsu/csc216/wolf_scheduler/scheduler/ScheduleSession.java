@@ -0,0 +1,361 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * One user's schedule in a ScheduleSessionManager, with the same schedule operations and
+ * messages as WolfScheduler.  The schedule is kept as the positions of its Courses in the
+ * shared catalog, and the Courses are read from the catalog when they are needed, so a session
+ * holds no Courses or Strings of its own besides its title.
+ *
+ * Schedules are small, so a new Course is checked against each scheduled Course in turn.
+ * Every method synchronizes on the session, which only its own user's requests use.  Each
+ * scheduled Course holds a seat claimed from the manager's EnrollmentTracker until it is
+ * removed or the session ends.  A session can also wait for a seat in a full section, and is
+ * given it by the tracker's SectionWaitlists if it still fits the schedule when its turn comes.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleSession {
+	/** Width of the limited Schedule array */
+	private static final int CATALOG_ARRAY_WIDTH = 3;
+	/** Width of the full array containing all of the fields */
+	private static final int FULL_ARRAY_WIDTH = 6;
+	/** Schedule of a new session */
+	private static final int[] EMPTY = new int[0];
+
+	/** Manager the session belongs to */
+	private final ScheduleSessionManager manager;
+	/** Catalog the schedule was resolved against */
+	private CourseCatalog catalog;
+	/** Catalog position of each scheduled Course, in the order they were added */
+	private int[] rows;
+	/** Schedule title */
+	private String title;
+	/** Names and sections the session is waiting for */
+	private final HashSet<String> waitlisted = new HashSet<String>();
+	/** Whether the session was closed or evicted */
+	private boolean closed;
+	/** Time the session was last returned by the manager, in milliseconds */
+	volatile long lastUsed;
+
+	/**
+	 * Creates a session with an empty schedule
+	 * @param manager manager the session belongs to
+	 */
+	ScheduleSession(ScheduleSessionManager manager) {
+		this.manager = manager;
+		catalog = manager.getCatalog();
+		rows = EMPTY;
+		title = "My Schedule";
+	}
+
+	/**
+	 * Re-resolves the schedule if the manager's catalog was replaced since it was last used.
+	 * Each Course is replaced by the new catalog's Course with the same name and section, and
+	 * dropped if its section is gone or it now conflicts with a Course earlier in the schedule.
+	 * @return the scheduled Courses
+	 */
+	private Course[] resolve() {
+		CourseCatalog current = manager.getCatalog();
+		if (current == catalog)
+			return getCourses(rows);
+
+		Course[] courses = new Course[rows.length];
+		int[] resolved = new int[rows.length];
+		int count = 0;
+		for (int i = 0; i < rows.length; i++) {
+			Course old = catalog.getCourse(rows[i]);
+			int row = current.indexOf(old.getName(), old.getSection());
+			Course course = row == -1 ? null : current.getCourse(row);
+			if (course == null || findConflict(courses, count, course) != null) {
+				manager.getEnrollmentTracker().releaseSeat(old);
+			} else {
+				courses[count] = course;
+				resolved[count++] = row;
+			}
+		}
+		catalog = current;
+		rows = count == rows.length ? resolved : Arrays.copyOf(resolved, count);
+		return count == courses.length ? courses : Arrays.copyOf(courses, count);
+	}
+
+	/**
+	 * Reads the Courses at the given catalog positions
+	 * @param positions catalog positions
+	 * @return the Courses
+	 */
+	private Course[] getCourses(int[] positions) {
+		Course[] courses = new Course[positions.length];
+		for (int i = 0; i < positions.length; i++)
+			courses[i] = catalog.getCourse(positions[i]);
+		return courses;
+	}
+
+	/**
+	 * Finds a scheduled Course that meets at the same time as the given Course
+	 * @param courses scheduled Courses
+	 * @param count number of scheduled Courses
+	 * @param course Course to check
+	 * @return a conflicting Course, or null if there is none
+	 */
+	private static Course findConflict(Course[] courses, int count, Course course) {
+		for (int i = 0; i < count; i++) {
+			if (courses[i].isConflict(course))
+				return courses[i];
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the catalog the session chooses Courses from
+	 * @return the manager's current catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return manager.getCatalog();
+	}
+
+	/**
+	 * Returns a 2D String array of the schedule with a row for each Course holding its name,
+	 * section, and title
+	 * @return 2D String array of the schedule
+	 */
+	public synchronized String[][] getScheduledCourses() {
+		Course[] courses = resolve();
+		String[][] scheduleArray = new String[courses.length][CATALOG_ARRAY_WIDTH];
+		for (int i = 0; i < courses.length; i++) {
+			scheduleArray[i][0] = courses[i].getName();
+			scheduleArray[i][1] = courses[i].getSection();
+			scheduleArray[i][2] = courses[i].getTitle();
+		}
+		return scheduleArray;
+	}
+
+	/**
+	 * Returns a 2D String array of the schedule with a row for each Course holding its name,
+	 * section, title, credits, instructor id, and meeting string
+	 * @return 2D String array of the schedule with all information
+	 */
+	public synchronized String[][] getFullScheduledCourses() {
+		Course[] courses = resolve();
+		String[][] scheduleArray = new String[courses.length][FULL_ARRAY_WIDTH];
+		for (int i = 0; i < courses.length; i++) {
+			scheduleArray[i][0] = courses[i].getName();
+			scheduleArray[i][1] = courses[i].getSection();
+			scheduleArray[i][2] = courses[i].getTitle();
+			scheduleArray[i][3] = "" + courses[i].getCredits();
+			scheduleArray[i][4] = courses[i].getInstructorId();
+			scheduleArray[i][5] = courses[i].getMeetingString();
+		}
+		return scheduleArray;
+	}
+
+	/**
+	 * Adds a Course from the catalog to the schedule
+	 * @param name name of the Course to add to the schedule
+	 * @param section section of the Course to add to the schedule
+	 * @return true if the Course exists and was added to the schedule, false if it isn't in the catalog
+	 * @throws IllegalArgumentException "You are already enrolled in [course]" if a course with the
+	 * 		   same name is already scheduled
+	 * @throws IllegalArgumentException "The course cannot be added due to a conflict with [course]-[section]"
+	 * 		   if the course meets at the same time as a scheduled course
+	 * @throws IllegalArgumentException "The course [course]-[section] is full." if every seat in the
+	 * 		   section is taken or other users are waiting for one
+	 * @throws IllegalArgumentException "The session has ended." if the session was closed or evicted
+	 */
+	public synchronized boolean addCourseToSchedule(String name, String section) {
+		if (closed)
+			throw new IllegalArgumentException("The session has ended.");
+		Course[] courses = resolve();
+		int row = catalog.indexOf(name, section);
+		if (row == -1)
+			return false;
+		Course addedCourse = catalog.getCourse(row);
+		for (int i = 0; i < courses.length; i++) {
+			if (courses[i].getName().equals(name))
+				throw new IllegalArgumentException("You are already enrolled in " + name);
+		}
+		Course conflict = findConflict(courses, courses.length, addedCourse);
+		if (conflict != null)
+			throw new IllegalArgumentException("The course cannot be added due to a conflict with "
+					+ conflict.getName() + "-" + conflict.getSection());
+		if (!manager.getEnrollmentTracker().claimSeat(addedCourse))
+			throw new IllegalArgumentException("The course " + name + "-" + section + " is full.");
+
+		schedule(row);
+		return true;
+	}
+
+	/**
+	 * Adds a catalog position to the end of the schedule
+	 * @param row catalog position of the Course
+	 */
+	private void schedule(int row) {
+		rows = Arrays.copyOf(rows, rows.length + 1);
+		rows[rows.length - 1] = row;
+	}
+
+	/**
+	 * Waits for a seat in a section.  The Course is added to the schedule once every user who
+	 * started waiting earlier has been given a seat or passed over and a seat is free, unless it
+	 * then conflicts with the schedule.
+	 * @param name name of the Course to wait for
+	 * @param section section of the Course to wait for
+	 * @return true if the Course exists and the session is now waiting for it, false if it isn't
+	 * 		   in the catalog
+	 * @throws IllegalArgumentException "You are already enrolled in [course]" if a course with the
+	 * 		   same name is already scheduled
+	 * @throws IllegalArgumentException "You are already waiting for [course]-[section]" if the
+	 * 		   session is already waiting for the section
+	 * @throws IllegalArgumentException "The session has ended." if the session was closed or evicted
+	 */
+	public synchronized boolean joinWaitlist(String name, String section) {
+		if (closed)
+			throw new IllegalArgumentException("The session has ended.");
+		Course[] courses = resolve();
+		if (catalog.indexOf(name, section) == -1)
+			return false;
+		for (int i = 0; i < courses.length; i++) {
+			if (courses[i].getName().equals(name))
+				throw new IllegalArgumentException("You are already enrolled in " + name);
+		}
+		if (!waitlisted.add(CatalogDelta.key(name, section)))
+			throw new IllegalArgumentException("You are already waiting for " + name + "-" + section);
+		manager.getWaitlists().join(name, section, this);
+		return true;
+	}
+
+	/**
+	 * Stops waiting for a seat in a section
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return true if the session was waiting for the section
+	 */
+	public synchronized boolean leaveWaitlist(String name, String section) {
+		String key = CatalogDelta.key(name, section);
+		if (!waitlisted.remove(key))
+			return false;
+		manager.getWaitlists().leave(key, this);
+		return true;
+	}
+
+	/**
+	 * Returns whether the session is waiting for a seat in a section
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return true if the session is waiting for the section
+	 */
+	public synchronized boolean isWaiting(String name, String section) {
+		return waitlisted.contains(CatalogDelta.key(name, section));
+	}
+
+	/**
+	 * Gives the session a seat it was waiting for, if the Course still fits the schedule.  Called
+	 * by SectionWaitlists when it is the session's turn.
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return SectionWaitlists.PROMOTED if the Course was added, SectionWaitlists.FULL if the
+	 * 		   section has no free seat, or SectionWaitlists.SKIPPED if the session stopped waiting
+	 */
+	synchronized int promote(String name, String section) {
+		String key = CatalogDelta.key(name, section);
+		if (closed || !waitlisted.contains(key))
+			return SectionWaitlists.SKIPPED;
+		Course[] courses = resolve();
+		int row = catalog.indexOf(name, section);
+		Course course = row == -1 ? null : catalog.getCourse(row);
+		boolean fits = course != null && findConflict(courses, courses.length, course) == null;
+		for (int i = 0; fits && i < courses.length; i++)
+			fits = !courses[i].getName().equals(name);
+		if (fits && !manager.getEnrollmentTracker().claimWaitingSeat(course))
+			return SectionWaitlists.FULL;
+
+		waitlisted.remove(key);
+		if (!fits)
+			return SectionWaitlists.SKIPPED;
+		schedule(row);
+		return SectionWaitlists.PROMOTED;
+	}
+
+	/**
+	 * Removes a Course from the schedule
+	 * @param name name of the course to remove
+	 * @param section section number of the course to remove
+	 * @return true if the Course is removed from the schedule, false if it isn't scheduled
+	 */
+	public synchronized boolean removeCourseFromSchedule(String name, String section) {
+		Course[] courses = resolve();
+		int row = catalog.indexOf(name, section);
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] == row) {
+				int[] remaining = new int[rows.length - 1];
+				System.arraycopy(rows, 0, remaining, 0, i);
+				System.arraycopy(rows, i + 1, remaining, i, remaining.length - i);
+				rows = remaining.length == 0 ? EMPTY : remaining;
+				manager.getEnrollmentTracker().releaseSeat(courses[i]);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes every Course from the schedule
+	 */
+	public synchronized void resetSchedule() {
+		Course[] courses = resolve();
+		rows = EMPTY;
+		for (int i = 0; i < courses.length; i++)
+			manager.getEnrollmentTracker().releaseSeat(courses[i]);
+	}
+
+	/**
+	 * Ends the session, giving back its seats and leaving its waitlists.  The schedule is emptied
+	 * and no Course can be added to it again.
+	 */
+	synchronized void close() {
+		closed = true;
+		for (String key : waitlisted)
+			manager.getWaitlists().leave(key, this);
+		waitlisted.clear();
+		resetSchedule();
+	}
+
+	/**
+	 * Sets the schedule's title
+	 * @param title new schedule title
+	 * @throws IllegalArgumentException "Title cannot be null" if the title is null.
+	 */
+	public synchronized void setScheduleTitle(String title) {
+		if (title == null)
+			throw new IllegalArgumentException("Title cannot be null");
+		this.title = title;
+	}
+
+	/**
+	 * Returns the schedule title
+	 * @return title of the schedule
+	 */
+	public synchronized String getScheduleTitle() {
+		return title;
+	}
+
+	/**
+	 * Exports the schedule to file with the passed name
+	 * @param fileName file to export to
+	 * @throws IllegalArgumentException "The file cannot be saved." if there is an IOException when trying to save the file.
+	 */
+	public synchronized void exportSchedule(String fileName) {
+		try {
+			CourseRecordIO.writeCourseRecords(fileName, new ArrayList<Course>(Arrays.asList(resolve())));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the schedules of many users over one shared catalog.  Each user has a ScheduleSession
+ * holding only the catalog positions of its Courses and a title, so the catalog is kept once
+ * however many sessions there are, and a session takes a few dozen bytes plus four for each
+ * scheduled Course.
+ *
+ * Replacing the catalog doesn't touch the sessions.  Each session re-resolves its schedule
+ * against the new catalog the next time it is used, as WolfScheduler.replaceCatalog() does,
+ * finding its Courses with the catalog's own indexOf(), so an old catalog is freed once every
+ * session using it has been used again or evicted.
+ *
+ * Every session claims its seats from the manager's EnrollmentTracker, so sections with a
+ * limited capacity are never enrolled past it.  A user can wait for a seat in a full section
+ * on the tracker's SectionWaitlists, and is given the seat in turn once one is freed.  The
+ * waitlists belong to the tracker, so schedulers sharing it, such as those CatalogRegistry
+ * creates for the same term, give freed seats to the waiting users too and can't take a seat
+ * while anyone is waiting for it.
+ *
+ * Sessions that haven't been returned by getSession() for longer than the idle timeout are
+ * removed by evictIdleSessions(), which the service calls periodically.  An evicted or closed
+ * session gives back its seats and ends, and the user's next getSession() starts an empty
+ * schedule.  getSession() marks a session as used, and eviction checks it, while holding the
+ * user's entry in the map, so getSession() never returns a session that is being evicted.
+ *
+ * The manager and its sessions can be shared between threads.  Sessions of different users
+ * never contend with each other.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleSessionManager {
+
+	/** Sessions by user id */
+	private final ConcurrentHashMap<String, ScheduleSession> sessions = new ConcurrentHashMap<String, ScheduleSession>();
+	/** Milliseconds a session can go unused before it is evicted */
+	private final long idleTimeoutMillis;
+	/** Catalog used by new and re-resolved sessions */
+	private volatile CourseCatalog catalog;
+	/** Seats taken in each section by every session */
+	private final EnrollmentTracker enrollment;
+	/** Number of sessions evicted for being idle */
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Creates a manager with no sessions over the given catalog
+	 * @param catalog catalog every session chooses Courses from
+	 * @param idleTimeoutMillis milliseconds a session can go unused before it is evicted
+	 * @throws IllegalArgumentException "Invalid catalog." if the catalog is null
+	 * @throws IllegalArgumentException "Invalid idle timeout." if the timeout isn't positive
+	 */
+	public ScheduleSessionManager(CourseCatalog catalog, long idleTimeoutMillis) {
+		this(catalog, idleTimeoutMillis, new EnrollmentTracker());
+	}
+
+	/**
+	 * Creates a manager with no sessions over the given catalog, claiming seats from the given
+	 * tracker and keeping to its waitlists
+	 * @param catalog catalog every session chooses Courses from
+	 * @param idleTimeoutMillis milliseconds a session can go unused before it is evicted
+	 * @param enrollment tracker of the seats taken in each section
+	 * @throws IllegalArgumentException "Invalid catalog." if the catalog is null
+	 * @throws IllegalArgumentException "Invalid idle timeout." if the timeout isn't positive
+	 */
+	public ScheduleSessionManager(CourseCatalog catalog, long idleTimeoutMillis, EnrollmentTracker enrollment) {
+		if (idleTimeoutMillis <= 0)
+			throw new IllegalArgumentException("Invalid idle timeout.");
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.enrollment = enrollment;
+		replaceCatalog(catalog);
+	}
+
+	/**
+	 * Returns a user's session, starting one with an empty schedule if the user has none, and
+	 * marks it as used
+	 * @param userId id of the user
+	 * @return the user's session
+	 * @throws IllegalArgumentException "Invalid user." if the user id is null
+	 */
+	public ScheduleSession getSession(String userId) {
+		return getSession(userId, System.currentTimeMillis());
+	}
+
+	/**
+	 * Returns a user's session, starting one if the user has none, and marks it as used at the
+	 * given time
+	 * @param userId id of the user
+	 * @param now current time in milliseconds
+	 * @return the user's session
+	 * @throws IllegalArgumentException "Invalid user." if the user id is null
+	 */
+	ScheduleSession getSession(String userId, final long now) {
+		if (userId == null)
+			throw new IllegalArgumentException("Invalid user.");
+		return sessions.compute(userId, new BiFunction<String, ScheduleSession, ScheduleSession>() {
+			@Override
+			public ScheduleSession apply(String user, ScheduleSession session) {
+				ScheduleSession used = session == null ? new ScheduleSession(ScheduleSessionManager.this) : session;
+				used.lastUsed = now;
+				return used;
+			}
+		});
+	}
+
+	/**
+	 * Returns whether a user has a session
+	 * @param userId id of the user
+	 * @return true if the user has a session
+	 */
+	public boolean hasSession(String userId) {
+		return userId != null && sessions.containsKey(userId);
+	}
+
+	/**
+	 * Ends a user's session, giving back its seats
+	 * @param userId id of the user
+	 * @return true if the user had a session
+	 */
+	public boolean closeSession(String userId) {
+		ScheduleSession session = userId == null ? null : sessions.remove(userId);
+		if (session == null)
+			return false;
+		session.close();
+		return true;
+	}
+
+	/**
+	 * Returns the number of sessions
+	 * @return the number of sessions
+	 */
+	public int getSessionCount() {
+		return sessions.size();
+	}
+
+	/**
+	 * Removes the sessions that haven't been used for longer than the idle timeout
+	 * @return the number of sessions removed
+	 */
+	public int evictIdleSessions() {
+		return evictIdleSessions(System.currentTimeMillis());
+	}
+
+	/**
+	 * Removes the sessions that haven't been used for longer than the idle timeout as of the
+	 * given time
+	 * @param now current time in milliseconds
+	 * @return the number of sessions removed
+	 */
+	int evictIdleSessions(long now) {
+		int evicted = 0;
+		IdleSessionRemover remover = new IdleSessionRemover(now - idleTimeoutMillis);
+		for (String userId : sessions.keySet()) {
+			remover.removed = null;
+			sessions.computeIfPresent(userId, remover);
+			//Close the session after the map's lock is released, since closing promotes waitlists
+			if (remover.removed != null) {
+				remover.removed.close();
+				evicted++;
+			}
+		}
+		evictionCount.addAndGet(evicted);
+		return evicted;
+	}
+
+	/**
+	 * Returns the number of sessions evicted for being idle
+	 * @return the number of evicted sessions
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 * Returns the tracker of the seats taken in each section
+	 * @return the enrollment tracker
+	 */
+	public EnrollmentTracker getEnrollmentTracker() {
+		return enrollment;
+	}
+
+	/**
+	 * Returns the waitlist of each section, kept by the enrollment tracker
+	 * @return the waitlists
+	 */
+	public SectionWaitlists getWaitlists() {
+		return enrollment.getWaitlists();
+	}
+
+	/**
+	 * Returns the catalog the sessions choose Courses from
+	 * @return the current catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return catalog;
+	}
+
+	/**
+	 * Replaces the catalog of every session.  Each session re-resolves its schedule against the
+	 * new catalog the next time it is used, dropping Courses whose section is gone or that now
+	 * conflict with a Course earlier in its schedule.  Every section with a waitlist is marked,
+	 * so seats the new catalog adds go to the sessions waiting for them.
+	 * @param catalog catalog to use from now on
+	 * @throws IllegalArgumentException "Invalid catalog." if the catalog is null
+	 */
+	public void replaceCatalog(CourseCatalog catalog) {
+		if (catalog == null)
+			throw new IllegalArgumentException("Invalid catalog.");
+		this.catalog = catalog;
+		enrollment.getWaitlists().markWaiting();
+	}
+
+	/**
+	 * Reads a new catalog from a file and replaces the current one with it
+	 * @param file filename for the course records or catalog snapshot of the new catalog
+	 * @throws IllegalArgumentException "Cannot find file." if the file to read from is not found
+	 * @throws IllegalArgumentException "Cannot read file." if the file is a snapshot that cannot be read
+	 */
+	public void reloadCatalog(String file) {
+		replaceCatalog(WolfScheduler.readCatalog(file));
+	}
+
+	/**
+	 * Removes the sessions it is given if they were last used before a cutoff, remembering the
+	 * one it removed.  It runs while the map holds the user's entry, so a session can't be
+	 * returned by getSession() between being checked and removed.
+	 */
+	private static class IdleSessionRemover implements BiFunction<String, ScheduleSession, ScheduleSession> {
+		/** Sessions last used before this time are removed */
+		private final long cutoff;
+		/** Session removed by the last call, or null */
+		private ScheduleSession removed;
+
+		/**
+		 * Creates a remover of the sessions last used before a cutoff
+		 * @param cutoff time in milliseconds sessions must have been used since
+		 */
+		IdleSessionRemover(long cutoff) {
+			this.cutoff = cutoff;
+		}
+
+		/**
+		 * Removes a session if it was last used before the cutoff
+		 * @param userId id of the session's user
+		 * @param session the session
+		 * @return the session, or null to remove it
+		 */
+		@Override
+		public ScheduleSession apply(String userId, ScheduleSession session) {
+			if (session.lastUsed >= cutoff)
+				return session;
+			removed = session;
+			return null;
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The waitlists of every section an EnrollmentTracker counts, shared by every scheduler and
+ * ScheduleSessionManager claiming seats from it.  Each section has a first-in, first-out queue
+ * of the sessions waiting for a seat in it.
+ *
+ * Freeing a seat only marks its section as having a seat to give out and, if no promotion is
+ * already scheduled, schedules one on the executor, so a drop never waits on the waitlists.
+ * One promotion runs at a time and gives out the seats of every marked section, so many drops
+ * in a row are handled together.  Each waiting session is checked in the order it joined, and
+ * the promotion stops at the first one that can't get a seat, so nobody is promoted ahead of
+ * someone who joined before them.  A waiting session whose Course now conflicts with its
+ * schedule, or that was closed, is taken off the waitlist and passed over.  If the executor
+ * rejects a promotion, it is run on the common fork-join pool instead, so marked sections are
+ * never left waiting for a promotion that wasn't scheduled.
+ *
+ * @author Ben Morris
+ */
+public class SectionWaitlists {
+
+	/** Result of a promotion that added the Course to the schedule */
+	static final int PROMOTED = 0;
+	/** Result of a promotion that found the section full */
+	static final int FULL = 1;
+	/** Result of a promotion that took the session off the waitlist without adding the Course */
+	static final int SKIPPED = 2;
+
+	/** Waitlist of each section, by name and section */
+	private final ConcurrentHashMap<String, Waitlist> waitlists = new ConcurrentHashMap<String, Waitlist>();
+	/** Sections that may have a seat to give out, in the order they were marked */
+	private final ConcurrentLinkedQueue<Waitlist> pending = new ConcurrentLinkedQueue<Waitlist>();
+	/** Whether a promotion is scheduled or running */
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	/** Executor promotions run on */
+	private final Executor executor;
+	/** Number of waiting sessions given a seat */
+	private final AtomicLong promotionCount = new AtomicLong();
+	/** Number of promotions run */
+	private final AtomicLong batchCount = new AtomicLong();
+
+	/** Runs a promotion and schedules another if sections were marked as it finished */
+	private final Runnable promotion = new Runnable() {
+		@Override
+		public void run() {
+			do {
+				batchCount.incrementAndGet();
+				Waitlist waitlist;
+				while ((waitlist = pending.poll()) != null) {
+					//Clear the mark first so a seat freed while promoting marks the section again
+					waitlist.marked.set(false);
+					promote(waitlist);
+				}
+				scheduled.set(false);
+			} while (!pending.isEmpty() && scheduled.compareAndSet(false, true));
+		}
+	};
+
+	/**
+	 * Creates empty waitlists that promote on the given executor
+	 * @param executor executor to run promotions on
+	 */
+	SectionWaitlists(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Adds a session to the end of a section's waitlist and marks the section, so the session is
+	 * promoted right away if the section has an open seat and nobody is ahead of it
+	 * @param name name of the section
+	 * @param section section number
+	 * @param session session to add
+	 */
+	void join(String name, String section, ScheduleSession session) {
+		Waitlist waitlist = waitlist(name, section);
+		waitlist.waiting.add(session);
+		mark(waitlist);
+	}
+
+	/**
+	 * Takes a session off a section's waitlist
+	 * @param key name and section of the section, as built by CatalogDelta.key()
+	 * @param session session to take off
+	 */
+	void leave(String key, ScheduleSession session) {
+		Waitlist waitlist = waitlists.get(key);
+		if (waitlist != null)
+			waitlist.waiting.remove(session);
+	}
+
+	/**
+	 * Marks a section as having a freed seat if anyone is waiting for it
+	 * @param key name and section of the section, as built by CatalogDelta.key()
+	 */
+	void seatReleased(String key) {
+		Waitlist waitlist = waitlists.get(key);
+		if (waitlist != null && !waitlist.waiting.isEmpty())
+			mark(waitlist);
+	}
+
+	/**
+	 * Marks every section anyone is waiting for, so their seats are given out again after
+	 * something other than a drop, such as a new catalog, may have opened seats
+	 */
+	void markWaiting() {
+		for (Waitlist waitlist : waitlists.values()) {
+			if (!waitlist.waiting.isEmpty())
+				mark(waitlist);
+		}
+	}
+
+	/**
+	 * Returns whether anyone is waiting for a seat in a section
+	 * @param name name of the section
+	 * @param section section number
+	 * @return true if the section's waitlist isn't empty
+	 */
+	public boolean hasWaiting(String name, String section) {
+		return hasWaiting(CatalogDelta.key(name, section));
+	}
+
+	/**
+	 * Returns whether anyone is waiting for a seat in a section
+	 * @param key name and section of the section, as built by CatalogDelta.key()
+	 * @return true if the section's waitlist isn't empty
+	 */
+	boolean hasWaiting(String key) {
+		Waitlist waitlist = waitlists.get(key);
+		return waitlist != null && !waitlist.waiting.isEmpty();
+	}
+
+	/**
+	 * Returns the number of sessions waiting for a seat in a section
+	 * @param name name of the section
+	 * @param section section number
+	 * @return the length of the section's waitlist
+	 */
+	public int getWaitlistLength(String name, String section) {
+		Waitlist waitlist = waitlists.get(CatalogDelta.key(name, section));
+		return waitlist == null ? 0 : waitlist.waiting.size();
+	}
+
+	/**
+	 * Returns the number of waiting sessions given a seat
+	 * @return the number of promotions
+	 */
+	public long getPromotionCount() {
+		return promotionCount.get();
+	}
+
+	/**
+	 * Returns the number of times promotion ran on the executor, each handling every section
+	 * marked before it finished
+	 * @return the number of promotion batches
+	 */
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+
+	/**
+	 * Returns the waitlist of a section, adding it if the section has none
+	 * @param name name of the section
+	 * @param section section number
+	 * @return the waitlist
+	 */
+	private Waitlist waitlist(String name, String section) {
+		String key = CatalogDelta.key(name, section);
+		Waitlist waitlist = waitlists.get(key);
+		if (waitlist == null) {
+			Waitlist created = new Waitlist(name, section);
+			waitlist = waitlists.putIfAbsent(key, created);
+			if (waitlist == null)
+				waitlist = created;
+		}
+		return waitlist;
+	}
+
+	/**
+	 * Marks a section to be promoted and schedules a promotion if none is scheduled.  A
+	 * promotion the executor rejects is scheduled on the common fork-join pool.
+	 * @param waitlist waitlist of the section
+	 */
+	private void mark(Waitlist waitlist) {
+		if (waitlist.marked.compareAndSet(false, true))
+			pending.add(waitlist);
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(promotion);
+			} catch (RejectedExecutionException e) {
+				//Not run here, since the caller may be in the middle of changing a session
+				ForkJoinPool.commonPool().execute(promotion);
+			}
+		}
+	}
+
+	/**
+	 * Gives the open seats of a section to its waiting sessions in the order they joined
+	 * @param waitlist waitlist of the section
+	 */
+	private void promote(Waitlist waitlist) {
+		ScheduleSession session;
+		while ((session = waitlist.waiting.peek()) != null) {
+			int result = session.promote(waitlist.name, waitlist.section);
+			if (result == FULL)
+				return;
+			//Only the running promotion takes sessions off the front, but others can leave
+			waitlist.waiting.remove(session);
+			if (result == PROMOTED)
+				promotionCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * The sessions waiting for a seat in one section
+	 */
+	private static class Waitlist {
+		/** Name of the section */
+		private final String name;
+		/** Section number */
+		private final String section;
+		/** Waiting sessions, in the order they joined */
+		private final ConcurrentLinkedQueue<ScheduleSession> waiting = new ConcurrentLinkedQueue<ScheduleSession>();
+		/** Whether the section is waiting to be promoted */
+		private final AtomicBoolean marked = new AtomicBoolean();
+
+		/**
+		 * Creates an empty waitlist
+		 * @param name name of the section
+		 * @param section section number
+		 */
+		Waitlist(String name, String section) {
+			this.name = name;
+			this.section = section;
+		}
+	}
+}
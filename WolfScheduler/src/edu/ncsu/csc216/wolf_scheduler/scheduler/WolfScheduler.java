@@ -3,43 +3,115 @@ package edu.ncsu.csc216.wolf_scheduler.scheduler;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseSnapshotIO;
 
 /**
- * Allows a user to build and edit a schedule of Courses
+ * Allows a user to build and edit a schedule of Courses.  The catalog the Courses are chosen
+ * from can be queried through the CourseCatalog interface, and can be any CourseCatalog, such
+ * as an OffHeapCatalog for catalogs too large to keep as Course objects.
+ * 
+ * The catalog can be reloaded in place without losing the schedule.  Catalogs are immutable,
+ * and a reload reads the new one first and then swaps it in with a single volatile write, so
+ * catalog queries never block and always see one whole catalog.  The methods that read or change
+ * the schedule synchronize on the scheduler, so a reload on another thread re-resolves the
+ * schedule between them.
+ * 
+ * Each scheduled Course holds a seat claimed from an EnrollmentTracker, so a section with a
+ * limited capacity can fill up.  Schedulers sharing a tracker share the seats of each section,
+ * and the tracker's waitlists: a dropped seat goes to the users waiting for it, and a section
+ * can't be added while anyone is waiting for it.
  * 
  * @author Ben Morris
  */
-public class WolfScheduler {
-	/** Width of the limited Catalog and Schedule arrays */
+public class WolfScheduler implements CourseCatalog {
+	/** Width of the limited Schedule array */
 	private static final int CATALOG_ARRAY_WIDTH = 3;
 	/** Width of the full array containing all of the fields */
 	private static final int FULL_ARRAY_WIDTH = 6;
 	
-	/** Catalog of Courses */
-	ArrayList<Course> catalog;
+	/** Catalog of Courses, replaced as a whole when it is reloaded */
+	volatile CourseCatalog catalog;
 	/** Schedule of courses */
 	ArrayList<Course> schedule;
+	/** Index of the schedule by name and by meeting time, for checking new Courses */
+	ScheduleConflictIndex scheduleIndex;
 	/** Schedule title */
 	String title;
+	/** Seats taken in each section */
+	private final EnrollmentTracker enrollment;
+	/** Number of times the schedule has changed */
+	int scheduleModCount;
+	
+	/** Last array returned by getScheduledCourses() */
+	private String[][] scheduleSnapshot;
+	/** Value of scheduleModCount when scheduleSnapshot was built */
+	private int scheduleSnapshotModCount = -1;
+	/** Last array returned by getFullScheduledCourses() */
+	private String[][] fullScheduleSnapshot;
+	/** Value of scheduleModCount when fullScheduleSnapshot was built */
+	private int fullScheduleSnapshotModCount = -1;
 	
 	/**
-	 * Constructor
-	 * @param file filename for the course records that should be read in and stored
+	 * Constructor.  Like WolfScheduler(CourseCatalog), the scheduler counts seats only for itself.
+	 * @param file filename for the course records or catalog snapshot that should be read in and stored
 	 * @throws IllegalArgumentException "Cannot find file." if the file to read from is not found
+	 * @throws IllegalArgumentException "Cannot read file." if the file is a snapshot that cannot be read
 	 */
 	public WolfScheduler(String file) {
-		catalog = new ArrayList<Course>(); //Create an empty ArrayList of Course objects for the catalog
+		this(readCatalog(file));
+	}
+	
+	/**
+	 * Creates a scheduler with an empty schedule over the given catalog with its own enrollment
+	 * tracker.  Seats are only counted for this one scheduler, so schedulers of users who share
+	 * sections must be given a shared tracker instead.
+	 * @param catalog catalog to choose Courses from
+	 */
+	public WolfScheduler(CourseCatalog catalog) {
+		this(catalog, new EnrollmentTracker());
+	}
+	
+	/**
+	 * Creates a scheduler with an empty schedule over the given catalog, claiming seats from the
+	 * given tracker
+	 * @param catalog catalog to choose Courses from
+	 * @param enrollment tracker of the seats taken in each section
+	 */
+	public WolfScheduler(CourseCatalog catalog, EnrollmentTracker enrollment) {
+		this.catalog = catalog;
+		this.enrollment = enrollment;
 		schedule = new ArrayList<Course>(); //Create an empty ArrayList of Course objects for the schedule
+		scheduleIndex = new ScheduleConflictIndex();
 		title = "My Schedule";
-		
-		//Read Courses into catalog. Throw IAE if the file isn't found.
+	}
+	
+	/**
+	 * Reads a catalog from a snapshot or course records
+	 * @param file filename for the course records or catalog snapshot
+	 * @return the catalog
+	 * @throws IllegalArgumentException "Cannot find file." if the file to read from is not found
+	 * @throws IllegalArgumentException "Cannot read file." if the file is a snapshot that cannot be read
+	 */
+	static CourseCatalog readCatalog(String file) {
+		//Read Courses into catalog from a snapshot or course records. Throw IAE if the file isn't found.
 		try {
-			catalog = CourseRecordIO.readCourseRecords(file);	
+			if (CourseSnapshotIO.isCourseSnapshot(file))
+				return new ListCatalog(CourseSnapshotIO.readCourseSnapshot(file));
+			else
+				return new ListCatalog(CourseRecordIO.readCourseRecords(file));	
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Cannot find file.");
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot read file.");
 		}
 	}
 	
@@ -47,33 +119,41 @@ public class WolfScheduler {
 	 * Returns a 2D String array of the catalog. There is a row for each 
 	 * Course and three columns for name, section, and title. If there are no Courses in 
 	 * the catalog, an empty 2D String array is returned.
+	 * Every CourseCatalog caches its array, so the same array is returned until the catalog is
+	 * reloaded, and it must not be modified.
 	 * @return 2D String array of the catalog
 	 */
+	@Override
 	public String[][] getCourseCatalog() {
-		String[][] catalogArray = new String[catalog.size()][CATALOG_ARRAY_WIDTH];
-		
-		if (catalog.size() != 0)	
-			for(int i = 0; i < catalog.size(); i++) {
-				//Get Course[i]
-				Course current = catalog.get(i);
-				//Add name, section, and title to catalogArray[i]
-				catalogArray[i][0] = current.getName();
-				catalogArray[i][1] = current.getSection();
-				catalogArray[i][2] = current.getTitle();
-			}
-		return catalogArray;
+		return catalog.getCourseCatalog();
+	}
+
+	/**
+	 * Returns the position of the Course with the given name and section in the catalog
+	 * @param name Course's name
+	 * @param section Course's section
+	 * @return the position, or -1 if the Course isn't in the catalog
+	 */
+	@Override
+	public int indexOf(String name, String section) {
+		return catalog.indexOf(name, section);
 	}
 
 	/**
 	 * Returns a 2D String array of the schedule. There is a row for each 
 	 * Course and three columns for name, section, and title. If there are no Courses in 
 	 * the catalog, an empty 2D String array is returned.
+	 * The array is cached until the schedule changes, so the same array is returned by every call
+	 * in between and must not be modified.
 	 * @return 2D String array of the catalog
 	 */
-	public String[][] getScheduledCourses() {
+	public synchronized String[][] getScheduledCourses() {
+		if (scheduleSnapshotModCount == scheduleModCount)
+			return scheduleSnapshot;
+		
 		String[][] scheduleArray = new String[schedule.size()][CATALOG_ARRAY_WIDTH];
 		
-		if (catalog.size() != 0)	
+		if (!schedule.isEmpty())
 			for(int i = 0; i < schedule.size(); i++) {
 				//Get Course[i]
 				Course current = schedule.get(i);
@@ -82,6 +162,8 @@ public class WolfScheduler {
 				scheduleArray[i][1] = current.getSection();
 				scheduleArray[i][2] = current.getTitle();
 			}
+		scheduleSnapshot = scheduleArray;
+		scheduleSnapshotModCount = scheduleModCount;
 		return scheduleArray;
 	}
 
@@ -91,12 +173,17 @@ public class WolfScheduler {
 	 * a row for each Course and six columns for name, section, title, credits, instructorId, and 
 	 * the meeting days string (e.g., getMeetingString(). If there are no Courses in the schedule, 
 	 * an empty 2D String array is returned.
+	 * The array is cached until the schedule changes, so the same array is returned by every call
+	 * in between and must not be modified.
 	 * @return 2D String array of the schedule with all information.
 	 */
-	public String[][] getFullScheduledCourses() {
+	public synchronized String[][] getFullScheduledCourses() {
+		if (fullScheduleSnapshotModCount == scheduleModCount)
+			return fullScheduleSnapshot;
+		
 		String[][] scheduleArray = new String[schedule.size()][FULL_ARRAY_WIDTH];
 		
-		if (catalog.size() != 0)	
+		if (!schedule.isEmpty())
 			for(int i = 0; i < schedule.size(); i++) {
 				//Get Course[i]
 				Course current = schedule.get(i);
@@ -109,6 +196,8 @@ public class WolfScheduler {
 				scheduleArray[i][5] = current.getMeetingString();
 			}
 		
+		fullScheduleSnapshot = scheduleArray;
+		fullScheduleSnapshotModCount = scheduleModCount;
 		return scheduleArray;
 	}
 
@@ -118,19 +207,90 @@ public class WolfScheduler {
 	 * @param section Course's section
 	 * @return Course with the given name and section
 	 */
+	@Override
 	public Course getCourseFromCatalog(String name, String section) {
-		
-		//If the catalog isn't empty, search for a Course that matches name and section
-		if (catalog.size() != 0)
-			for(int i = 0; i < catalog.size(); i++) {
-				//Get Course Catalog[i]
-				Course current = catalog.get(i);
-				//Check for matching name and section
-				if (current.getName().equals(name) && current.getSection().equals(section))
-					return current;
-			}
 		//Return null if no matching Course was found
-		return null;
+		return catalog.getCourseFromCatalog(name, section);
+	}
+	
+	/**
+	 * Returns the number of Courses in the catalog
+	 * @return the number of Courses
+	 */
+	@Override
+	public int size() {
+		return catalog.size();
+	}
+	
+	/**
+	 * Returns the Course at the given position in the catalog
+	 * @param index position of the Course
+	 * @return the Course
+	 * @throws IndexOutOfBoundsException if there is no Course at the index
+	 */
+	@Override
+	public Course getCourse(int index) {
+		return catalog.getCourse(index);
+	}
+	
+	/**
+	 * Returns every section of the Course with the given name, in catalog order
+	 * @param name Course's name
+	 * @return the sections, or an empty list if the name isn't in the catalog
+	 */
+	@Override
+	public ArrayList<Course> getSections(String name) {
+		return catalog.getSections(name);
+	}
+	
+	/**
+	 * Generates schedules with one section of each of the given Courses where no two sections
+	 * meet at the same time. Sections are taken from the catalog in catalog order, and a name
+	 * given more than once is only used once. The current schedule is not changed.
+	 * @param names names of the Courses to schedule
+	 * @param maxResults most schedules to return
+	 * @param timeLimitMillis milliseconds to search before returning the schedules found so far,
+	 * 		  or 0 or less to search without a time limit
+	 * @return the schedules, each listing one section per name in the order given, or an empty
+	 * 		   list if a name is not in the catalog
+	 * @throws IllegalArgumentException "Invalid result limit." if maxResults is less than 1
+	 */
+	public ArrayList<ArrayList<Course>> generateSchedules(ArrayList<String> names, int maxResults, long timeLimitMillis) {
+		return createScheduleGenerator(names).generate(maxResults, timeLimitMillis);
+	}
+	
+	/**
+	 * Finds the highest scoring schedules with one section of each of the given Courses where
+	 * no two sections meet at the same time. Schedules that can't score high enough are pruned
+	 * without being generated. The current schedule is not changed.
+	 * @param names names of the Courses to schedule
+	 * @param count number of schedules to return
+	 * @param scorer scorer ranking the schedules, such as one from ScheduleScorers
+	 * @param timeLimitMillis milliseconds to search before returning the best schedules found so far,
+	 * 		  or 0 or less to search without a time limit
+	 * @return up to count schedules, best first, each listing one section per name in the order given
+	 * @throws IllegalArgumentException "Invalid result limit." if count is less than 1
+	 */
+	public ArrayList<ArrayList<Course>> generateBestSchedules(ArrayList<String> names, int count, ScheduleScorer scorer, 
+			long timeLimitMillis) {
+		return createScheduleGenerator(names).generateBest(count, scorer, timeLimitMillis);
+	}
+	
+	/**
+	 * Creates a ScheduleGenerator over the catalog sections of the given Courses
+	 * @param names names of the Courses to schedule
+	 * @return the generator
+	 */
+	private ScheduleGenerator createScheduleGenerator(ArrayList<String> names) {
+		//Take every section from the same catalog even if it is reloaded meanwhile
+		CourseCatalog current = catalog;
+		ArrayList<ArrayList<Course>> sectionsByCourse = new ArrayList<ArrayList<Course>>();
+		HashSet<String> used = new HashSet<String>();
+		for(int i = 0; i < names.size(); i++) {
+			if (used.add(names.get(i)))
+				sectionsByCourse.add(current.getSections(names.get(i)));
+		}
+		return new ScheduleGenerator(sectionsByCourse);
 	}
 	
 	/**
@@ -143,21 +303,30 @@ public class WolfScheduler {
 	 * @return true if the Course exists and was added to the student's schedule
 	 * @throws IllegalArgumentException "You are already enrolled in [course]" if the student is already enrolled
 	 * 		   in a course with the same name.
+	 * @throws IllegalArgumentException "The course cannot be added due to a conflict with [course]-[section]" 
+	 * 		   if the course meets at the same time as a scheduled course.
+	 * @throws IllegalArgumentException "The course [course]-[section] is full." if every seat in the
+	 * 		   section is taken or other users are waiting for one.
 	 */
-	public boolean addCourseToSchedule(String name, String section) {
+	public synchronized boolean addCourseToSchedule(String name, String section) {
 		Course addedCourse = getCourseFromCatalog(name, section);
 		
 		//If the course isn't null
 		if (addedCourse != null) {		
-			//Search all Courses in schedule
-			for(int i = 0; i < schedule.size(); i++) {
-				Course current = schedule.get(i);
-				//If the Course is already scheduled, throw IAE
-				if (current.getName().equals(name)) {
-					throw new IllegalArgumentException("You are already enrolled in " + name);
-				}
-			}
+			//If a Course with the same name is already scheduled, throw IAE
+			if (scheduleIndex.getCourse(name) != null)
+				throw new IllegalArgumentException("You are already enrolled in " + name);
+			//If the Course meets at the same time as a scheduled Course, throw IAE
+			Course conflict = scheduleIndex.findConflict(addedCourse);
+			if (conflict != null)
+				throw new IllegalArgumentException("The course cannot be added due to a conflict with " 
+						+ conflict.getName() + "-" + conflict.getSection());
+			//If no seat is left for this student, throw IAE
+			if (!enrollment.claimSeat(addedCourse))
+				throw new IllegalArgumentException("The course " + name + "-" + section + " is full.");
 			//Otherwise, add the course
+			scheduleIndex.add(addedCourse);
+			scheduleModCount++;
 			return schedule.add(addedCourse);
 		} 
 		// The course is null and can't be added.
@@ -173,27 +342,234 @@ public class WolfScheduler {
 	 * @param section section number of the course to remove
 	 * @return true if the Course is removed from the schedule, false otherwise
 	 */
-	public boolean removeCourseFromSchedule(String name, String section) {
-		//Get the student's schedule
-		String[][] scheduleArray = getScheduledCourses();
-		//Get the course to remove from the catalog
-		Course courseToRemove = getCourseFromCatalog(name, section);
+	public synchronized boolean removeCourseFromSchedule(String name, String section) {
+		//Get the scheduled Course with the name. Catalogs may build a new Course for each lookup,
+		//so the instance in the schedule is the one to remove.
+		Course courseToRemove = scheduleIndex.getCourse(name);
 		
-		//If the schedule isn't empty
-		if (scheduleArray.length != 0) {		
-			for(int i = 0; i < scheduleArray.length; i++)
-				if (scheduleArray[i][0].equals(name) && scheduleArray[i][1].equals(section))
-					return schedule.remove(courseToRemove);
-		}
-			
-		return false;
+		if (courseToRemove == null || !courseToRemove.getSection().equals(section))
+			return false;
+		
+		schedule.remove(courseToRemove);
+		scheduleIndex.remove(courseToRemove);
+		enrollment.releaseSeat(courseToRemove);
+		scheduleModCount++;
+		return true;
 	}
 
+	/**
+	 * Drops and adds several Courses at once.  Every change is checked against the schedule as
+	 * it will be after the drops and the other adds before any of them is made, and the seats of
+	 * the added Courses are claimed together, so if any change fails the schedule is left as it
+	 * was.  A section that is both dropped and added keeps the seat it holds, so it is never
+	 * found full.  The schedule is changed under one lock, and its arrays are rebuilt once.
+	 * @param change Courses to drop and add
+	 * @throws IllegalArgumentException "The course [course]-[section] is not in your schedule." if a
+	 * 		   dropped Course isn't scheduled, or is dropped twice
+	 * @throws IllegalArgumentException "The course [course]-[section] is not in the catalog." if an
+	 * 		   added Course isn't in the catalog
+	 * @throws IllegalArgumentException "You are already enrolled in [course]" if an added Course has
+	 * 		   the same name as a scheduled Course that isn't dropped, or as another added Course
+	 * @throws IllegalArgumentException "The course cannot be added due to a conflict with [course]-[section]" 
+	 * 		   if an added Course meets at the same time as a scheduled or another added Course
+	 * @throws IllegalArgumentException "The course [course]-[section] is full." if every seat in an
+	 * 		   added section is taken or other users are waiting for one
+	 */
+	public synchronized void applyScheduleChange(ScheduleChange change) {
+		//Find the Courses to drop
+		HashSet<Course> dropped = new HashSet<Course>();
+		for(int i = 0; i < change.getDropCount(); i++) {
+			String name = change.getDropName(i);
+			String section = change.getDropSection(i);
+			Course course = scheduleIndex.getCourse(name);
+			if (course == null || !course.getSection().equals(section) || !dropped.add(course))
+				throw new IllegalArgumentException("The course " + name + "-" + section + " is not in your schedule.");
+		}
+		
+		//Check the adds against the Courses that stay and each other
+		ArrayList<Course> changed = new ArrayList<Course>(schedule.size() + change.getAddCount());
+		ScheduleConflictIndex changedIndex = new ScheduleConflictIndex();
+		for(int i = 0; i < schedule.size(); i++) {
+			if (!dropped.contains(schedule.get(i))) {
+				changed.add(schedule.get(i));
+				changedIndex.add(schedule.get(i));
+			}
+		}
+		int kept = changed.size();
+		for(int i = 0; i < change.getAddCount(); i++) {
+			String name = change.getAddName(i);
+			String section = change.getAddSection(i);
+			Course course = getCourseFromCatalog(name, section);
+			if (course == null)
+				throw new IllegalArgumentException("The course " + name + "-" + section + " is not in the catalog.");
+			if (changedIndex.getCourse(name) != null)
+				throw new IllegalArgumentException("You are already enrolled in " + name);
+			Course conflict = changedIndex.findConflict(course);
+			if (conflict != null)
+				throw new IllegalArgumentException("The course cannot be added due to a conflict with " 
+						+ conflict.getName() + "-" + conflict.getSection());
+			changed.add(course);
+			changedIndex.add(course);
+		}
+		
+		//A section dropped and added again keeps its seat, so it is neither claimed nor released
+		HashSet<String> droppedSections = new HashSet<String>();
+		for (Course course : dropped)
+			droppedSections.add(CatalogDelta.key(course.getName(), course.getSection()));
+		HashSet<String> keptSeats = new HashSet<String>();
+		for(int i = kept; i < changed.size(); i++) {
+			String key = CatalogDelta.key(changed.get(i).getName(), changed.get(i).getSection());
+			if (droppedSections.contains(key))
+				keptSeats.add(key);
+		}
+		
+		//Claim every seat, giving them back if any section is full
+		for(int i = kept; i < changed.size(); i++) {
+			Course course = changed.get(i);
+			if (keptSeats.contains(CatalogDelta.key(course.getName(), course.getSection())))
+				continue;
+			if (!enrollment.claimSeat(course)) {
+				for(int j = kept; j < i; j++) {
+					if (!keptSeats.contains(CatalogDelta.key(changed.get(j).getName(), changed.get(j).getSection())))
+						enrollment.releaseSeat(changed.get(j));
+				}
+				throw new IllegalArgumentException("The course " + course.getName() + "-" 
+						+ course.getSection() + " is full.");
+			}
+		}
+		for (Course course : dropped) {
+			if (!keptSeats.contains(CatalogDelta.key(course.getName(), course.getSection())))
+				enrollment.releaseSeat(course);
+		}
+		
+		schedule = changed;
+		scheduleIndex = changedIndex;
+		scheduleModCount++;
+	}
+	
 	/**
 	 * creates a empty ArrayList for the schedule
 	 */
-	public void resetSchedule() {
+	public synchronized void resetSchedule() {
+		for(int i = 0; i < schedule.size(); i++)
+			enrollment.releaseSeat(schedule.get(i));
 		schedule.clear();
+		scheduleIndex.clear();
+		scheduleModCount++;
+	}
+	
+	/**
+	 * Reads a new catalog from a file and replaces the current one with it, keeping the schedule
+	 * and title.  The file is read before anything is changed, so catalog queries on other
+	 * threads keep using the old catalog until the new one is swapped in.
+	 * @param file filename for the course records or catalog snapshot of the new catalog
+	 * @return the scheduled Courses that were dropped, as described by replaceCatalog()
+	 * @throws IllegalArgumentException "Cannot find file." if the file to read from is not found
+	 * @throws IllegalArgumentException "Cannot read file." if the file is a snapshot that cannot be read
+	 */
+	public ArrayList<Course> reloadCatalog(String file) {
+		return replaceCatalog(readCatalog(file));
+	}
+	
+	/**
+	 * Reloads the catalog from a file on the given executor, as reloadCatalog() does
+	 * @param file filename for the course records or catalog snapshot of the new catalog
+	 * @param executor executor to read the file and replace the catalog on
+	 * @return the result of reloadCatalog(), which throws ExecutionException wrapping its 
+	 * 		   IllegalArgumentException if the file can't be read
+	 */
+	public Future<ArrayList<Course>> reloadCatalogInBackground(final String file, Executor executor) {
+		FutureTask<ArrayList<Course>> reload = new FutureTask<ArrayList<Course>>(new Callable<ArrayList<Course>>() {
+			@Override
+			public ArrayList<Course> call() {
+				return reloadCatalog(file);
+			}
+		});
+		executor.execute(reload);
+		return reload;
+	}
+	
+	/**
+	 * Applies add, update, and remove changes to the catalog in time proportional to the number
+	 * of changes, then re-resolves the schedule against the changed catalog as replaceCatalog()
+	 * does.  If any change is invalid, nothing is changed.
+	 * @param delta changes to apply
+	 * @return the scheduled Courses that were dropped, as they were before the changes
+	 * @throws IllegalArgumentException "The course [name]-[section] is already in the catalog." if
+	 * 		   a Course is added that is already in the catalog
+	 * @throws IllegalArgumentException "The course [name]-[section] is not in the catalog." if a
+	 * 		   Course is updated or removed that isn't in the catalog
+	 */
+	public synchronized ArrayList<Course> applyCatalogDelta(CatalogDelta delta) {
+		return replaceCatalog(LayeredCatalog.apply(catalog, delta));
+	}
+	
+	/**
+	 * Reads a full catalog file and returns the changes from the current catalog to it, which
+	 * can be passed to applyCatalogDelta()
+	 * @param file filename for the course records or catalog snapshot of the new catalog
+	 * @return the changes to the catalog
+	 * @throws IllegalArgumentException "Cannot find file." if the file to read from is not found
+	 * @throws IllegalArgumentException "Cannot read file." if the file is a snapshot that cannot be read
+	 */
+	public CatalogDelta diffCatalog(String file) {
+		return CatalogDelta.diff(catalog, readCatalog(file));
+	}
+	
+	/**
+	 * Replaces the catalog and re-resolves the schedule against it.  Each scheduled Course is
+	 * replaced by the new catalog's Course with the same name and section, whose other fields 
+	 * may have changed.  A Course is dropped from the schedule if its section is no longer in the
+	 * catalog, or if it now conflicts with a Course earlier in the schedule.  Courses that stay
+	 * keep their seats even if their section's capacity shrank, and dropped Courses give theirs back.
+	 * @param newCatalog catalog to use from now on
+	 * @return the scheduled Courses that were dropped, as they were before the reload
+	 */
+	public synchronized ArrayList<Course> replaceCatalog(CourseCatalog newCatalog) {
+		ArrayList<Course> resolved = new ArrayList<Course>(schedule.size());
+		ArrayList<Course> dropped = new ArrayList<Course>();
+		ScheduleConflictIndex resolvedIndex = resolveSchedule(schedule, newCatalog, resolved, dropped);
+		for(int i = 0; i < dropped.size(); i++)
+			enrollment.releaseSeat(dropped.get(i));
+		
+		catalog = newCatalog;
+		schedule = resolved;
+		scheduleIndex = resolvedIndex;
+		scheduleModCount++;
+		return dropped;
+	}
+	
+	/**
+	 * Re-resolves a schedule against a new catalog as replaceCatalog() describes, without
+	 * changing the schedule or giving back any seats
+	 * @param schedule scheduled Courses, in the order they were added
+	 * @param newCatalog catalog to resolve the Courses against
+	 * @param resolved list to add the new catalog's Course for each Course that stays to
+	 * @param dropped list to add each Course that is dropped to, as it was before
+	 * @return an index of the resolved Courses
+	 */
+	static ScheduleConflictIndex resolveSchedule(List<Course> schedule, CourseCatalog newCatalog,
+			ArrayList<Course> resolved, ArrayList<Course> dropped) {
+		ScheduleConflictIndex resolvedIndex = new ScheduleConflictIndex();
+		for(int i = 0; i < schedule.size(); i++) {
+			Course old = schedule.get(i);
+			Course current = newCatalog.getCourseFromCatalog(old.getName(), old.getSection());
+			if (current == null || resolvedIndex.findConflict(current) != null) {
+				dropped.add(old);
+			} else {
+				resolved.add(current);
+				resolvedIndex.add(current);
+			}
+		}
+		return resolvedIndex;
+	}
+	
+	/**
+	 * Returns the tracker of the seats taken in each section
+	 * @return the enrollment tracker
+	 */
+	public EnrollmentTracker getEnrollmentTracker() {
+		return enrollment;
 	}
 	
 	/**
@@ -217,6 +593,25 @@ public class WolfScheduler {
 		return title;
 	}
 
+	/**
+	 * Exports the catalog to a snapshot file that can be passed to the constructor to load 
+	 * the catalog without parsing and checking it again.
+	 * @param fileName file to export to
+	 * @throws IllegalArgumentException "The file cannot be saved." if there is an IOException when trying to save the file.
+	 */
+	public void exportCatalogSnapshot(String fileName) {
+		CourseCatalog current = catalog;
+		try {
+			ArrayList<Course> courses = new ArrayList<Course>(current.size());
+			for(int i = 0; i < current.size(); i++)
+				courses.add(current.getCourse(i));
+			CourseSnapshotIO.writeCourseSnapshot(fileName, courses);
+		}
+		catch (IOException e){
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
 	/**
 	 * Exports the schedule to file with the passed name.
 	 * 
@@ -224,7 +619,7 @@ public class WolfScheduler {
 	 * @param fileName file to export to
 	 * @throws IllegalArgumentException "The file cannot be saved." if there is an IOException when trying to save the file.
 	 */
-	public void exportSchedule(String fileName) {
+	public synchronized void exportSchedule(String fileName) {
 		try {
 			CourseRecordIO.writeCourseRecords(fileName, schedule);
 		}
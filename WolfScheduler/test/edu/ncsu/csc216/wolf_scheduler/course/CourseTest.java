@@ -462,4 +462,125 @@ public class CourseTest {
 		assertEquals(s2, c2.toString());
 	}
 
+	/**
+	 * Tests the seat capacity.
+	 */
+	@Test
+	public void testCapacity() {
+		Course c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		assertEquals(Course.UNLIMITED_CAPACITY, c.getCapacity());
+		assertFalse(c.hasLimitedCapacity());
+
+		Course limited = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME, 30);
+		assertEquals(30, limited.getCapacity());
+		assertTrue(limited.hasLimitedCapacity());
+		assertEquals("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445,30", limited.toString());
+		//The capacity doesn't make a Course a different section
+		assertEquals(c, limited);
+		assertEquals(c.hashCode(), limited.hashCode());
+
+		Course arranged = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A", 0, 0, 12);
+		assertEquals("CSC 216,Software Development Fundamentals,001,3,sesmith5,A,0,0,12", arranged.toString());
+		Course unlimited = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A", 0, 0, Course.UNLIMITED_CAPACITY);
+		assertEquals("CSC 216,Software Development Fundamentals,001,3,sesmith5,A", unlimited.toString());
+		Exception e2 = assertThrows(IllegalArgumentException.class,
+				() -> new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME, -5));
+		assertEquals("Invalid capacity.", e2.getMessage());
+	}
+
+	/**
+	 * Tests that the meeting and record Strings are cached and rebuilt after each setter.
+	 */
+	@Test
+	public void testCachedStrings() {
+		Course c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		assertSame(c.getMeetingString(), c.getMeetingString());
+		assertSame(c.toString(), c.toString());
+
+		c.setTitle("Software Development");
+		assertEquals("CSC 216,Software Development,001,3,sesmith5,MW,1330,1445", c.toString());
+		c.setSection("002");
+		assertEquals("CSC 216,Software Development,002,3,sesmith5,MW,1330,1445", c.toString());
+		c.setCredits(4);
+		assertEquals("CSC 216,Software Development,002,4,sesmith5,MW,1330,1445", c.toString());
+		c.setInstructorId("jdyoung2");
+		assertEquals("CSC 216,Software Development,002,4,jdyoung2,MW,1330,1445", c.toString());
+		assertEquals("MW 1:30PM-2:45PM", c.getMeetingString());
+		c.setMeetingDaysAndTime("TH", 910, 1005);
+		assertEquals("CSC 216,Software Development,002,4,jdyoung2,TH,910,1005", c.toString());
+		assertEquals("TH 9:10AM-10:05AM", c.getMeetingString());
+		c.setMeetingDaysAndTime("A", 0, 0);
+		assertEquals("CSC 216,Software Development,002,4,jdyoung2,A", c.toString());
+		assertEquals("Arranged", c.getMeetingString());
+
+		//A rejected change keeps the cached Strings
+		assertThrows(IllegalArgumentException.class, () -> c.setCredits(0));
+		assertEquals("CSC 216,Software Development,002,4,jdyoung2,A", c.toString());
+	}
+
+	/**
+	 * Tests that the meeting days mask and minutes match the meeting days and times.
+	 */
+	@Test
+	public void testMeetingDaysMaskAndMinutes() {
+		Course c1 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "MWF", 935, 1025);
+		assertEquals(Course.MONDAY | Course.WEDNESDAY | Course.FRIDAY, c1.getMeetingDaysMask());
+		assertEquals(575, c1.getStartMinutes());
+		assertEquals(625, c1.getEndMinutes());
+
+		c1.setMeetingDaysAndTime("TH", 1330, 1445);
+		assertEquals(Course.TUESDAY | Course.THURSDAY, c1.getMeetingDaysMask());
+		assertEquals(810, c1.getStartMinutes());
+		assertEquals(885, c1.getEndMinutes());
+
+		Course c2 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A");
+		assertEquals(0, c2.getMeetingDaysMask());
+		assertEquals(0, c2.getStartMinutes());
+		assertEquals(0, c2.getEndMinutes());
+
+		Course c3 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "HF", 800, 915);
+		assertEquals(Course.THURSDAY | Course.FRIDAY, c3.getMeetingDaysMask());
+		assertEquals(480, c3.getStartMinutes());
+		assertEquals(555, c3.getEndMinutes());
+
+		assertEquals(Course.MONDAY | Course.TUESDAY, Course.toMeetingDaysMask("TM"));
+		assertEquals(0, Course.toMeetingDaysMask("A"));
+		assertEquals(-1, Course.toMeetingDaysMask("MM"));
+		assertEquals(-1, Course.toMeetingDaysMask("AM"));
+		assertEquals(-1, Course.toMeetingDaysMask(""));
+		assertEquals(-1, Course.toMeetingDaysMask(null));
+	}
+
+	/**
+	 * Tests isConflict() for overlapping and separate meeting days and times.
+	 */
+	@Test
+	public void testIsConflict() {
+		Course c1 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "MW", 1330, 1445);
+		Course c2 = new Course("CSC 226", "Discrete Math", "001", 3, "sesmith5", "TH", 1330, 1445);
+		assertFalse(c1.isConflict(c2));
+		assertFalse(c2.isConflict(c1));
+
+		//Overlapping days and times
+		c2.setMeetingDaysAndTime("W", 1400, 1530);
+		assertTrue(c1.isConflict(c2));
+		assertTrue(c2.isConflict(c1));
+
+		//A class starting the minute another ends conflicts
+		c2.setMeetingDaysAndTime("M", 1445, 1530);
+		assertTrue(c1.isConflict(c2));
+		assertTrue(c2.isConflict(c1));
+
+		//Same days, separate times
+		c2.setMeetingDaysAndTime("MW", 1446, 1530);
+		assertFalse(c1.isConflict(c2));
+		assertFalse(c2.isConflict(c1));
+
+		//Arranged classes never conflict
+		Course c3 = new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "A");
+		assertFalse(c1.isConflict(c3));
+		assertFalse(c3.isConflict(c1));
+		assertFalse(c3.isConflict(c3));
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the AtomicFileWriter class.
+ *
+ * @author Ben Morris
+ */
+public class AtomicFileWriterTest {
+
+	/**
+	 * Tests that a committed write replaces the file and one that isn't leaves it alone.
+	 */
+	@Test
+	public void testCommit() throws IOException {
+		Path dir = Files.createTempDirectory("wolf_scheduler");
+		Path target = dir.resolve("catalog.dat");
+		try {
+			Files.write(target, "old".getBytes());
+
+			//A write that fails before commit() leaves the old file and no temporary file
+			assertThrows(IOException.class, () -> {
+				try (AtomicFileWriter file = new AtomicFileWriter(target.toString())) {
+					file.getChannel().write(ByteBuffer.wrap("partial".getBytes()));
+					throw new IOException("Disk full");
+				}
+			});
+			assertEquals("old", new String(Files.readAllBytes(target)));
+			assertEquals(1, count(dir));
+
+			try (AtomicFileWriter file = new AtomicFileWriter(target.toString())) {
+				file.getChannel().write(ByteBuffer.wrap("new".getBytes()));
+				file.commit();
+			}
+			assertEquals("new", new String(Files.readAllBytes(target)));
+			assertEquals(1, count(dir));
+		} finally {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+				for (Path file : files)
+					Files.delete(file);
+			}
+			Files.delete(dir);
+		}
+	}
+
+	/**
+	 * Tests that snapshots that can't replace their file leave it and no temporary file behind.
+	 */
+	@Test
+	public void testFailedSnapshot() throws IOException {
+		Path dir = Files.createTempDirectory("wolf_scheduler");
+		Path target = dir.resolve("catalog.dat");
+		Files.createDirectory(target);
+		Files.write(target.resolve("keep.txt"), "keep".getBytes());
+		try {
+			ArrayList<Course> courses = new ArrayList<Course>();
+			courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+			assertThrows(IOException.class, () -> CourseSnapshotIO.writeCourseSnapshot(target.toString(), courses));
+			assertTrue(Files.isDirectory(target));
+			assertEquals(1, count(dir));
+		} finally {
+			Files.delete(target.resolve("keep.txt"));
+			Files.delete(target);
+			Files.delete(dir);
+		}
+	}
+
+	/**
+	 * Counts the files in a directory
+	 * @param dir the directory
+	 * @return the number of files
+	 * @throws IOException if the directory can't be read
+	 */
+	private static int count(Path dir) throws IOException {
+		int count = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+			for (@SuppressWarnings("unused") Path file : files)
+				count++;
+		}
+		return count;
+	}
+}
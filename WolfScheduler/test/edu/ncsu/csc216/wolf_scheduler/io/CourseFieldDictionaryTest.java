@@ -0,0 +1,122 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the CourseFieldDictionary class.
+ *
+ * @author Ben Morris
+ */
+public class CourseFieldDictionaryTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+
+	/**
+	 * Tests that intern() returns one shared instance per value and counts the copies replaced.
+	 */
+	@Test
+	public void testIntern() {
+		CourseFieldDictionary dictionary = new CourseFieldDictionary();
+		String first = new String("CSC 216");
+		String copy = new String("CSC 216");
+		assertSame(first, dictionary.intern(first));
+		assertEquals(0, dictionary.getSharedCount());
+		assertSame(first, dictionary.intern(copy));
+		assertSame(first, dictionary.intern(first));
+		assertEquals(1, dictionary.getSharedCount());
+		assertEquals(CourseFieldDictionary.estimateSize(copy), dictionary.getBytesSaved());
+		assertEquals(CourseFieldDictionary.estimateSize(first), dictionary.getValueBytes());
+		assertEquals("1 distinct values: 1 shared, 48 bytes saved", dictionary.toString());
+	}
+
+	/**
+	 * Tests the ids of values.
+	 */
+	@Test
+	public void testIds() {
+		CourseFieldDictionary dictionary = new CourseFieldDictionary();
+		assertEquals(-1, dictionary.find("MW"));
+		for (int i = 0; i < 40; i++)
+			assertEquals(i, dictionary.idOf("value" + i));
+		assertEquals(5, dictionary.idOf("value5"));
+		assertEquals(39, dictionary.find("value39"));
+		assertEquals("value17", dictionary.valueOf(17));
+		assertEquals(40, dictionary.size());
+		assertThrows(IndexOutOfBoundsException.class, () -> dictionary.valueOf(40));
+		assertThrows(IndexOutOfBoundsException.class, () -> dictionary.valueOf(-1));
+	}
+
+	/**
+	 * Tests estimateSize() for one and two byte characters.
+	 */
+	@Test
+	public void testEstimateSize() {
+		assertEquals(40, CourseFieldDictionary.estimateSize(""));
+		assertEquals(48, CourseFieldDictionary.estimateSize("CSC 216"));
+		assertEquals(48, CourseFieldDictionary.estimateSize("\u00e9"));
+		assertEquals(48, CourseFieldDictionary.estimateSize("\u0100\u0100\u0100\u0100"));
+	}
+
+	/**
+	 * Tests that reading course records with a dictionary shares repeated fields between Courses.
+	 */
+	@Test
+	public void testReadCourseRecords() {
+		try {
+			CourseFieldDictionary dictionary = new CourseFieldDictionary();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile, new CourseRecordStats(), dictionary);
+			assertSharedTitles(courses);
+			assertTrue(dictionary.getSharedCount() > 0);
+			assertTrue(dictionary.getBytesSaved() > 0);
+
+			CourseFieldDictionary parallel = new CourseFieldDictionary();
+			assertSharedTitles(CourseRecordIO.readCourseRecordsParallel(validTestFile, new CourseRecordStats(),
+					new ForkJoinPool(2), parallel));
+			assertEquals(dictionary.size(), parallel.size());
+
+			assertSharedTitles(CourseRecordIO.readCourseRecordsMapped(validTestFile, new CourseRecordStats(),
+					new CourseFieldDictionary()));
+			
+			//Fields of rejected lines aren't kept
+			CourseFieldDictionary invalid = new CourseFieldDictionary();
+			assertEquals(0, CourseRecordIO.readCourseRecords("test-files/invalid_course_records.txt", 
+					new CourseRecordStats(), invalid).size());
+			assertEquals(0, invalid.size());
+			assertEquals(0, invalid.getSharedCount());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		} catch (IOException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+
+	/**
+	 * Checks that Courses with equal names share their name and title instances
+	 * @param courses Courses to check
+	 */
+	private static void assertSharedTitles(ArrayList<Course> courses) {
+		int shared = 0;
+		for (int i = 0; i < courses.size(); i++) {
+			for (int j = i + 1; j < courses.size(); j++) {
+				Course a = courses.get(i);
+				Course b = courses.get(j);
+				if (a.getName().equals(b.getName())) {
+					assertSame(a.getName(), b.getName());
+					assertSame(a.getTitle(), b.getTitle());
+					shared++;
+				}
+			}
+		}
+		assertTrue(shared > 0);
+	}
+}
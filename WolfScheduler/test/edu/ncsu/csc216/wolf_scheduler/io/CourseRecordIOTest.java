@@ -8,11 +8,14 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
@@ -28,6 +31,8 @@ public class CourseRecordIOTest {
 	private final String validTestFile = "test-files/course_records.txt";
 	/** Invalid course records */
 	private final String invalidTestFile = "test-files/invalid_course_records.txt";
+	/** Valid, invalid, and duplicate records with mixed line terminators, written by the tests */
+	private final String mixedTestFile = "test-files/actual_mixed_records.txt";
 	
 	/** Expected results for valid courses in course_records.txt - line 1 */	
 	private final String validCourse1 = "CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100";
@@ -108,6 +113,144 @@ public class CourseRecordIOTest {
 		}
 	}
 	
+	/**
+	 * Tests readCourseRecords() while counting duplicate and invalid lines.
+	 */
+	@Test
+	public void testReadCourseRecordsStats() {
+		try {
+			CourseRecordStats stats = new CourseRecordStats();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile, stats);
+			assertEquals(13, courses.size());
+			assertEquals(14, stats.getLinesRead());
+			assertEquals(13, stats.getCoursesLoaded());
+			assertEquals(1, stats.getDuplicateLines());
+			assertEquals(0, stats.getInvalidLines());
+			
+			stats = new CourseRecordStats();
+			courses = CourseRecordIO.readCourseRecords(invalidTestFile, stats);
+			assertEquals(0, courses.size());
+			assertEquals(26, stats.getLinesRead());
+			assertEquals(0, stats.getCoursesLoaded());
+			assertEquals(0, stats.getDuplicateLines());
+			assertEquals(26, stats.getInvalidLines());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected FileNotFoundException");
+		}
+	}
+	
+	/**
+	 * Tests readCourseRecordsParallel().
+	 */
+	@Test
+	public void testReadCourseRecordsParallel() {
+		try {
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecordsParallel(validTestFile);
+			assertEquals(13, courses.size());
+			for (int i = 0; i < validCourses.length; i++) {
+				assertEquals(validCourses[i], courses.get(i).toString());
+			}
+			
+			CourseRecordStats stats = new CourseRecordStats();
+			courses = CourseRecordIO.readCourseRecordsParallel(invalidTestFile, stats, ForkJoinPool.commonPool());
+			assertEquals(0, courses.size());
+			assertEquals(26, stats.getInvalidLines());
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+		
+		assertThrows(IOException.class, () -> CourseRecordIO.readCourseRecordsParallel("test-files/no_such_file.txt"));
+	}
+	
+	/**
+	 * Tests that readCourseRecordsParallel() splitting a file into many chunks reads the same
+	 * Courses and counts the same lines as readCourseRecords().
+	 */
+	@Test
+	public void testReadCourseRecordsParallelChunks() {
+		try {
+			String text = writeMixedRecords();
+			assertTrue(CourseRecordChunkTask.chunkBounds(text, 64).length > 32);
+			
+			CourseRecordStats expectedStats = new CourseRecordStats();
+			ArrayList<Course> expected = CourseRecordIO.readCourseRecords(mixedTestFile, expectedStats);
+			ForkJoinPool pool = new ForkJoinPool(4);
+			try {
+				for (int minLength = 1; minLength <= text.length() + 1; minLength += text.length()) {
+					CourseRecordStats stats = new CourseRecordStats();
+					ArrayList<Course> courses = CourseRecordIO.readCourseRecordsParallel(mixedTestFile, stats, pool, 
+							new CourseFieldDictionary(), minLength);
+					assertEquals(expected, courses);
+					assertEquals(expectedStats.toString(), stats.toString());
+				}
+			} finally {
+				pool.shutdown();
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+	}
+	
+	/**
+	 * Tests readCourseRecordsMapped().
+	 */
+	@Test
+	public void testReadCourseRecordsMapped() {
+		try {
+			CourseRecordStats stats = new CourseRecordStats();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecordsMapped(validTestFile, stats);
+			assertEquals(13, courses.size());
+			for (int i = 0; i < validCourses.length; i++) {
+				assertEquals(validCourses[i], courses.get(i).toString());
+			}
+			assertEquals(1, stats.getDuplicateLines());
+			
+			stats = new CourseRecordStats();
+			courses = CourseRecordIO.readCourseRecordsMapped(invalidTestFile, stats);
+			assertEquals(0, courses.size());
+			assertEquals(26, stats.getInvalidLines());
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+		
+		assertThrows(FileNotFoundException.class, 
+				() -> CourseRecordIO.readCourseRecordsMapped("test-files/no_such_file.txt", new CourseRecordStats()));
+	}
+	
+	/**
+	 * Tests readCourseRecordsMapped() with windows smaller than the file, so lines and \r\n
+	 * terminators are split between windows and a line longer than a window is skipped.
+	 */
+	@Test
+	public void testReadCourseRecordsMappedWindows() {
+		try {
+			String longLine = "CSC 216,Software Development Fundamentals" + new String(new char[300]).replace('\0', 'x');
+			String text = writeMixedRecords() + longLine + "\r\n" + validCourse1 + "\r\n";
+			Files.write(FileSystems.getDefault().getPath(mixedTestFile), text.getBytes());
+			CourseRecordStats expectedStats = new CourseRecordStats();
+			ArrayList<Course> expected = CourseRecordIO.readCourseRecords(mixedTestFile, expectedStats);
+			
+			//Every window from just longer than the longest valid line up to past the long line
+			for (int window = 100; window < 400; window++) {
+				CourseRecordStats stats = new CourseRecordStats();
+				ArrayList<Course> courses = CourseRecordIO.readCourseRecordsMapped(mixedTestFile, stats, 
+						new CourseFieldDictionary(), window);
+				assertEquals(expected, courses, "window " + window);
+				assertEquals(expectedStats.toString(), stats.toString(), "window " + window);
+			}
+			
+			//A valid line longer than the window, the 80 character CSC 226 line, is counted as invalid
+			CourseRecordStats stats = new CourseRecordStats();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecordsMapped(validTestFile, stats, 
+					new CourseFieldDictionary(), 75);
+			assertEquals(12, courses.size());
+			assertEquals(validCourse12, courses.get(10).toString());
+			assertEquals("14 lines read: 12 loaded, 1 duplicate, 1 invalid", stats.toString());
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+	}
+	
 	/**
 	 * Tests writeCourseRecords()
 	 */
@@ -127,6 +270,93 @@ public class CourseRecordIOTest {
 		checkFiles("test-files/expected_course_records.txt", "test-files/actual_course_records.txt");
 	}
 
+	/**
+	 * Tests that capacities, including an arranged section's, are written so they read back the
+	 * same.
+	 */
+	@Test
+	public void testWriteCapacityRecords() {
+		try {
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords("test-files/capacity_course_records.txt");
+			assertEquals(3, courses.size());
+			assertEquals(2, courses.get(2).getCapacity());
+			CourseRecordIO.writeCourseRecords("test-files/actual_course_records.txt", courses);
+			List<String> lines = Files.readAllLines(FileSystems.getDefault().getPath("test-files/actual_course_records.txt"));
+			assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0,2", lines.get(2));
+			ArrayList<Course> read = CourseRecordIO.readCourseRecords("test-files/actual_course_records.txt");
+			assertEquals(courses, read);
+			for (int i = 0; i < courses.size(); i++)
+				assertEquals(courses.get(i).getCapacity(), read.get(i).getCapacity());
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+	}
+
+	/**
+	 * Tests writeCourseRecords() with a buffer smaller than a record.
+	 */
+	@Test
+	public void testWriteCourseRecordsSmallFlushSize() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		
+		try {
+			CourseRecordIO.writeCourseRecords("test-files/actual_course_records.txt", courses, 1);
+		} catch (IOException e) {
+			fail("Cannot write to course records file");
+		}
+		
+		checkFiles("test-files/expected_course_records.txt", "test-files/actual_course_records.txt");
+		
+		//A write that fails after the temporary file is written leaves the target alone and no 
+		//temporary file behind.  The target is a directory that isn't empty, so it can't be replaced.
+		try {
+			Path dir = Files.createTempDirectory("wolf_scheduler");
+			Path target = dir.resolve("actual_course_records.txt");
+			Files.createDirectory(target);
+			Files.write(target.resolve("keep.txt"), "keep".getBytes());
+			try {
+				assertThrows(IOException.class, () -> CourseRecordIO.writeCourseRecords(target.toString(), courses, 1));
+				assertTrue(Files.isDirectory(target));
+				assertEquals("keep", new String(Files.readAllBytes(target.resolve("keep.txt"))));
+				try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+					for (Path file : files)
+						assertEquals(target, file);
+				}
+			} finally {
+				Files.delete(target.resolve("keep.txt"));
+				try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+					for (Path file : files)
+						Files.delete(file);
+				}
+				Files.delete(dir);
+			}
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+	}
+	
+	/**
+	 * Writes the lines of the valid and invalid record files several times over, each ended by
+	 * a \n, \r\n, or \r in turn, so later copies of each Course are duplicates
+	 * @return the text written
+	 * @throws IOException if the files can't be read or written
+	 */
+	private String writeMixedRecords() throws IOException {
+		String[] terminators = { "\n", "\r\n", "\r" };
+		ArrayList<String> lines = new ArrayList<String>(Files.readAllLines(FileSystems.getDefault().getPath(validTestFile)));
+		lines.addAll(Files.readAllLines(FileSystems.getDefault().getPath(invalidTestFile)));
+		StringBuilder text = new StringBuilder();
+		for (int copy = 0; copy < 8; copy++) {
+			for (int i = 0; i < lines.size(); i++)
+				text.append(lines.get(i)).append(terminators[(copy + i) % terminators.length]);
+		}
+		Files.write(FileSystems.getDefault().getPath(mixedTestFile), text.toString().getBytes());
+		return text.toString();
+	}
+	
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output
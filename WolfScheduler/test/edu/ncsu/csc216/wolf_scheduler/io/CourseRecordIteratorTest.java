@@ -0,0 +1,84 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseRecordIterator and CourseRecordIO.streamCourseRecords().
+ * 
+ * @author Ben Morris
+ */
+public class CourseRecordIteratorTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Invalid course records */
+	private final String invalidTestFile = "test-files/invalid_course_records.txt";
+
+	/**
+	 * Tests iterating with and without skipping duplicates.
+	 */
+	@Test
+	public void testIterator() {
+		try (CourseRecordIterator courses = new CourseRecordIterator(validTestFile, true)) {
+			assertTrue(courses.hasNext());
+			assertEquals("CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100", courses.next().toString());
+			int count = 1;
+			while (courses.hasNext()) {
+				courses.next();
+				count++;
+			}
+			assertEquals(13, count);
+			assertEquals(1, courses.getStats().getDuplicateLines());
+			assertThrows(NoSuchElementException.class, () -> courses.next());
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+		
+		try (CourseRecordIterator courses = new CourseRecordIterator(validTestFile, false)) {
+			int count = 0;
+			while (courses.hasNext()) {
+				courses.next();
+				count++;
+			}
+			assertEquals(14, count);
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+		
+		try (CourseRecordIterator courses = new CourseRecordIterator(invalidTestFile, true)) {
+			assertFalse(courses.hasNext());
+			assertEquals(26, courses.getStats().getInvalidLines());
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+		
+		assertThrows(FileNotFoundException.class, () -> new CourseRecordIterator("test-files/no_such_file.txt", true));
+	}
+
+	/**
+	 * Tests CourseRecordIO.streamCourseRecords().
+	 */
+	@Test
+	public void testStreamCourseRecords() {
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile, true)) {
+			assertEquals(3, courses.filter(c -> "CSC 217".equals(c.getName()) && !"A".equals(c.getMeetingDays())).count());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected FileNotFoundException");
+		}
+		
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile, false)) {
+			assertEquals(4, courses.filter(c -> "CSC 116".equals(c.getName())).count());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected FileNotFoundException");
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests CourseRecordParser.
+ * 
+ * @author Ben Morris
+ */
+public class CourseRecordParserTest {
+
+	/** Invalid course records */
+	private final String invalidTestFile = "test-files/invalid_course_records.txt";
+
+	/**
+	 * Tests parsing valid records with and without meeting times.
+	 */
+	@Test
+	public void testParseValid() {
+		CourseRecordParser parser = new CourseRecordParser();
+		
+		assertEquals(CourseRecordParser.ACCEPTED, 
+				parser.parse("CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100"));
+		assertEquals("CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100", parser.toCourse().toString());
+		
+		assertEquals(CourseRecordParser.ACCEPTED, 
+				parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A"));
+		assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A", parser.toCourse().toString());
+		
+		//A single trailing delimiter doesn't start another field, just like with a Scanner
+		assertEquals(CourseRecordParser.ACCEPTED, 
+				parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A,"));
+		assertEquals(CourseRecordParser.ACCEPTED, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,+3,sesmith5,MW,1330,1445"));
+		
+		//A section's capacity follows the end time, which an arranged section gives as 0
+		assertEquals(CourseRecordParser.ACCEPTED, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445,30"));
+		assertEquals(30, parser.toCourse().getCapacity());
+		assertEquals(CourseRecordParser.ACCEPTED, 
+				parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0,10"));
+		assertEquals(10, parser.toCourse().getCapacity());
+		assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0,10", parser.toCourse().toString());
+		
+		//Only the characters between start and end are parsed
+		String padded = "xx,CSC 217,Software Development Fundamentals Lab,601,1,sesmith5,A\nyy";
+		assertEquals(CourseRecordParser.ACCEPTED, parser.parse(padded, 3, padded.indexOf('\n')));
+		assertEquals("CSC 217,Software Development Fundamentals Lab,601,1,sesmith5,A", parser.toCourse().toString());
+	}
+
+	/**
+	 * Tests the reason given for rejected records.
+	 */
+	@Test
+	public void testParseRejected() {
+		CourseRecordParser parser = new CourseRecordParser();
+		
+		assertEquals(CourseRecordParser.MISSING_FIELD, parser.parse(""));
+		assertEquals(CourseRecordParser.MISSING_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1445"));
+		assertEquals(CourseRecordParser.EXTRA_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,A,1330,1445"));
+		//Times after "A" only come before a capacity
+		assertEquals(CourseRecordParser.EXTRA_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0"));
+		assertEquals(CourseRecordParser.EXTRA_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0,"));
+		//A field right after "A" is a start time, never a capacity
+		assertEquals(CourseRecordParser.MISSING_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A,1330"));
+		assertEquals(CourseRecordParser.INVALID_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,1330,30"));
+		assertEquals(CourseRecordParser.EXTRA_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445,,"));
+		assertEquals(CourseRecordParser.INVALID_NUMBER, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,sesmith5,MW,1330,1445"));
+		assertEquals(CourseRecordParser.INVALID_NUMBER, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,99999999999"));
+		assertEquals(CourseRecordParser.INVALID_NUMBER, 
+				parser.parse("CSC 216,Software Development Fundamentals,001, 3,sesmith5,MW,1330,1445"));
+		assertEquals(CourseRecordParser.INVALID_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,,MW,1330,1445"));
+		assertEquals(CourseRecordParser.INVALID_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1445,1330"));
+		assertEquals(CourseRecordParser.INVALID_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445,-1"));
+		assertEquals(CourseRecordParser.INVALID_NUMBER, 
+				parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0,many"));
+		assertEquals(CourseRecordParser.EXTRA_FIELD, 
+				parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445,30,1"));
+	}
+
+	/**
+	 * Tests that every line of the invalid records file is rejected.
+	 */
+	@Test
+	public void testParseInvalidFile() {
+		CourseRecordParser parser = new CourseRecordParser();
+		try (Scanner fileReader = new Scanner(new File(invalidTestFile))) {
+			while (fileReader.hasNextLine()) {
+				String line = fileReader.nextLine();
+				assertNotEquals(CourseRecordParser.ACCEPTED, parser.parse(line), line);
+			}
+		} catch (FileNotFoundException e) {
+			fail("Unexpected FileNotFoundException");
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseSnapshotIO.
+ * 
+ * @author Ben Morris
+ */
+public class CourseSnapshotIOTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Snapshot written by the tests */
+	private final String snapshotFile = "test-files/actual_catalog_snapshot.dat";
+	/** Snapshot that is changed after it is written */
+	private final String corruptFile = "test-files/actual_corrupt_snapshot.dat";
+	/** Snapshot of sections with a capacity */
+	private final String capacityFile = "test-files/actual_capacity_snapshot.dat";
+
+	/**
+	 * Tests writing a snapshot and reading it back.
+	 */
+	@Test
+	public void testWriteReadCourseSnapshot() {
+		try {
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile);
+			CourseSnapshotIO.writeCourseSnapshot(snapshotFile, courses);
+			assertTrue(CourseSnapshotIO.isCourseSnapshot(snapshotFile));
+			assertFalse(CourseSnapshotIO.isCourseSnapshot(validTestFile));
+			
+			ArrayList<Course> snapshot = CourseSnapshotIO.readCourseSnapshot(snapshotFile);
+			assertEquals(courses.size(), snapshot.size());
+			for (int i = 0; i < courses.size(); i++) {
+				assertEquals(courses.get(i), snapshot.get(i));
+				assertEquals(courses.get(i).toString(), snapshot.get(i).toString());
+			}
+			
+			//Repeated field values are shared after loading
+			assertSame(snapshot.get(0).getTitle(), snapshot.get(1).getTitle());
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+	}
+
+	/**
+	 * Tests that section capacities are kept in a snapshot.
+	 */
+	@Test
+	public void testCapacitySnapshot() {
+		try {
+			ArrayList<Course> courses = new ArrayList<Course>();
+			courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445, 30));
+			courses.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A", 0, 0));
+			CourseSnapshotIO.writeCourseSnapshot(capacityFile, courses);
+			ArrayList<Course> snapshot = CourseSnapshotIO.readCourseSnapshot(capacityFile);
+			assertEquals(courses, snapshot);
+			assertEquals(30, snapshot.get(0).getCapacity());
+			assertEquals(Course.UNLIMITED_CAPACITY, snapshot.get(1).getCapacity());
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+	}
+
+	/**
+	 * Tests that a changed snapshot is rejected.
+	 */
+	@Test
+	public void testReadCorruptCourseSnapshot() {
+		try {
+			CourseSnapshotIO.writeCourseSnapshot(corruptFile, CourseRecordIO.readCourseRecords(validTestFile));
+			try (RandomAccessFile file = new RandomAccessFile(corruptFile, "rw")) {
+				file.seek(20);
+				int b = file.read();
+				file.seek(20);
+				file.write(b ^ 1);
+			}
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+		
+		Exception e = assertThrows(IOException.class, () -> CourseSnapshotIO.readCourseSnapshot(corruptFile));
+		assertEquals("Invalid course snapshot.", e.getMessage());
+		assertThrows(IOException.class, () -> CourseSnapshotIO.readCourseSnapshot(validTestFile));
+		
+		//Counts that can't fit in the file are rejected even with a matching checksum
+		int[][] counts = { { -1, 0 }, { Integer.MAX_VALUE, 0 }, { 0, -1 }, { 0, 1 << 20 } };
+		for (int i = 0; i < counts.length; i++) {
+			writeSnapshot(counts[i][0], counts[i][1]);
+			Exception e2 = assertThrows(IOException.class, () -> CourseSnapshotIO.readCourseSnapshot(corruptFile));
+			assertEquals("Invalid course snapshot.", e2.getMessage());
+		}
+		assertThrows(FileNotFoundException.class, () -> CourseSnapshotIO.readCourseSnapshot("test-files/no_such_file.dat"));
+	}
+
+	/**
+	 * Writes a snapshot with the given table counts, no table entries, and a valid checksum
+	 * @param stringCount number of Strings in the string table
+	 * @param courseCount number of Courses
+	 */
+	private void writeSnapshot(int stringCount, int courseCount) {
+		ByteBuffer data = ByteBuffer.allocate(24);
+		data.putInt(CourseSnapshotIO.MAGIC).putInt(CourseSnapshotIO.VERSION).putInt(stringCount).putInt(courseCount);
+		CRC32 checksum = new CRC32();
+		checksum.update(data.array(), 0, 16);
+		data.putLong(checksum.getValue());
+		try {
+			Files.write(Paths.get(corruptFile), data.array());
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+	}
+}
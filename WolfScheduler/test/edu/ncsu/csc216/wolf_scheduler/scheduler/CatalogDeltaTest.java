@@ -0,0 +1,75 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the CatalogDelta class.
+ *
+ * @author Ben Morris
+ */
+public class CatalogDeltaTest {
+
+	/** Course in both catalogs */
+	private final Course csc116 = new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100);
+	/** Course whose instructor changes */
+	private final Course csc216 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+	/** Course that is removed */
+	private final Course csc217 = new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A");
+
+	/**
+	 * Tests recording changes.
+	 */
+	@Test
+	public void testChanges() {
+		CatalogDelta delta = new CatalogDelta().add(csc116).update(csc216).remove("CSC 217", "601").add(csc217);
+		assertEquals(4, delta.size());
+		assertEquals(2, delta.getAddCount());
+		assertEquals(1, delta.getUpdateCount());
+		assertEquals(1, delta.getRemoveCount());
+		assertEquals("2 added, 1 updated, 1 removed", delta.toString());
+		assertEquals(CatalogDelta.REMOVE, delta.getKind(2));
+		assertEquals("CSC 217", delta.getName(2));
+		assertEquals("601", delta.getSection(2));
+		assertNull(delta.getCourse(2));
+		assertSame(csc217, delta.getCourse(3));
+
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> new CatalogDelta().add(null));
+		assertEquals("Invalid course.", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> new CatalogDelta().remove("CSC 216", null));
+		assertEquals("Invalid course.", e2.getMessage());
+	}
+
+	/**
+	 * Tests that diff() finds only the Courses that changed.
+	 */
+	@Test
+	public void testDiff() {
+		ArrayList<Course> before = new ArrayList<Course>();
+		before.add(csc116);
+		before.add(csc216);
+		before.add(csc217);
+		ArrayList<Course> after = new ArrayList<Course>();
+		after.add(new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+		after.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "jctetter", "TH", 1330, 1445));
+		after.add(new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025));
+
+		CatalogDelta delta = CatalogDelta.diff(new ListCatalog(before), new ListCatalog(after));
+		assertEquals("1 added, 1 updated, 1 removed", delta.toString());
+		assertEquals(CatalogDelta.REMOVE, delta.getKind(0));
+		assertEquals("CSC 217", delta.getName(0));
+		assertEquals(CatalogDelta.UPDATE, delta.getKind(1));
+		assertSame(after.get(1), delta.getCourse(1));
+		assertEquals(CatalogDelta.ADD, delta.getKind(2));
+		assertSame(after.get(2), delta.getCourse(2));
+
+		assertEquals(0, CatalogDelta.diff(new ListCatalog(after), new ListCatalog(after)).size());
+		assertEquals(CatalogDelta.contentHash(csc116), CatalogDelta.contentHash(after.get(0)));
+		assertNotEquals(CatalogDelta.contentHash(csc216), CatalogDelta.contentHash(after.get(1)));
+	}
+}
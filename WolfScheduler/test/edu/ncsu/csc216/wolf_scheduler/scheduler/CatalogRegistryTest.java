@@ -0,0 +1,282 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the CatalogRegistry class.
+ *
+ * @author Ben Morris
+ */
+public class CatalogRegistryTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Copy of the valid course records, read as a different file */
+	private final String starterTestFile = "test-files/starter_course_records.txt";
+	/** Course records with a one-seat section */
+	private final String capacityTestFile = "test-files/capacity_course_records.txt";
+
+	/**
+	 * Tests that catalogs are read on first use and shared afterwards.
+	 */
+	@Test
+	public void testLazyShared() {
+		CatalogRegistry registry = new CatalogRegistry(Long.MAX_VALUE);
+		registry.register("2024FA", validTestFile);
+		assertFalse(registry.isLoaded("2024FA"));
+		assertEquals(0, registry.getLoadCount());
+
+		CourseCatalog catalog = registry.getCatalog("2024FA");
+		assertTrue(registry.isLoaded("2024FA"));
+		assertEquals(13, catalog.size());
+		assertSame(catalog, registry.getCatalog("2024FA"));
+		assertEquals(1, registry.getLoadCount());
+		assertEquals(CatalogRegistry.estimateSize(catalog), registry.getUsedBytes());
+
+		//Schedulers share the catalog but not their schedules
+		WolfScheduler ws1 = registry.createScheduler("2024FA");
+		WolfScheduler ws2 = registry.createScheduler("2024FA");
+		assertSame(ws1.getCourseFromCatalog("CSC 216", "001"), ws2.getCourseFromCatalog("CSC 216", "001"));
+		assertTrue(ws1.addCourseToSchedule("CSC 216", "001"));
+		assertEquals(0, ws2.getScheduledCourses().length);
+		assertEquals(1, registry.getLoadCount());
+
+		//Registering a key again drops its catalog
+		registry.register("2024FA", starterTestFile);
+		assertFalse(registry.isLoaded("2024FA"));
+		assertEquals(0, registry.getUsedBytes());
+		assertNotSame(catalog, registry.getCatalog("2024FA"));
+	}
+
+	/**
+	 * Tests that the schedulers of a term share its seats, even after its catalog is dropped
+	 * and read again.
+	 */
+	@Test
+	public void testSharedSeats() {
+		CatalogRegistry registry = new CatalogRegistry(Long.MAX_VALUE);
+		registry.register("2024FA", capacityTestFile);
+		registry.register("2024SP", capacityTestFile);
+		WolfScheduler ws1 = registry.createScheduler("2024FA");
+		WolfScheduler ws2 = registry.createScheduler("2024FA");
+		assertSame(registry.getEnrollmentTracker("2024FA"), ws1.getEnrollmentTracker());
+		assertSame(ws1.getEnrollmentTracker(), ws2.getEnrollmentTracker());
+		assertNotSame(ws1.getEnrollmentTracker(), registry.getEnrollmentTracker("2024SP"));
+
+		assertTrue(ws1.addCourseToSchedule("CSC 216", "001"));
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> ws2.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course CSC 216-001 is full.", e1.getMessage());
+		assertTrue(registry.createScheduler("2024SP").addCourseToSchedule("CSC 216", "001"));
+
+		//The seat stays taken when the term is registered again
+		registry.register("2024FA", capacityTestFile);
+		WolfScheduler ws3 = registry.createScheduler("2024FA");
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> ws3.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course CSC 216-001 is full.", e2.getMessage());
+		assertTrue(ws1.removeCourseFromSchedule("CSC 216", "001"));
+		assertTrue(ws3.addCourseToSchedule("CSC 216", "001"));
+		assertEquals(1, registry.getEnrollmentTracker("2024FA").getEnrolled("CSC 216", "001"));
+
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> registry.getEnrollmentTracker("2024SU"));
+		assertEquals("Unknown term.", e3.getMessage());
+	}
+
+	/**
+	 * Tests that schedulers the registry creates keep to the waitlists of sessions sharing the
+	 * term's tracker.
+	 */
+	@Test
+	public void testSharedWaitlist() throws Exception {
+		CatalogRegistry registry = new CatalogRegistry(Long.MAX_VALUE);
+		registry.register("2024FA", capacityTestFile);
+		WolfScheduler ws1 = registry.createScheduler("2024FA");
+		WolfScheduler ws2 = registry.createScheduler("2024FA");
+		ScheduleSessionManager manager = new ScheduleSessionManager(registry.getCatalog("2024FA"), 60000,
+				registry.getEnrollmentTracker("2024FA"));
+		SectionWaitlists waitlists = manager.getWaitlists();
+		assertSame(registry.getEnrollmentTracker("2024FA").getWaitlists(), waitlists);
+
+		assertTrue(ws1.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(manager.getSession("waiting").joinWaitlist("CSC 216", "001"));
+
+		//The seat ws1 drops goes to the waiting session, not to ws2
+		assertTrue(ws1.removeCourseFromSchedule("CSC 216", "001"));
+		long deadline = System.currentTimeMillis() + 10000;
+		while (waitlists.getPromotionCount() == 0 && System.currentTimeMillis() < deadline) {
+			Exception e1 = assertThrows(IllegalArgumentException.class, () -> ws2.addCourseToSchedule("CSC 216", "001"));
+			assertEquals("The course CSC 216-001 is full.", e1.getMessage());
+			Thread.sleep(10);
+		}
+		assertEquals(1, waitlists.getPromotionCount());
+		assertEquals(1, manager.getSession("waiting").getScheduledCourses().length);
+		assertEquals(0, ws2.getScheduledCourses().length);
+
+		//While anyone is waiting, even a section with a free seat can't be added
+		assertTrue(ws2.addCourseToSchedule("CSC 216", "601"));
+		assertTrue(manager.getSession("second").joinWaitlist("CSC 216", "601"));
+		assertTrue(manager.getSession("third").joinWaitlist("CSC 216", "601"));
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> ws1.addCourseToSchedule("CSC 216", "601"));
+		assertEquals("The course CSC 216-601 is full.", e2.getMessage());
+		deadline = System.currentTimeMillis() + 10000;
+		while (waitlists.getPromotionCount() < 2 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertEquals(2, waitlists.getPromotionCount());
+		assertEquals(1, waitlists.getWaitlistLength("CSC 216", "601"));
+
+		//A scheduler's drop promotes the next session in line
+		assertTrue(ws2.removeCourseFromSchedule("CSC 216", "601"));
+		deadline = System.currentTimeMillis() + 10000;
+		while (waitlists.getPromotionCount() < 3 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertEquals(1, manager.getSession("third").getScheduledCourses().length);
+		assertEquals(2, registry.getEnrollmentTracker("2024FA").getEnrolled("CSC 216", "601"));
+	}
+
+	/**
+	 * Tests that the least recently used catalogs are dropped to stay within the budget.
+	 */
+	@Test
+	public void testEviction() {
+		CatalogRegistry sizer = new CatalogRegistry(Long.MAX_VALUE);
+		sizer.register("size", validTestFile);
+		long size = CatalogRegistry.estimateSize(sizer.getCatalog("size"));
+
+		CatalogRegistry registry = new CatalogRegistry(size * 2);
+		registry.register("2024SP", validTestFile);
+		registry.register("2024SU", validTestFile);
+		registry.register("2024FA", validTestFile);
+		registry.getCatalog("2024SP");
+		registry.getCatalog("2024SU");
+		registry.getCatalog("2024SP");
+		assertEquals(0, registry.getEvictionCount());
+
+		//2024SU is the least recently used
+		registry.getCatalog("2024FA");
+		assertTrue(registry.isLoaded("2024SP"));
+		assertFalse(registry.isLoaded("2024SU"));
+		assertTrue(registry.isLoaded("2024FA"));
+		assertEquals(1, registry.getEvictionCount());
+		assertEquals(size * 2, registry.getUsedBytes());
+
+		registry.getCatalog("2024SU");
+		assertFalse(registry.isLoaded("2024SP"));
+		assertEquals(4, registry.getLoadCount());
+
+		//A catalog larger than the budget is still kept by itself
+		CatalogRegistry small = new CatalogRegistry(1);
+		small.register("2024SP", validTestFile);
+		small.register("2024FA", validTestFile);
+		small.getCatalog("2024SP");
+		small.getCatalog("2024FA");
+		assertFalse(small.isLoaded("2024SP"));
+		assertTrue(small.isLoaded("2024FA"));
+	}
+
+	/**
+	 * Tests unknown terms, missing files, and an invalid budget.
+	 */
+	@Test
+	public void testInvalid() {
+		CatalogRegistry registry = new CatalogRegistry(1000);
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> registry.getCatalog("2024FA"));
+		assertEquals("Unknown term.", e1.getMessage());
+
+		registry.register("2024FA", "test-files/no_such_file.txt");
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> registry.getCatalog("2024FA"));
+		assertEquals("Cannot find file.", e2.getMessage());
+		assertFalse(registry.isLoaded("2024FA"));
+
+		//A failed read is tried again on the next use
+		registry.register("2024FA", validTestFile);
+		assertEquals(13, registry.getCatalog("2024FA").size());
+
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> registry.register(null, validTestFile));
+		assertEquals("Invalid term.", e3.getMessage());
+		Exception e4 = assertThrows(IllegalArgumentException.class, () -> new CatalogRegistry(0));
+		assertEquals("Invalid memory budget.", e4.getMessage());
+	}
+
+	/**
+	 * Tests that a read started before its term was registered again with the same file isn't
+	 * kept, so the next use reads the file again.
+	 */
+	@Test
+	public void testRegisterDuringRead() throws Exception {
+		final CountDownLatch reading = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger reads = new AtomicInteger();
+		final CatalogRegistry registry = new CatalogRegistry(Long.MAX_VALUE) {
+			@Override
+			CourseCatalog readCatalog(String fileName) {
+				CourseCatalog catalog = super.readCatalog(fileName);
+				if (reads.getAndIncrement() == 0) {
+					reading.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return catalog;
+			}
+		};
+		registry.register("2024FA", validTestFile);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<CourseCatalog> slow = pool.submit(() -> registry.getCatalog("2024FA"));
+			assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+			//The file was rewritten, so the term is registered again under the same name
+			registry.register("2024FA", validTestFile);
+			release.countDown();
+			CourseCatalog stale = slow.get(10, TimeUnit.SECONDS);
+			assertFalse(registry.isLoaded("2024FA"));
+			assertEquals(0, registry.getLoadCount());
+
+			CourseCatalog fresh = registry.getCatalog("2024FA");
+			assertNotSame(stale, fresh);
+			assertEquals(2, reads.get());
+			assertSame(fresh, registry.getCatalog("2024FA"));
+			assertEquals(1, registry.getLoadCount());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that threads asking for the same catalog at once share a single read.
+	 */
+	@Test
+	public void testConcurrentReads() throws Exception {
+		final CatalogRegistry registry = new CatalogRegistry(Long.MAX_VALUE);
+		registry.register("2024FA", validTestFile);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			ArrayList<Future<CourseCatalog>> results = new ArrayList<Future<CourseCatalog>>();
+			for (int i = 0; i < 32; i++) {
+				results.add(pool.submit(new Callable<CourseCatalog>() {
+					@Override
+					public CourseCatalog call() {
+						return registry.getCatalog("2024FA");
+					}
+				}));
+			}
+			for (Future<CourseCatalog> result : results)
+				assertSame(results.get(0).get(), result.get());
+			assertEquals(1, registry.getLoadCount());
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
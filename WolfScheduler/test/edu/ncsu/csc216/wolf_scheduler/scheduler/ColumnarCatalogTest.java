@@ -0,0 +1,79 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseFieldDictionary;
+
+/**
+ * Tests the ColumnarCatalog class.
+ *
+ * @author Ben Morris
+ */
+public class ColumnarCatalogTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+
+	/**
+	 * Tests that a columnar catalog answers every query the same as the WolfScheduler it was
+	 * copied from.
+	 */
+	@Test
+	public void testMatchesWolfScheduler() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ArrayList<Course> courses = new ArrayList<Course>();
+		for (int i = 0; i < ws.size(); i++)
+			courses.add(ws.getCourse(i));
+		ColumnarCatalog catalog = new ColumnarCatalog(courses);
+
+		assertEquals(ws.size(), catalog.size());
+		assertArrayEquals(ws.getCourseCatalog(), catalog.getCourseCatalog());
+		assertSame(catalog.getCourseCatalog(), catalog.getCourseCatalog());
+		for (int i = 0; i < ws.size(); i++) {
+			Course course = ws.getCourse(i);
+			assertEquals(course.toString(), catalog.getCourse(i).toString());
+			assertEquals(course.getMeetingDaysMask(), catalog.getMeetingDaysMask(i));
+			assertEquals(course.getStartTime(), catalog.getStartTime(i));
+			assertEquals(course.getCredits(), catalog.getCredits(i));
+			assertEquals(i, catalog.indexOf(course.getName(), course.getSection()));
+			assertEquals(course, catalog.getCourseFromCatalog(course.getName(), course.getSection()));
+			assertEquals(ws.getSections(course.getName()), catalog.getSections(course.getName()));
+		}
+
+		assertNull(catalog.getCourseFromCatalog("CSC 492", "001"));
+		assertNull(catalog.getCourseFromCatalog("CSC 216", "003"));
+		assertNull(catalog.getCourseFromCatalog("CSC 216", "Software Development Fundamentals"));
+		assertEquals(-1, catalog.indexOf("CSC 216", "999"));
+		assertEquals(0, catalog.getSections("CSC 492").size());
+		assertEquals(3, catalog.getSections("CSC 216").size());
+		assertThrows(IndexOutOfBoundsException.class, () -> catalog.getCourse(ws.size()));
+	}
+
+	/**
+	 * Tests that repeated sections are kept in the catalog array but only the first is found.
+	 */
+	@Test
+	public void testRepeatedSection() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "tbdimitr", "TH", 1120, 1310));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "jtking", "TH", 910, 1100));
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		CourseFieldDictionary dictionary = new CourseFieldDictionary();
+		ColumnarCatalog catalog = new ColumnarCatalog(courses, dictionary);
+
+		assertSame(dictionary, catalog.getDictionary());
+		assertEquals(4, catalog.getCourseCatalog().length);
+		assertEquals("spbalik", catalog.getCourseFromCatalog("CSC 116", "002").getInstructorId());
+		assertEquals(2, catalog.getSections("CSC 116").size());
+		assertEquals("003", catalog.getSections("CSC 116").get(1).getSection());
+		assertEquals("Arranged", catalog.getCourse(3).getMeetingString());
+		assertEquals(catalog.getNameId(0), catalog.getNameId(2));
+		assertSame(catalog.getTitle(0), catalog.getTitle(1));
+	}
+}
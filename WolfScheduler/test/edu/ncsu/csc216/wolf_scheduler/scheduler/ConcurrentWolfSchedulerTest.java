@@ -0,0 +1,289 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the ConcurrentWolfScheduler class.
+ *
+ * @author Ben Morris
+ */
+public class ConcurrentWolfSchedulerTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+
+	/** Number of threads in the concurrent tests */
+	private static final int THREADS = 8;
+
+	/**
+	 * Tests the schedule operations on one thread.
+	 */
+	@Test
+	public void testSchedule() {
+		ConcurrentWolfScheduler ws = new ConcurrentWolfScheduler(validTestFile);
+		assertEquals("My Schedule", ws.getScheduleTitle());
+		assertEquals(0, ws.getScheduledCourses().length);
+		assertEquals(ws.size(), ws.getCourseCatalog().length);
+		assertEquals(4, ws.getSections("CSC 217").size());
+
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		assertFalse(ws.addCourseToSchedule("CSC 492", "001"));
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> ws.addCourseToSchedule("CSC 216", "601"));
+		assertEquals("You are already enrolled in CSC 216", e1.getMessage());
+		assertTrue(ws.addCourseToSchedule("CSC 116", "001"));
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> ws.addCourseToSchedule("CSC 316", "001"));
+		assertEquals("The course cannot be added due to a conflict with CSC 116-001", e2.getMessage());
+
+		String[][] schedule = ws.getScheduledCourses();
+		assertSame(schedule, ws.getScheduledCourses());
+		assertEquals(2, schedule.length);
+		assertEquals("CSC 216", schedule[0][0]);
+		assertEquals("CSC 116", schedule[1][0]);
+		assertEquals("TH 1:30PM-2:45PM", ws.getFullScheduledCourses()[0][5]);
+
+		assertFalse(ws.removeCourseFromSchedule("CSC 216", "002"));
+		assertTrue(ws.removeCourseFromSchedule("CSC 216", "001"));
+		assertFalse(ws.removeCourseFromSchedule("CSC 216", "001"));
+		assertNotSame(schedule, ws.getScheduledCourses());
+		assertEquals(1, ws.getScheduledCourses().length);
+
+		ws.setScheduleTitle("Spring");
+		assertEquals("Spring", ws.getScheduleTitle());
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> ws.setScheduleTitle(null));
+		assertEquals("Title cannot be null", e3.getMessage());
+		assertEquals(1, ws.getScheduledCourses().length);
+
+		ws.resetSchedule();
+		assertEquals(0, ws.getScheduledCourses().length);
+		assertEquals("Spring", ws.getScheduleTitle());
+	}
+
+	/**
+	 * Tests that replacing the catalog re-resolves the schedule.
+	 */
+	@Test
+	public void testReplaceCatalog() {
+		ConcurrentWolfScheduler ws = new ConcurrentWolfScheduler(validTestFile);
+		assertTrue(ws.addCourseToSchedule("CSC 116", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 217", "211"));
+		Course oldCsc217 = ws.getCourseFromCatalog("CSC 217", "211");
+
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jtking", "MW", 910, 1100));
+		ArrayList<Course> dropped = ws.replaceCatalog(new ListCatalog(courses));
+		assertEquals(1, dropped.size());
+		assertSame(oldCsc217, dropped.get(0));
+		assertEquals(1, ws.size());
+		assertEquals("jtking", ws.getFullScheduledCourses()[0][4]);
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> ws.reloadCatalog("test-files/no_such_file.txt"));
+		assertEquals("Cannot find file.", e.getMessage());
+		assertEquals(0, ws.reloadCatalog(validTestFile).size());
+		assertEquals("jdyoung2", ws.getFullScheduledCourses()[0][4]);
+	}
+
+	/**
+	 * Tests threads adding every section of every Course to one schedule at once.  Each add
+	 * that returns true must still be in the final schedule, which must have no conflicts.
+	 */
+	@Test
+	public void testConcurrentAdds() throws Exception {
+		final ConcurrentWolfScheduler ws = new ConcurrentWolfScheduler(validTestFile);
+		final CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Callable<ArrayList<Course>>> tasks = new ArrayList<Callable<ArrayList<Course>>>();
+		for (int t = 0; t < THREADS; t++) {
+			final int offset = t;
+			tasks.add(() -> {
+				ArrayList<Course> added = new ArrayList<Course>();
+				start.await();
+				for (int i = 0; i < ws.size(); i++) {
+					Course course = ws.getCourse((i + offset) % ws.size());
+					try {
+						if (ws.addCourseToSchedule(course.getName(), course.getSection()))
+							added.add(course);
+					} catch (IllegalArgumentException e) {
+						//Already enrolled or a conflict
+					}
+				}
+				return added;
+			});
+		}
+
+		ArrayList<Course> added = runAll(tasks, start);
+		String[][] schedule = ws.getFullScheduledCourses();
+		assertEquals(added.size(), schedule.length);
+		HashSet<String> names = new HashSet<String>();
+		ScheduleConflictIndex index = new ScheduleConflictIndex();
+		for (int i = 0; i < added.size(); i++) {
+			assertTrue(names.add(added.get(i).getName()));
+			assertNull(index.findConflict(added.get(i)));
+			index.add(added.get(i));
+		}
+	}
+
+	/**
+	 * Tests threads adding and removing their own Course while other threads replace the
+	 * catalog.  The final schedule must only hold Courses of the final catalog.
+	 */
+	@Test
+	public void testConcurrentReplaceCatalog() throws Exception {
+		final ConcurrentWolfScheduler ws = new ConcurrentWolfScheduler(validTestFile);
+		final CourseCatalog first = ws.getCatalog();
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "jctetter", "TH", 1330, 1445));
+		courses.add(new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "jtking", "MWF", 935, 1025));
+		final CourseCatalog second = new ListCatalog(courses);
+		final CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Callable<ArrayList<Course>>> tasks = new ArrayList<Callable<ArrayList<Course>>>();
+		for (int t = 0; t < THREADS - 2; t++) {
+			tasks.add(() -> {
+				start.await();
+				for (int i = 0; i < 500; i++)
+					ws.replaceCatalog(i % 2 == 0 ? second : first);
+				return new ArrayList<Course>();
+			});
+		}
+		for (final String name : new String[] { "CSC 216", "CSC 226" }) {
+			tasks.add(() -> {
+				start.await();
+				for (int i = 0; i < 500; i++) {
+					assertTrue(ws.addCourseToSchedule(name, "001"));
+					assertTrue(ws.removeCourseFromSchedule(name, "001"));
+				}
+				assertTrue(ws.addCourseToSchedule(name, "001"));
+				return new ArrayList<Course>();
+			});
+		}
+		runAll(tasks, start);
+
+		assertSame(first, ws.getCatalog());
+		String[][] schedule = ws.getFullScheduledCourses();
+		assertEquals(2, schedule.length);
+		for (int i = 0; i < schedule.length; i++)
+			assertEquals(first.getCourseFromCatalog(schedule[i][0], schedule[i][1]).getInstructorId(), schedule[i][4]);
+	}
+
+	/**
+	 * Tests threads racing to remove the same Course, which only one of them can do.
+	 */
+	@Test
+	public void testConcurrentRemoves() throws Exception {
+		final ConcurrentWolfScheduler ws = new ConcurrentWolfScheduler(validTestFile);
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 116", "001"));
+		final CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Callable<ArrayList<Course>>> tasks = new ArrayList<Callable<ArrayList<Course>>>();
+		for (int t = 0; t < THREADS; t++) {
+			tasks.add(() -> {
+				ArrayList<Course> removed = new ArrayList<Course>();
+				start.await();
+				if (ws.removeCourseFromSchedule("CSC 216", "001"))
+					removed.add(ws.getCourseFromCatalog("CSC 216", "001"));
+				return removed;
+			});
+		}
+		assertEquals(1, runAll(tasks, start).size());
+		assertEquals(1, ws.getScheduledCourses().length);
+		assertEquals("CSC 116", ws.getScheduledCourses()[0][0]);
+	}
+
+	/**
+	 * Tests schedulers sharing an EnrollmentTracker racing for the seats of one section.  Only
+	 * as many of them as the section has seats can add it.
+	 */
+	@Test
+	public void testConcurrentCapacity() throws Exception {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445, 3));
+		final ListCatalog catalog = new ListCatalog(courses);
+		final EnrollmentTracker enrollment = new EnrollmentTracker();
+		final CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Callable<ArrayList<Course>>> tasks = new ArrayList<Callable<ArrayList<Course>>>();
+		for (int t = 0; t < THREADS; t++) {
+			tasks.add(() -> {
+				ConcurrentWolfScheduler ws = new ConcurrentWolfScheduler(catalog, enrollment);
+				ArrayList<Course> added = new ArrayList<Course>();
+				start.await();
+				try {
+					if (ws.addCourseToSchedule("CSC 216", "001"))
+						added.add(ws.getCourseFromCatalog("CSC 216", "001"));
+				} catch (IllegalArgumentException e) {
+					assertEquals("The course CSC 216-001 is full.", e.getMessage());
+				}
+				return added;
+			});
+		}
+		assertEquals(3, runAll(tasks, start).size());
+		assertEquals(3, enrollment.getEnrolled("CSC 216", "001"));
+		assertEquals(3, enrollment.getClaimCount());
+		assertEquals(THREADS - 3, enrollment.getRejectedCount());
+	}
+
+	/**
+	 * Tests that an add keeps the seat it claimed while it tries again after other threads change
+	 * the state, so every seat is claimed exactly once.
+	 */
+	@Test
+	public void testClaimOncePerAdd() throws Exception {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		for (int t = 0; t < THREADS; t++)
+			courses.add(new Course("CSC " + (100 + t), "Title", "001", 3, "sesmith5", "A", 0, 0, 1));
+		final ConcurrentWolfScheduler ws = new ConcurrentWolfScheduler(new ListCatalog(courses));
+		final CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Callable<ArrayList<Course>>> tasks = new ArrayList<Callable<ArrayList<Course>>>();
+		for (int t = 0; t < THREADS; t++) {
+			final String name = "CSC " + (100 + t);
+			tasks.add(() -> {
+				start.await();
+				for (int i = 0; i < 500; i++) {
+					assertTrue(ws.addCourseToSchedule(name, "001"));
+					assertTrue(ws.removeCourseFromSchedule(name, "001"));
+					ws.setScheduleTitle(name);
+				}
+				return new ArrayList<Course>();
+			});
+		}
+		runAll(tasks, start);
+
+		assertEquals(THREADS * 500, ws.getEnrollmentTracker().getClaimCount());
+		assertEquals(0, ws.getEnrollmentTracker().getRejectedCount());
+		for (int t = 0; t < THREADS; t++)
+			assertEquals(0, ws.getEnrollmentTracker().getEnrolled("CSC " + (100 + t), "001"));
+	}
+
+	/**
+	 * Runs the tasks on their own threads, starts them together, and collects their results
+	 * @param tasks tasks to run
+	 * @param start latch the tasks wait on
+	 * @return every Course the tasks returned
+	 * @throws Exception if a task failed
+	 */
+	private static ArrayList<Course> runAll(ArrayList<Callable<ArrayList<Course>>> tasks, CountDownLatch start)
+			throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+		try {
+			ArrayList<Future<ArrayList<Course>>> results = new ArrayList<Future<ArrayList<Course>>>();
+			for (int i = 0; i < tasks.size(); i++)
+				results.add(pool.submit(tasks.get(i)));
+			start.countDown();
+			ArrayList<Course> courses = new ArrayList<Course>();
+			for (int i = 0; i < results.size(); i++)
+				courses.addAll(results.get(i).get());
+			return courses;
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the EnrollmentTracker class.
+ *
+ * @author Ben Morris
+ */
+public class EnrollmentTrackerTest {
+
+	/** Number of threads in the concurrent test */
+	private static final int THREADS = 8;
+
+	/** Section with two seats */
+	private final Course limited = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445, 2);
+	/** Section with no capacity */
+	private final Course unlimited = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A", 0, 0);
+
+	/**
+	 * Tests claiming and releasing seats.
+	 */
+	@Test
+	public void testClaimSeat() {
+		EnrollmentTracker enrollment = new EnrollmentTracker();
+		assertEquals(0, enrollment.getEnrolled("CSC 216", "001"));
+		assertFalse(enrollment.isFull(limited));
+
+		assertTrue(enrollment.claimSeat(limited));
+		assertTrue(enrollment.claimSeat(limited));
+		assertTrue(enrollment.isFull(limited));
+		assertFalse(enrollment.claimSeat(limited));
+		assertEquals(2, enrollment.getEnrolled("CSC 216", "001"));
+		assertEquals(2, enrollment.getClaimCount());
+		assertEquals(1, enrollment.getRejectedCount());
+
+		enrollment.releaseSeat(limited);
+		assertFalse(enrollment.isFull(limited));
+		assertTrue(enrollment.claimSeat(limited));
+		assertEquals(3, enrollment.getClaimCount());
+
+		//Sections without a capacity are never full
+		for (int i = 0; i < 5; i++)
+			assertTrue(enrollment.claimSeat(unlimited));
+		assertFalse(enrollment.isFull(unlimited));
+		assertEquals(5, enrollment.getEnrolled("CSC 216", "601"));
+
+		//Releasing a seat that wasn't claimed changes nothing
+		EnrollmentTracker empty = new EnrollmentTracker();
+		empty.releaseSeat(limited);
+		assertEquals(0, empty.getEnrolled("CSC 216", "001"));
+		assertTrue(empty.claimSeat(limited));
+		empty.releaseSeat(limited);
+		empty.releaseSeat(limited);
+		assertEquals(0, empty.getEnrolled("CSC 216", "001"));
+	}
+
+	/**
+	 * Tests threads claiming and releasing seats at once.  The section must never be enrolled
+	 * past its capacity, and every claim must be counted as claimed or rejected.
+	 */
+	@Test
+	public void testConcurrentClaims() throws Exception {
+		final EnrollmentTracker enrollment = new EnrollmentTracker();
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			ArrayList<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < THREADS; t++) {
+				results.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						start.await();
+						int claimed = 0;
+						for (int i = 0; i < 1000; i++) {
+							if (enrollment.claimSeat(limited)) {
+								assertTrue(enrollment.getEnrolled("CSC 216", "001") <= limited.getCapacity());
+								claimed++;
+								if (i % 2 == 0) {
+									enrollment.releaseSeat(limited);
+									claimed--;
+								}
+							}
+						}
+						return claimed;
+					}
+				}));
+			}
+			start.countDown();
+			int held = 0;
+			for (int i = 0; i < results.size(); i++)
+				held += results.get(i).get();
+			assertEquals(held, enrollment.getEnrolled("CSC 216", "001"));
+			assertTrue(held <= limited.getCapacity());
+			assertEquals(THREADS * 1000, enrollment.getClaimCount() + enrollment.getRejectedCount());
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
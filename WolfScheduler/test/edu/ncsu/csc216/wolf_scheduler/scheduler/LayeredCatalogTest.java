@@ -0,0 +1,193 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the LayeredCatalog class.
+ *
+ * @author Ben Morris
+ */
+public class LayeredCatalogTest {
+
+	/** Orders catalog array rows by name and section */
+	private static final Comparator<String[]> BY_KEY = new Comparator<String[]>() {
+		@Override
+		public int compare(String[] a, String[] b) {
+			int byName = a[0].compareTo(b[0]);
+			return byName != 0 ? byName : a[1].compareTo(b[1]);
+		}
+	};
+
+	/**
+	 * Tests the order of rows and sections after a delta, and that the old catalog is unchanged.
+	 */
+	@Test
+	public void testApply() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(course("CSC 116", "001", "jdyoung2"));
+		courses.add(course("CSC 116", "002", "spbalik"));
+		courses.add(course("CSC 216", "001", "sesmith5"));
+		courses.add(course("CSC 116", "001", "jtking"));
+		CourseCatalog base = new ListCatalog(courses);
+
+		CatalogDelta delta = new CatalogDelta().add(course("CSC 316", "001", "jtking")).update(course("CSC 116", "001", "ixdoming"))
+				.add(course("CSC 116", "003", "tbdimitr")).remove("CSC 116", "002");
+		CourseCatalog applied = LayeredCatalog.apply(base, delta);
+
+		assertEquals("ixdoming", applied.getCourseFromCatalog("CSC 116", "001").getInstructorId());
+		assertNull(applied.getCourseFromCatalog("CSC 116", "002"));
+		assertEquals("tbdimitr", applied.getCourseFromCatalog("CSC 116", "003").getInstructorId());
+		ArrayList<Course> sections = applied.getSections("CSC 116");
+		assertEquals(2, sections.size());
+		assertEquals("001", sections.get(0).getSection());
+		assertEquals("003", sections.get(1).getSection());
+
+		//The repeated base row is left out, and added Courses follow the base rows
+		assertEquals(4, applied.size());
+		String[][] rows = applied.getCourseCatalog();
+		assertEquals("CSC 116", rows[0][0]);
+		assertEquals("CSC 216", rows[1][0]);
+		assertEquals("CSC 316", rows[2][0]);
+		assertEquals("003", rows[3][1]);
+		assertEquals("ixdoming", applied.getCourse(0).getInstructorId());
+
+		assertEquals(4, base.size());
+		assertEquals("spbalik", base.getCourseFromCatalog("CSC 116", "002").getInstructorId());
+		assertEquals("jdyoung2", base.getCourseFromCatalog("CSC 116", "001").getInstructorId());
+
+		//A second delta adds a layer over the same base
+		CourseCatalog twice = LayeredCatalog.apply(applied, new CatalogDelta().remove("CSC 316", "001")
+				.add(course("CSC 116", "002", "jctetter")));
+		assertSame(base, ((LayeredCatalog) twice).getBase());
+		assertEquals(2, ((LayeredCatalog) twice).getLayerCount());
+		assertEquals("jctetter", twice.getCourseFromCatalog("CSC 116", "002").getInstructorId());
+		assertEquals(3, twice.getSections("CSC 116").size());
+		assertEquals(0, twice.getSections("CSC 316").size());
+		assertEquals(4, applied.size());
+
+		//The rows are made from the rows of the first delta, reusing the unchanged ones, and a base
+		//section that is added back returns to its place
+		String[][] twiceRows = twice.getCourseCatalog();
+		assertEquals(4, twiceRows.length);
+		assertSame(rows[0], twiceRows[0]);
+		assertEquals("002", twiceRows[1][1]);
+		assertSame(rows[1], twiceRows[2]);
+		assertArrayEquals(rows[3], twiceRows[3]);
+		assertSame(twiceRows, twice.getCourseCatalog());
+		assertEquals("jctetter", twice.getCourse(1).getInstructorId());
+		assertEquals(1, twice.indexOf("CSC 116", "002"));
+		assertEquals(3, twice.indexOf("CSC 116", "003"));
+		assertEquals(-1, twice.indexOf("CSC 316", "001"));
+		assertThrows(IndexOutOfBoundsException.class, () -> twice.getCourse(4));
+	}
+
+	/**
+	 * Tests that an invalid change leaves the catalog unchanged.
+	 */
+	@Test
+	public void testApplyInvalid() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(course("CSC 116", "001", "jdyoung2"));
+		CourseCatalog base = new ListCatalog(courses);
+
+		Exception e1 = assertThrows(IllegalArgumentException.class,
+				() -> LayeredCatalog.apply(base, new CatalogDelta().add(course("CSC 116", "001", "jtking"))));
+		assertEquals("The course CSC 116-001 is already in the catalog.", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class,
+				() -> LayeredCatalog.apply(base, new CatalogDelta().remove("CSC 116", "001").update(course("CSC 116", "001", "jtking"))));
+		assertEquals("The course CSC 116-001 is not in the catalog.", e2.getMessage());
+		Exception e3 = assertThrows(IllegalArgumentException.class,
+				() -> LayeredCatalog.apply(base, new CatalogDelta().remove("CSC 216", "001")));
+		assertEquals("The course CSC 216-001 is not in the catalog.", e3.getMessage());
+		assertEquals("jdyoung2", base.getCourseFromCatalog("CSC 116", "001").getInstructorId());
+	}
+
+	/**
+	 * Tests many random deltas, through merged layers and new bases, against a map of the Courses.
+	 * The rows of a catalog whose rows are built after every delta must be in the same order as
+	 * those of a catalog whose rows are only built now and then.
+	 */
+	@Test
+	public void testRandomDeltas() {
+		Random random = new Random(216);
+		LinkedHashMap<String, Course> expected = new LinkedHashMap<String, Course>();
+		ArrayList<Course> courses = new ArrayList<Course>();
+		for (int i = 0; i < 300; i++) {
+			Course course = course("CSC " + (100 + i / 3), String.format("%03d", i % 3 + 1), "inst" + i);
+			courses.add(course);
+			expected.put(CatalogDelta.key(course.getName(), course.getSection()), course);
+		}
+		CourseCatalog catalog = new ListCatalog(courses);
+		CourseCatalog rebuilt = catalog;
+
+		boolean merged = false;
+		boolean rebased = false;
+		for (int round = 0; round < 200; round++) {
+			CatalogDelta delta = new CatalogDelta();
+			for (int j = 0; j < 10; j++) {
+				Course course = course("CSC " + (100 + random.nextInt(110)), String.format("%03d", random.nextInt(4) + 1),
+						"inst" + random.nextInt(1000));
+				String key = CatalogDelta.key(course.getName(), course.getSection());
+				if (!expected.containsKey(key)) {
+					delta.add(course);
+					expected.put(key, course);
+				} else if (random.nextBoolean()) {
+					delta.update(course);
+					expected.put(key, course);
+				} else {
+					delta.remove(course.getName(), course.getSection());
+					expected.remove(key);
+				}
+			}
+			catalog = LayeredCatalog.apply(catalog, delta);
+			rebuilt = LayeredCatalog.apply(rebuilt, delta);
+			String[][] rows = catalog.getCourseCatalog();
+			if (catalog instanceof LayeredCatalog)
+				merged |= ((LayeredCatalog) catalog).getLayerCount() == 1 && round > LayeredCatalog.MAX_LAYERS;
+			else
+				rebased = true;
+
+			for (String key : expected.keySet()) {
+				Course course = expected.get(key);
+				assertSame(course, catalog.getCourseFromCatalog(course.getName(), course.getSection()));
+				assertSame(course, catalog.getCourse(catalog.indexOf(course.getName(), course.getSection())));
+			}
+			assertEquals(-1, catalog.indexOf("CSC 999", "001"));
+			if (round % 20 == 0) {
+				assertArrayEquals(rebuilt.getCourseCatalog(), rows);
+				assertEquals(rows.length, catalog.size());
+				assertEquals(rows[rows.length - 1][1], catalog.getCourse(rows.length - 1).getSection());
+				String[][] expectedRows = new String[expected.size()][];
+				int i = 0;
+				for (Course course : expected.values())
+					expectedRows[i++] = new String[] { course.getName(), course.getSection(), course.getTitle() };
+				Arrays.sort(rows = rows.clone(), BY_KEY);
+				Arrays.sort(expectedRows, BY_KEY);
+				assertArrayEquals(expectedRows, rows);
+			}
+		}
+		assertTrue(merged);
+		assertTrue(rebased);
+	}
+
+	/**
+	 * Creates a Course with the given name, section, and instructor
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @param instructorId instructor of the Course
+	 * @return the Course
+	 */
+	private static Course course(String name, String section, String instructorId) {
+		return new Course(name, "Title", section, 3, instructorId, "A");
+	}
+}
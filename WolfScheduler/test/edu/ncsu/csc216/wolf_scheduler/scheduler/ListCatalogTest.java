@@ -0,0 +1,50 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the ListCatalog class.
+ *
+ * @author Ben Morris
+ */
+public class ListCatalogTest {
+
+	/**
+	 * Tests lookups, repeated sections, and the catalog array.
+	 */
+	@Test
+	public void testListCatalog() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "tbdimitr", "TH", 1120, 1310));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "jtking", "TH", 910, 1100));
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		ListCatalog catalog = new ListCatalog(courses);
+
+		assertEquals(4, catalog.size());
+		assertSame(courses.get(2), catalog.getCourse(2));
+		assertSame(courses.get(0), catalog.getCourseFromCatalog("CSC 116", "002"));
+		assertNull(catalog.getCourseFromCatalog("CSC 116", "001"));
+		assertNull(catalog.getCourseFromCatalog("CSC 492", "001"));
+		assertEquals(0, catalog.indexOf("CSC 116", "002"));
+		assertEquals(3, catalog.indexOf("CSC 216", "601"));
+		assertEquals(-1, catalog.indexOf("CSC 116", "001"));
+		assertEquals(-1, catalog.indexOf("CSC 492", "001"));
+		assertEquals(2, catalog.getSections("CSC 116").size());
+		assertSame(courses.get(1), catalog.getSections("CSC 116").get(1));
+		assertEquals(0, catalog.getSections("CSC 492").size());
+
+		String[][] array = catalog.getCourseCatalog();
+		assertEquals(4, array.length);
+		assertEquals("CSC 216", array[3][0]);
+		assertEquals("601", array[3][1]);
+		assertEquals("Software Development Fundamentals", array[3][2]);
+		assertSame(array, catalog.getCourseCatalog());
+	}
+}
@@ -0,0 +1,180 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Tests the OffHeapCatalog class.
+ *
+ * @author Ben Morris
+ */
+public class OffHeapCatalogTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Off-heap catalog written by the tests */
+	private final String catalogFile = "test-files/actual_offheap_catalog.dat";
+	/** Off-heap catalog that is changed after it is written */
+	private final String corruptFile = "test-files/actual_corrupt_offheap_catalog.dat";
+
+	/**
+	 * Tests that direct and mapped catalogs answer every query the same as a ListCatalog.
+	 */
+	@Test
+	public void testMatchesListCatalog() {
+		try {
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile);
+			OffHeapCatalog direct = new OffHeapCatalog(courses);
+			direct.save(catalogFile);
+			OffHeapCatalog mapped = OffHeapCatalog.map(catalogFile);
+			assertEquals(direct.getByteSize(), mapped.getByteSize());
+			assertMatches(new ListCatalog(courses), direct);
+			assertMatches(new ListCatalog(courses), mapped);
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+	}
+
+	/**
+	 * Checks that a catalog answers every query the same as the expected catalog
+	 * @param expected catalog with the expected answers
+	 * @param catalog catalog to check
+	 */
+	private static void assertMatches(CourseCatalog expected, OffHeapCatalog catalog) {
+		assertEquals(expected.size(), catalog.size());
+		assertArrayEquals(expected.getCourseCatalog(), catalog.getCourseCatalog());
+		OffHeapCatalog.Cursor cursor = catalog.cursor();
+		for (int i = 0; i < expected.size(); i++) {
+			Course course = expected.getCourse(i);
+			assertEquals(course.toString(), catalog.getCourse(i).toString());
+			assertEquals(i, catalog.indexOf(course.getName(), course.getSection()));
+			assertEquals(course, catalog.getCourseFromCatalog(course.getName(), course.getSection()));
+			assertEquals(expected.getSections(course.getName()), catalog.getSections(course.getName()));
+
+			cursor.moveTo(i);
+			assertEquals(i, cursor.getRow());
+			assertEquals(course.getName(), cursor.getName());
+			assertEquals(course.getTitle(), cursor.getTitle());
+			assertEquals(course.getSection(), cursor.getSection());
+			assertEquals(course.getCredits(), cursor.getCredits());
+			assertEquals(course.getInstructorId(), cursor.getInstructorId());
+			assertEquals(course.getMeetingDays(), cursor.getMeetingDays());
+			assertEquals(course.getStartTime(), cursor.getStartTime());
+			assertEquals(course.getEndTime(), cursor.getEndTime());
+			assertEquals(course.getMeetingDaysMask(), cursor.getMeetingDaysMask());
+			assertEquals(course.toString(), cursor.toCourse().toString());
+		}
+		assertNull(catalog.getCourseFromCatalog("CSC 492", "001"));
+		assertNull(catalog.getCourseFromCatalog("CSC 216", "003"));
+		assertEquals(-1, catalog.indexOf("CSC 216", "Software Development Fundamentals"));
+		assertEquals(0, catalog.getSections("CSC 492").size());
+		assertThrows(IndexOutOfBoundsException.class, () -> catalog.getCourse(expected.size()));
+		assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(-1));
+	}
+
+	/**
+	 * Tests repeated sections, non-ASCII fields, and an empty catalog.
+	 */
+	@Test
+	public void testEncoding() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "jtking", "TH", 910, 1100));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "tbdimitr", "TH", 1120, 1310));
+		courses.add(new Course("CSC 216", "D\u00e9veloppement \u2013 \u4e2d\u6587", "601", 3, "jctetter", "A"));
+		OffHeapCatalog catalog = new OffHeapCatalog(courses);
+
+		assertEquals(4, catalog.getCourseCatalog().length);
+		assertSame(catalog.getCourseCatalog(), catalog.getCourseCatalog());
+		assertEquals("spbalik", catalog.getCourseFromCatalog("CSC 116", "002").getInstructorId());
+		assertEquals(2, catalog.getSections("CSC 116").size());
+		assertEquals("003", catalog.getSections("CSC 116").get(1).getSection());
+		assertEquals(courses.get(3).getTitle(), catalog.getCourse(3).getTitle());
+		assertEquals("Arranged", catalog.getCourse(3).getMeetingString());
+
+		OffHeapCatalog empty = new OffHeapCatalog(new ArrayList<Course>());
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.getCourseCatalog().length);
+		assertNull(empty.getCourseFromCatalog("CSC 116", "001"));
+	}
+
+	/**
+	 * Tests that missing and changed files are rejected when they are mapped.
+	 */
+	@Test
+	public void testMapInvalid() {
+		assertThrows(FileNotFoundException.class, () -> OffHeapCatalog.map("test-files/no_such_catalog.dat"));
+		Exception e1 = assertThrows(IOException.class, () -> OffHeapCatalog.map(validTestFile));
+		assertEquals("Invalid off-heap catalog.", e1.getMessage());
+
+		//Point the first row's title past the end of the string region
+		assertCorrupt(24, Integer.MAX_VALUE);
+		//Give the first row invalid credits, a start time after its end time, and a mask that
+		//doesn't match its meeting days
+		assertCorrupt(40, 0);
+		assertCorrupt(44, 2000);
+		assertCorrupt(52, Course.MONDAY);
+	}
+
+	/**
+	 * Writes the valid catalog with one int changed and checks that mapping it fails
+	 * @param position position of the int to change
+	 * @param value value to write there
+	 */
+	private void assertCorrupt(int position, int value) {
+		try {
+			new OffHeapCatalog(CourseRecordIO.readCourseRecords(validTestFile)).save(corruptFile);
+			try (RandomAccessFile file = new RandomAccessFile(corruptFile, "rw")) {
+				file.seek(position);
+				file.writeInt(value);
+			}
+		} catch (IOException e) {
+			fail("Unexpected IOException");
+		}
+		Exception e = assertThrows(IOException.class, () -> OffHeapCatalog.map(corruptFile));
+		assertEquals("Invalid off-heap catalog.", e.getMessage());
+	}
+
+	/**
+	 * Tests a WolfScheduler over an off-heap catalog.
+	 */
+	@Test
+	public void testWolfScheduler() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ArrayList<Course> courses = new ArrayList<Course>();
+		for (int i = 0; i < ws.size(); i++)
+			courses.add(ws.getCourse(i));
+		WolfScheduler offHeap = new WolfScheduler(new OffHeapCatalog(courses));
+
+		assertArrayEquals(ws.getCourseCatalog(), offHeap.getCourseCatalog());
+		assertTrue(offHeap.addCourseToSchedule("CSC 216", "001"));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> offHeap.addCourseToSchedule("CSC 216", "002"));
+		assertEquals("You are already enrolled in CSC 216", e.getMessage());
+		assertFalse(offHeap.removeCourseFromSchedule("CSC 216", "002"));
+		assertTrue(offHeap.removeCourseFromSchedule("CSC 216", "001"));
+		assertEquals(0, offHeap.getScheduledCourses().length);
+		assertEquals(ws.generateSchedules(names(), 100, 0),
+				offHeap.generateSchedules(names(), 100, 0));
+	}
+
+	/**
+	 * Returns the names used for generating schedules
+	 * @return the names
+	 */
+	private static ArrayList<String> names() {
+		ArrayList<String> names = new ArrayList<String>();
+		names.add("CSC 116");
+		names.add("CSC 216");
+		names.add("CSC 217");
+		return names;
+	}
+}
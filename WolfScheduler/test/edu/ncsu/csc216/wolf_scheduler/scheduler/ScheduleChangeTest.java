@@ -0,0 +1,35 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ScheduleChange class.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleChangeTest {
+
+	/**
+	 * Tests recording adds and drops.
+	 */
+	@Test
+	public void testChanges() {
+		ScheduleChange change = new ScheduleChange().add("CSC 216", "002").drop("CSC 216", "001").add("CSC 217", "202");
+		assertEquals(3, change.size());
+		assertEquals(2, change.getAddCount());
+		assertEquals(1, change.getDropCount());
+		assertEquals("2 added, 1 dropped", change.toString());
+		assertEquals("CSC 217", change.getAddName(1));
+		assertEquals("202", change.getAddSection(1));
+		assertEquals("CSC 216", change.getDropName(0));
+		assertEquals("001", change.getDropSection(0));
+
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> change.add(null, "001"));
+		assertEquals("Invalid course.", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> change.drop("CSC 216", null));
+		assertEquals("Invalid course.", e2.getMessage());
+		assertEquals(3, change.size());
+	}
+}
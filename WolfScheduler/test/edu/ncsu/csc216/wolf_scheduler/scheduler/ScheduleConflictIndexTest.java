@@ -0,0 +1,97 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the ScheduleConflictIndex class.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleConflictIndexTest {
+
+	/** Course meeting Monday and Wednesday mornings */
+	private final Course morning = new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100);
+	/** Course meeting Monday and Wednesday afternoons */
+	private final Course afternoon = new Course("CSC 216", "Software Development Fundamentals", "002", 3, "ixdoming", "MW", 1330, 1445);
+	/** Arranged Course */
+	private final Course arranged = new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A");
+
+	/**
+	 * Tests findConflict() against Courses before, between, and after the indexed Courses.
+	 */
+	@Test
+	public void testFindConflict() {
+		ScheduleConflictIndex index = new ScheduleConflictIndex();
+		index.add(morning);
+		index.add(afternoon);
+		index.add(arranged);
+
+		assertSame(morning, index.getCourse("CSC 116"));
+		assertSame(arranged, index.getCourse("CSC 217"));
+		assertNull(index.getCourse("CSC 226"));
+
+		//Between the two Courses
+		assertNull(index.findConflict(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "W", 1101, 1329)));
+		//Overlaps the end of the morning Course on Wednesday only
+		assertSame(morning, index.findConflict(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "WF", 1045, 1200)));
+		//Starts the minute the afternoon Course ends
+		assertSame(afternoon, index.findConflict(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "M", 1445, 1600)));
+		//Contains the afternoon Course
+		assertSame(afternoon, index.findConflict(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "MTWHF", 1200, 1700)));
+		//Same times on other days
+		assertNull(index.findConflict(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "THF", 910, 1445)));
+		//Arranged Courses never conflict
+		assertNull(index.findConflict(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "A")));
+	}
+
+	/**
+	 * Tests that remove() and clear() free the times of the removed Courses.
+	 */
+	@Test
+	public void testRemoveAndClear() {
+		ScheduleConflictIndex index = new ScheduleConflictIndex();
+		index.add(morning);
+		index.add(afternoon);
+		Course overlap = new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1000, 1400);
+
+		index.remove(morning);
+		assertNull(index.getCourse("CSC 116"));
+		assertSame(afternoon, index.findConflict(overlap));
+
+		index.clear();
+		assertNull(index.getCourse("CSC 216"));
+		assertNull(index.findConflict(overlap));
+	}
+
+	/**
+	 * Tests that plus() and minus() return changed indexes and leave the old ones unchanged.
+	 */
+	@Test
+	public void testPlusAndMinus() {
+		ScheduleConflictIndex empty = new ScheduleConflictIndex();
+		ScheduleConflictIndex one = empty.plus(morning);
+		ScheduleConflictIndex two = one.plus(afternoon);
+		ScheduleConflictIndex three = two.plus(arranged);
+		Course mondayMorning = new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "M", 1000, 1030);
+		Course mondayAfternoon = new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "M", 1400, 1430);
+
+		assertNull(empty.getCourse("CSC 116"));
+		assertNull(empty.findConflict(mondayMorning));
+		assertSame(morning, one.findConflict(mondayMorning));
+		assertNull(one.findConflict(mondayAfternoon));
+		assertSame(afternoon, two.findConflict(mondayAfternoon));
+		assertNull(two.getCourse("CSC 217"));
+		assertSame(arranged, three.getCourse("CSC 217"));
+
+		ScheduleConflictIndex withoutMorning = three.minus(morning);
+		assertNull(withoutMorning.findConflict(mondayMorning));
+		assertSame(afternoon, withoutMorning.findConflict(mondayAfternoon));
+		assertNull(withoutMorning.getCourse("CSC 116"));
+		assertSame(morning, three.findConflict(mondayMorning));
+		assertSame(morning, three.getCourse("CSC 116"));
+	}
+}
@@ -0,0 +1,156 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the ScheduleGenerator class.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleGeneratorTest {
+
+	/** Meeting days used for random sections */
+	private static final String[] DAYS = { "MW", "TH", "MWF", "F", "MTWHF", "A" };
+	/** Instructors used for random sections */
+	private static final String[] INSTRUCTORS = { "sesmith5", "jdyoung2", "tmbarnes", "dbsturgi" };
+
+	/**
+	 * Tests generate() on a small set of courses whose schedules are known.
+	 */
+	@Test
+	public void testGenerate() {
+		ArrayList<ArrayList<Course>> sectionsByCourse = new ArrayList<ArrayList<Course>>();
+		ArrayList<Course> csc116 = new ArrayList<Course>();
+		csc116.add(new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+		csc116.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310));
+		sectionsByCourse.add(csc116);
+		ArrayList<Course> csc226 = new ArrayList<Course>();
+		csc226.add(new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025));
+		sectionsByCourse.add(csc226);
+		ArrayList<Course> csc230 = new ArrayList<Course>();
+		csc230.add(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1145, 1300));
+		csc230.add(new Course("CSC 230", "C and Software Tools", "601", 3, "dbsturgi", "A"));
+		sectionsByCourse.add(csc230);
+
+		ScheduleGenerator generator = new ScheduleGenerator(sectionsByCourse);
+		ArrayList<ArrayList<Course>> schedules = generator.generate(10, 0);
+		assertEquals(1, schedules.size());
+		assertSame(csc116.get(1), schedules.get(0).get(0));
+		assertSame(csc226.get(0), schedules.get(0).get(1));
+		assertSame(csc230.get(1), schedules.get(0).get(2));
+
+		//A course without sections can't be scheduled
+		sectionsByCourse.add(new ArrayList<Course>());
+		assertEquals(0, new ScheduleGenerator(sectionsByCourse).generate(10, 0).size());
+		assertEquals(0, new ScheduleGenerator(new ArrayList<ArrayList<Course>>()).generate(10, 0).size());
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> generator.generate(0, 0));
+		assertEquals("Invalid result limit.", e.getMessage());
+	}
+
+	/**
+	 * Tests that generate() finds the same schedules, in the same order, as checking every
+	 * combination, and that the result limit keeps the first schedules.
+	 */
+	@Test
+	public void testGenerateMatchesExhaustiveSearch() {
+		ArrayList<ArrayList<Course>> sectionsByCourse = randomSections(new Random(216));
+
+		ArrayList<ArrayList<Course>> expected = new ArrayList<ArrayList<Course>>();
+		exhaustiveSearch(sectionsByCourse, new ArrayList<Course>(), expected);
+		assertTrue(expected.size() > 10);
+
+		ScheduleGenerator generator = new ScheduleGenerator(sectionsByCourse);
+		assertEquals(expected, generator.generate(Integer.MAX_VALUE, 0));
+		assertEquals(expected, generator.generate(Integer.MAX_VALUE, 0, new ForkJoinPool(1)));
+		assertEquals(expected.subList(0, 10), generator.generate(10, 0));
+		assertEquals(expected, generator.generate(Integer.MAX_VALUE, 60000));
+	}
+
+	/**
+	 * Tests that generateBest() returns schedules with the same scores as the best of every
+	 * combination, for each built-in scorer.
+	 */
+	@Test
+	public void testGenerateBestMatchesExhaustiveSearch() {
+		ArrayList<ArrayList<Course>> sectionsByCourse = randomSections(new Random(316));
+		ArrayList<ArrayList<Course>> all = new ArrayList<ArrayList<Course>>();
+		exhaustiveSearch(sectionsByCourse, new ArrayList<Course>(), all);
+		ScheduleGenerator generator = new ScheduleGenerator(sectionsByCourse);
+
+		ScheduleScorer[] scorers = { ScheduleScorers.fewestDays(), ScheduleScorers.noClassesBefore(1000),
+				ScheduleScorers.minimalGaps(), ScheduleScorers.preferredInstructors("jdyoung2", "sesmith5"),
+				ScheduleScorers.weighted(new double[] { 100, 1 }, ScheduleScorers.fewestDays(), ScheduleScorers.minimalGaps()) };
+		for (ScheduleScorer scorer : scorers) {
+			ArrayList<Double> expected = new ArrayList<Double>();
+			for (ArrayList<Course> schedule : all)
+				expected.add(scorer.score(schedule));
+			Collections.sort(expected, Collections.reverseOrder());
+
+			ArrayList<ArrayList<Course>> best = generator.generateBest(10, scorer, 0);
+			assertEquals(10, best.size());
+			for (int i = 0; i < best.size(); i++) {
+				assertTrue(all.contains(best.get(i)));
+				assertEquals(expected.get(i), scorer.score(best.get(i)), 0);
+			}
+		}
+
+		assertEquals(all.size(), generator.generateBest(Integer.MAX_VALUE - 1, ScheduleScorers.fewestDays(), 0).size());
+		Exception e = assertThrows(IllegalArgumentException.class, () -> generator.generateBest(0, ScheduleScorers.fewestDays(), 0));
+		assertEquals("Invalid result limit.", e.getMessage());
+	}
+
+	/**
+	 * Creates five courses with random sections
+	 * @param random source of the meeting days, times, and instructors
+	 * @return the sections of each course
+	 */
+	private static ArrayList<ArrayList<Course>> randomSections(Random random) {
+		ArrayList<ArrayList<Course>> sectionsByCourse = new ArrayList<ArrayList<Course>>();
+		for (int i = 0; i < 5; i++) {
+			ArrayList<Course> sections = new ArrayList<Course>();
+			for (int j = 0; j < 6 + i * 3; j++) {
+				String days = DAYS[random.nextInt(DAYS.length)];
+				int start = "A".equals(days) ? 0 : 800 + random.nextInt(10) * 100;
+				int end = "A".equals(days) ? 0 : start + 50;
+				sections.add(new Course("CSC 2" + i + "0", "Title", String.format("%03d", j + 1), 3,
+						INSTRUCTORS[random.nextInt(INSTRUCTORS.length)], days, start, end));
+			}
+			sectionsByCourse.add(sections);
+		}
+		return sectionsByCourse;
+	}
+
+	/**
+	 * Adds every conflict-free combination to the schedules in order
+	 * @param sectionsByCourse sections of each course
+	 * @param partial sections chosen so far
+	 * @param schedules list of schedules found
+	 */
+	private static void exhaustiveSearch(ArrayList<ArrayList<Course>> sectionsByCourse, ArrayList<Course> partial,
+			ArrayList<ArrayList<Course>> schedules) {
+		if (partial.size() == sectionsByCourse.size()) {
+			schedules.add(new ArrayList<Course>(partial));
+			return;
+		}
+		for (Course section : sectionsByCourse.get(partial.size())) {
+			boolean conflict = false;
+			for (Course chosen : partial)
+				conflict |= chosen.isConflict(section);
+			if (!conflict) {
+				partial.add(section);
+				exhaustiveSearch(sectionsByCourse, partial, schedules);
+				partial.remove(partial.size() - 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the ScheduleScorers class.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleScorersTest {
+
+	/** Course meeting Monday and Wednesday mornings */
+	private final Course morning = new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100);
+	/** Course meeting Monday, Wednesday, and Friday at noon */
+	private final Course noon = new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 1200, 1250);
+	/** Course meeting Tuesday and Thursday afternoons */
+	private final Course afternoon = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+	/** Arranged Course */
+	private final Course arranged = new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A");
+
+	/**
+	 * Tests the scores of the built-in scorers.
+	 */
+	@Test
+	public void testScore() {
+		ArrayList<Course> schedule = new ArrayList<Course>();
+		schedule.add(morning);
+		schedule.add(noon);
+		schedule.add(afternoon);
+		schedule.add(arranged);
+
+		assertEquals(-5, ScheduleScorers.fewestDays().score(schedule), 0);
+		assertEquals(-1, ScheduleScorers.noClassesBefore(1000).score(schedule), 0);
+		assertEquals(0, ScheduleScorers.noClassesBefore(800).score(schedule), 0);
+		//60 minutes between the morning and noon classes on Monday and Wednesday
+		assertEquals(-120, ScheduleScorers.minimalGaps().score(schedule), 0);
+		assertEquals(2, ScheduleScorers.preferredInstructors("sesmith5").score(schedule), 0);
+		assertEquals(3, ScheduleScorers.preferredInstructors("sesmith5", "jdyoung2").score(schedule), 0);
+		assertEquals(-500 - 120, ScheduleScorers.weighted(new double[] { 100, 1 }, ScheduleScorers.fewestDays(),
+				ScheduleScorers.minimalGaps()).score(schedule), 0);
+	}
+
+	/**
+	 * Tests that the bounds of the built-in scorers are no lower than the score of a completion.
+	 */
+	@Test
+	public void testBound() {
+		ArrayList<Course> partial = new ArrayList<Course>();
+		partial.add(morning);
+		partial.add(afternoon);
+		ArrayList<Course> complete = new ArrayList<Course>(partial);
+		complete.add(noon);
+		ArrayList<ArrayList<Course>> remaining = new ArrayList<ArrayList<Course>>();
+		remaining.add(new ArrayList<Course>());
+		remaining.get(0).add(noon);
+		remaining.get(0).add(arranged);
+		List<ArrayList<Course>> none = new ArrayList<ArrayList<Course>>();
+
+		ScheduleScorer gaps = ScheduleScorers.minimalGaps();
+		assertEquals(0, gaps.bound(partial, remaining), 0);
+		assertEquals(gaps.score(complete), gaps.bound(complete, none), 0);
+
+		ScheduleScorer instructors = ScheduleScorers.preferredInstructors("tmbarnes");
+		assertEquals(1, instructors.bound(partial, remaining), 0);
+		assertEquals(0, instructors.bound(partial, none), 0);
+
+		ScheduleScorer days = ScheduleScorers.fewestDays();
+		assertEquals(-4, days.bound(partial, remaining), 0);
+		assertTrue(days.bound(partial, remaining) >= days.score(complete));
+	}
+
+	/**
+	 * Tests that weighted() rejects invalid weights.
+	 */
+	@Test
+	public void testWeightedInvalid() {
+		Exception e1 = assertThrows(IllegalArgumentException.class,
+				() -> ScheduleScorers.weighted(new double[] { 1 }, ScheduleScorers.fewestDays(), ScheduleScorers.minimalGaps()));
+		assertEquals("Invalid weights.", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class,
+				() -> ScheduleScorers.weighted(new double[] { -1 }, ScheduleScorers.fewestDays()));
+		assertEquals("Invalid weights.", e2.getMessage());
+	}
+}
@@ -0,0 +1,179 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ScheduleSessionManager class.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleSessionManagerTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+
+	/**
+	 * Tests creating a manager and getting and closing sessions.
+	 */
+	@Test
+	public void testSessions() {
+		CourseCatalog catalog = WolfScheduler.readCatalog(validTestFile);
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> new ScheduleSessionManager(catalog, 0));
+		assertEquals("Invalid idle timeout.", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> new ScheduleSessionManager(null, 1000));
+		assertEquals("Invalid catalog.", e2.getMessage());
+
+		ScheduleSessionManager manager = new ScheduleSessionManager(catalog, 1000);
+		assertSame(catalog, manager.getCatalog());
+		assertFalse(manager.hasSession("jdyoung2"));
+		ScheduleSession session = manager.getSession("jdyoung2");
+		assertSame(session, manager.getSession("jdyoung2"));
+		assertNotSame(session, manager.getSession("sesmith5"));
+		assertTrue(manager.hasSession("jdyoung2"));
+		assertEquals(2, manager.getSessionCount());
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> manager.getSession(null));
+		assertEquals("Invalid user.", e3.getMessage());
+
+		assertTrue(session.addCourseToSchedule("CSC 216", "001"));
+		assertEquals(1, manager.getEnrollmentTracker().getEnrolled("CSC 216", "001"));
+		assertTrue(manager.closeSession("jdyoung2"));
+		assertEquals(0, manager.getEnrollmentTracker().getEnrolled("CSC 216", "001"));
+		assertFalse(manager.closeSession("jdyoung2"));
+		assertEquals(0, manager.getSession("jdyoung2").getScheduledCourses().length);
+	}
+
+	/**
+	 * Tests evicting idle sessions.
+	 */
+	@Test
+	public void testEvictIdleSessions() {
+		ScheduleSessionManager manager = new ScheduleSessionManager(WolfScheduler.readCatalog(validTestFile), 1000);
+		ScheduleSession idle = manager.getSession("jdyoung2", 0);
+		assertTrue(idle.addCourseToSchedule("CSC 216", "001"));
+		manager.getSession("sesmith5", 0);
+		manager.getSession("tmbarnes", 0);
+
+		assertEquals(0, manager.evictIdleSessions(1000));
+		manager.getSession("sesmith5", 800);
+		assertEquals(2, manager.evictIdleSessions(1500));
+		assertEquals(2, manager.getEvictionCount());
+		assertFalse(manager.hasSession("jdyoung2"));
+		assertTrue(manager.hasSession("sesmith5"));
+
+		//An evicted session gives back its seats and ends, and the user's next session starts empty
+		assertEquals(0, idle.getScheduledCourses().length);
+		assertEquals(0, manager.getEnrollmentTracker().getEnrolled("CSC 216", "001"));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> idle.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The session has ended.", e.getMessage());
+		assertNotSame(idle, manager.getSession("jdyoung2", 1500));
+		assertEquals(0, manager.getSession("jdyoung2", 1500).getScheduledCourses().length);
+	}
+
+	/**
+	 * Tests users getting their sessions while the sessions are evicted.  In each round every
+	 * session was last used long enough ago to be evicted, and its user gets it again as it is
+	 * evicted.  Whichever happens first, the session the user gets must not be evicted.
+	 */
+	@Test
+	public void testEvictWhileUsed() throws Exception {
+		final int users = 4;
+		final int rounds = 2000;
+		final ScheduleSessionManager manager = new ScheduleSessionManager(WolfScheduler.readCatalog(validTestFile), 1000);
+		final CyclicBarrier barrier = new CyclicBarrier(users + 1);
+		ExecutorService pool = Executors.newFixedThreadPool(users + 1);
+		try {
+			ArrayList<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < users; t++) {
+				final String user = "user" + t;
+				results.add(pool.submit(() -> {
+					for (int round = 0; round < rounds; round++) {
+						barrier.await(10, TimeUnit.SECONDS);
+						ScheduleSession session = manager.getSession(user, 2000L * (round + 1));
+						barrier.await(10, TimeUnit.SECONDS);
+						assertSame(session, manager.getSession(user, 2000L * (round + 1)));
+						assertTrue(session.addCourseToSchedule("CSC 216", "001"));
+						assertTrue(session.removeCourseFromSchedule("CSC 216", "001"));
+					}
+					return 0;
+				}));
+			}
+			results.add(pool.submit(() -> {
+				int evicted = 0;
+				for (int round = 0; round < rounds; round++) {
+					barrier.await(10, TimeUnit.SECONDS);
+					evicted += manager.evictIdleSessions(2000L * round + 1500);
+					barrier.await(10, TimeUnit.SECONDS);
+				}
+				return evicted;
+			}));
+			for (int i = 0; i < results.size(); i++)
+				results.get(i).get();
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(users, manager.getSessionCount());
+	}
+
+	/**
+	 * Tests that replacing the catalog changes the catalog of every session.
+	 */
+	@Test
+	public void testReplaceCatalog() {
+		ScheduleSessionManager manager = new ScheduleSessionManager(WolfScheduler.readCatalog(validTestFile), 1000);
+		ScheduleSession session = manager.getSession("jdyoung2");
+		CourseCatalog old = manager.getCatalog();
+		assertSame(old, session.getCatalog());
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> manager.reloadCatalog("test-files/no_such_file.txt"));
+		assertEquals("Cannot find file.", e.getMessage());
+		assertSame(old, manager.getCatalog());
+		manager.reloadCatalog(validTestFile);
+		assertNotSame(old, manager.getCatalog());
+		assertSame(manager.getCatalog(), session.getCatalog());
+		assertSame(manager.getCatalog(), manager.getSession("sesmith5").getCatalog());
+	}
+
+	/**
+	 * Tests many users changing their schedules at once.
+	 */
+	@Test
+	public void testConcurrentSessions() throws Exception {
+		final ScheduleSessionManager manager = new ScheduleSessionManager(WolfScheduler.readCatalog(validTestFile), 60000);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			ArrayList<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < 4; t++) {
+				final int firstUser = t * 1000;
+				results.add(pool.submit(() -> {
+					for (int i = 0; i < 5000; i++) {
+						ScheduleSession session = manager.getSession("user" + (firstUser + i % 1000));
+						if (i < 1000)
+							assertTrue(session.addCourseToSchedule("CSC 226", "001"));
+						assertTrue(session.addCourseToSchedule("CSC 216", "001"));
+						assertTrue(session.removeCourseFromSchedule("CSC 216", "001"));
+					}
+					return 0;
+				}));
+			}
+			for (int i = 0; i < results.size(); i++)
+				results.get(i).get();
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(4000, manager.getSessionCount());
+		for (int i = 0; i < 4000; i++) {
+			String[][] schedule = manager.getSession("user" + i).getScheduledCourses();
+			assertEquals(1, schedule.length);
+			assertEquals("CSC 226", schedule[0][0]);
+		}
+	}
+}
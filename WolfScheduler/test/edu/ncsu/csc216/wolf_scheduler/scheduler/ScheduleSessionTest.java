@@ -0,0 +1,119 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the ScheduleSession class.
+ *
+ * @author Ben Morris
+ */
+public class ScheduleSessionTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Schedule exported by the tests */
+	private final String exportTestFile = "test-files/actual_session_schedule.txt";
+
+	/**
+	 * Tests the schedule operations.
+	 */
+	@Test
+	public void testSchedule() throws IOException {
+		ScheduleSessionManager manager = new ScheduleSessionManager(WolfScheduler.readCatalog(validTestFile), 1000);
+		ScheduleSession session = manager.getSession("jdyoung2");
+		assertEquals("My Schedule", session.getScheduleTitle());
+		assertEquals(0, session.getScheduledCourses().length);
+
+		assertTrue(session.addCourseToSchedule("CSC 216", "001"));
+		assertFalse(session.addCourseToSchedule("CSC 492", "001"));
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> session.addCourseToSchedule("CSC 216", "601"));
+		assertEquals("You are already enrolled in CSC 216", e1.getMessage());
+		assertTrue(session.addCourseToSchedule("CSC 116", "001"));
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> session.addCourseToSchedule("CSC 316", "001"));
+		assertEquals("The course cannot be added due to a conflict with CSC 116-001", e2.getMessage());
+		assertTrue(session.addCourseToSchedule("CSC 217", "601"));
+
+		String[][] schedule = session.getFullScheduledCourses();
+		assertEquals(3, schedule.length);
+		assertEquals("CSC 216", schedule[0][0]);
+		assertEquals("TH 1:30PM-2:45PM", schedule[0][5]);
+		assertEquals("CSC 116", session.getScheduledCourses()[1][0]);
+		assertEquals("Arranged", schedule[2][5]);
+
+		session.exportSchedule(exportTestFile);
+		ArrayList<String> lines = new ArrayList<String>(Files.readAllLines(FileSystems.getDefault().getPath(exportTestFile)));
+		assertEquals(3, lines.size());
+		assertEquals("CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1330,1445", lines.get(0));
+
+		assertFalse(session.removeCourseFromSchedule("CSC 216", "002"));
+		assertTrue(session.removeCourseFromSchedule("CSC 216", "001"));
+		assertFalse(session.removeCourseFromSchedule("CSC 216", "001"));
+		assertEquals(2, session.getScheduledCourses().length);
+		assertEquals("CSC 217", session.getScheduledCourses()[1][0]);
+
+		session.setScheduleTitle("Spring");
+		assertEquals("Spring", session.getScheduleTitle());
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> session.setScheduleTitle(null));
+		assertEquals("Title cannot be null", e3.getMessage());
+
+		session.resetSchedule();
+		assertEquals(0, session.getScheduledCourses().length);
+		assertTrue(session.addCourseToSchedule("CSC 216", "001"));
+	}
+
+	/**
+	 * Tests that a session re-resolves its schedule after the catalog is replaced.
+	 */
+	@Test
+	public void testReplaceCatalog() {
+		ScheduleSessionManager manager = new ScheduleSessionManager(WolfScheduler.readCatalog(validTestFile), 1000);
+		ScheduleSession session = manager.getSession("jdyoung2");
+		assertTrue(session.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(session.addCourseToSchedule("CSC 217", "211"));
+		assertTrue(session.addCourseToSchedule("CSC 230", "001"));
+
+		//CSC 217-211 is gone, and CSC 216-001 changes instructor and moves onto CSC 230-001
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 230", "C and Software Tools", "001", 3, "dbsturgi", "MW", 1145, 1300));
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "jctetter", "MW", 1100, 1215));
+		manager.replaceCatalog(new ListCatalog(courses));
+
+		String[][] schedule = session.getFullScheduledCourses();
+		assertEquals(1, schedule.length);
+		assertEquals("CSC 216", schedule[0][0]);
+		assertEquals("jctetter", schedule[0][4]);
+		assertTrue(session.removeCourseFromSchedule("CSC 216", "001"));
+		assertTrue(session.addCourseToSchedule("CSC 230", "001"));
+		assertFalse(session.addCourseToSchedule("CSC 217", "211"));
+	}
+
+	/**
+	 * Tests that sessions share the seats of a section with a capacity.
+	 */
+	@Test
+	public void testSectionCapacity() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445, 1));
+		ScheduleSessionManager manager = new ScheduleSessionManager(new ListCatalog(courses), 1000);
+		ScheduleSession first = manager.getSession("jdyoung2");
+		ScheduleSession second = manager.getSession("sesmith5");
+
+		assertTrue(first.addCourseToSchedule("CSC 216", "001"));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> second.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course CSC 216-001 is full.", e.getMessage());
+		assertEquals(0, second.getScheduledCourses().length);
+
+		assertTrue(first.removeCourseFromSchedule("CSC 216", "001"));
+		assertTrue(second.addCourseToSchedule("CSC 216", "001"));
+		assertEquals(1, manager.getEnrollmentTracker().getEnrolled("CSC 216", "001"));
+	}
+}
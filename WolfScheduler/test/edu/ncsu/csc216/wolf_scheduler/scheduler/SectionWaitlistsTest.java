@@ -0,0 +1,245 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests the SectionWaitlists class.
+ *
+ * @author Ben Morris
+ */
+public class SectionWaitlistsTest {
+
+	/** Number of threads in the concurrent test */
+	private static final int THREADS = 8;
+
+	/**
+	 * Returns a catalog with a section with a capacity, a section that conflicts with it, and
+	 * a section without a capacity
+	 * @param capacity seats in CSC 216-001
+	 * @return the catalog
+	 */
+	private static ListCatalog catalog(int capacity) {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445, capacity));
+		courses.add(new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "TH", 1400, 1515));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100));
+		return new ListCatalog(courses);
+	}
+
+	/**
+	 * Tests joining and leaving waitlists and promotion in the order sessions joined.
+	 */
+	@Test
+	public void testPromotion() {
+		final ArrayList<Runnable> tasks = new ArrayList<Runnable>();
+		ScheduleSessionManager manager = new ScheduleSessionManager(catalog(1), 1000, new EnrollmentTracker(tasks::add));
+		SectionWaitlists waitlists = manager.getWaitlists();
+		ScheduleSession first = manager.getSession("first");
+		ScheduleSession second = manager.getSession("second");
+		ScheduleSession third = manager.getSession("third");
+		ScheduleSession fourth = manager.getSession("fourth");
+
+		assertTrue(first.addCourseToSchedule("CSC 216", "001"));
+		assertFalse(second.joinWaitlist("CSC 492", "001"));
+		assertTrue(second.joinWaitlist("CSC 216", "001"));
+		assertTrue(third.joinWaitlist("CSC 216", "001"));
+		assertTrue(fourth.joinWaitlist("CSC 216", "001"));
+		assertEquals(3, waitlists.getWaitlistLength("CSC 216", "001"));
+		assertTrue(third.isWaiting("CSC 216", "001"));
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> second.joinWaitlist("CSC 216", "001"));
+		assertEquals("You are already waiting for CSC 216-001", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> first.joinWaitlist("CSC 216", "001"));
+		assertEquals("You are already enrolled in CSC 216", e2.getMessage());
+
+		//Joining schedules one promotion, which finds the section full
+		assertEquals(1, tasks.size());
+		runAll(tasks);
+		assertEquals(0, waitlists.getPromotionCount());
+		assertEquals(0, second.getScheduledCourses().length);
+
+		//Dropping frees the seat for the first session waiting, not for a new add
+		assertTrue(first.removeCourseFromSchedule("CSC 216", "001"));
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> first.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course CSC 216-001 is full.", e3.getMessage());
+		runAll(tasks);
+		assertEquals(1, waitlists.getPromotionCount());
+		assertEquals("CSC 216", second.getScheduledCourses()[0][0]);
+		assertFalse(second.isWaiting("CSC 216", "001"));
+		assertEquals(2, waitlists.getWaitlistLength("CSC 216", "001"));
+
+		//A session whose Course now conflicts is passed over, and one that left isn't promoted
+		assertTrue(third.addCourseToSchedule("CSC 226", "001"));
+		assertTrue(fourth.leaveWaitlist("CSC 216", "001"));
+		assertFalse(fourth.leaveWaitlist("CSC 216", "001"));
+		assertTrue(second.removeCourseFromSchedule("CSC 216", "001"));
+		runAll(tasks);
+		assertEquals(1, waitlists.getPromotionCount());
+		assertFalse(third.isWaiting("CSC 216", "001"));
+		assertEquals(1, third.getScheduledCourses().length);
+		assertFalse(waitlists.hasWaiting("CSC 216", "001"));
+		assertTrue(first.addCourseToSchedule("CSC 216", "001"));
+	}
+
+	/**
+	 * Tests that drops before a promotion runs are given out by one promotion, and that closed
+	 * sessions leave their waitlists.
+	 */
+	@Test
+	public void testBatchedPromotion() {
+		final ArrayList<Runnable> tasks = new ArrayList<Runnable>();
+		ScheduleSessionManager manager = new ScheduleSessionManager(catalog(3), 1000, new EnrollmentTracker(tasks::add));
+		SectionWaitlists waitlists = manager.getWaitlists();
+		for (int i = 0; i < 3; i++)
+			assertTrue(manager.getSession("holder" + i).addCourseToSchedule("CSC 216", "001"));
+		for (int i = 0; i < 4; i++)
+			assertTrue(manager.getSession("waiting" + i).joinWaitlist("CSC 216", "001"));
+		runAll(tasks);
+		assertEquals(1, waitlists.getBatchCount());
+
+		manager.closeSession("waiting0");
+		assertEquals(3, waitlists.getWaitlistLength("CSC 216", "001"));
+		for (int i = 0; i < 3; i++)
+			assertTrue(manager.getSession("holder" + i).removeCourseFromSchedule("CSC 216", "001"));
+		assertEquals(1, tasks.size());
+		runAll(tasks);
+		assertEquals(2, waitlists.getBatchCount());
+		assertEquals(3, waitlists.getPromotionCount());
+		for (int i = 1; i < 4; i++)
+			assertEquals(1, manager.getSession("waiting" + i).getScheduledCourses().length);
+		assertEquals(3, manager.getEnrollmentTracker().getEnrolled("CSC 216", "001"));
+
+		//A section with open seats promotes as soon as a session joins
+		assertTrue(manager.getSession("waiting1").joinWaitlist("CSC 116", "001"));
+		runAll(tasks);
+		assertEquals(2, manager.getSession("waiting1").getScheduledCourses().length);
+	}
+
+	/**
+	 * Tests that a new catalog giving a section more seats promotes its waiting sessions.
+	 */
+	@Test
+	public void testCapacityRaised() {
+		final ArrayList<Runnable> tasks = new ArrayList<Runnable>();
+		ScheduleSessionManager manager = new ScheduleSessionManager(catalog(1), 1000, new EnrollmentTracker(tasks::add));
+		SectionWaitlists waitlists = manager.getWaitlists();
+		assertTrue(manager.getSession("holder").addCourseToSchedule("CSC 216", "001"));
+		assertTrue(manager.getSession("first").joinWaitlist("CSC 216", "001"));
+		assertTrue(manager.getSession("second").joinWaitlist("CSC 216", "001"));
+		runAll(tasks);
+		assertEquals(0, waitlists.getPromotionCount());
+
+		manager.replaceCatalog(catalog(2));
+		assertEquals(1, tasks.size());
+		runAll(tasks);
+		assertEquals(1, waitlists.getPromotionCount());
+		assertEquals(1, manager.getSession("first").getScheduledCourses().length);
+		assertEquals(1, waitlists.getWaitlistLength("CSC 216", "001"));
+
+		//Seats added while someone still waits go to the waitlist, not to a new add
+		manager.replaceCatalog(catalog(4));
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> manager.getSession("third").addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course CSC 216-001 is full.", e.getMessage());
+		runAll(tasks);
+		assertEquals(1, manager.getSession("second").getScheduledCourses().length);
+		assertFalse(waitlists.hasWaiting("CSC 216", "001"));
+		assertTrue(manager.getSession("third").addCourseToSchedule("CSC 216", "001"));
+	}
+
+	/**
+	 * Tests that a promotion the executor rejects still runs.
+	 */
+	@Test
+	public void testRejectedPromotion() throws Exception {
+		final ArrayList<Runnable> tasks = new ArrayList<Runnable>();
+		final AtomicBoolean reject = new AtomicBoolean();
+		ScheduleSessionManager manager = new ScheduleSessionManager(catalog(1), 1000, new EnrollmentTracker(r -> {
+			if (reject.getAndSet(false))
+				throw new RejectedExecutionException();
+			tasks.add(r);
+		}));
+		SectionWaitlists waitlists = manager.getWaitlists();
+		assertTrue(manager.getSession("holder").addCourseToSchedule("CSC 216", "001"));
+		assertTrue(manager.getSession("waiting").joinWaitlist("CSC 216", "001"));
+		runAll(tasks);
+		reject.set(true);
+		assertTrue(manager.getSession("holder").removeCourseFromSchedule("CSC 216", "001"));
+		assertFalse(reject.get());
+		long deadline = System.currentTimeMillis() + 10000;
+		while (waitlists.getPromotionCount() == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertEquals(1, waitlists.getPromotionCount());
+		assertEquals(1, manager.getSession("waiting").getScheduledCourses().length);
+		assertTrue(tasks.isEmpty());
+
+		//Later promotions are scheduled on the executor again
+		assertTrue(manager.getSession("holder").joinWaitlist("CSC 216", "001"));
+		assertTrue(manager.getSession("waiting").removeCourseFromSchedule("CSC 216", "001"));
+		assertFalse(tasks.isEmpty());
+		runAll(tasks);
+		assertEquals(1, manager.getSession("holder").getScheduledCourses().length);
+	}
+
+	/**
+	 * Tests threads dropping a section while its waitlist is promoted on a background executor.
+	 * The seats must go to the sessions that joined first, in order.
+	 */
+	@Test
+	public void testConcurrentDrops() throws Exception {
+		final int seats = THREADS * 4;
+		ExecutorService promoter = Executors.newSingleThreadExecutor();
+		final ScheduleSessionManager manager = new ScheduleSessionManager(catalog(seats), 1000, new EnrollmentTracker(promoter));
+		for (int i = 0; i < seats; i++)
+			assertTrue(manager.getSession("holder" + i).addCourseToSchedule("CSC 216", "001"));
+		for (int i = 0; i < seats * 2; i++)
+			assertTrue(manager.getSession("waiting" + i).joinWaitlist("CSC 216", "001"));
+
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		ArrayList<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+		for (int t = 0; t < THREADS; t++) {
+			final int offset = t;
+			results.add(pool.submit(() -> {
+				start.await();
+				boolean removed = true;
+				for (int i = offset; i < seats; i += THREADS)
+					removed &= manager.getSession("holder" + i).removeCourseFromSchedule("CSC 216", "001");
+				return removed;
+			}));
+		}
+		start.countDown();
+		for (int i = 0; i < results.size(); i++)
+			assertTrue(results.get(i).get());
+		pool.shutdown();
+		promoter.shutdown();
+		assertTrue(promoter.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(seats, manager.getWaitlists().getPromotionCount());
+		assertEquals(seats, manager.getWaitlists().getWaitlistLength("CSC 216", "001"));
+		assertTrue(manager.getWaitlists().getBatchCount() <= seats);
+		for (int i = 0; i < seats * 2; i++)
+			assertEquals(i < seats, manager.getSession("waiting" + i).getScheduledCourses().length == 1);
+	}
+
+	/**
+	 * Runs and clears the tasks given to the executor, including any they schedule
+	 * @param tasks tasks given to the executor
+	 */
+	private static void runAll(ArrayList<Runnable> tasks) {
+		while (!tasks.isEmpty())
+			tasks.remove(0).run();
+	}
+}
@@ -10,7 +10,13 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
@@ -26,6 +32,8 @@ public class WolfSchedulerTest {
 	private final String validTestFile = "test-files/course_records.txt";
 	/** Invalid course records */
 	private final String invalidTestFile = "test-files/invalid_course_records.txt";
+	/** Updated course records written by the reload tests */
+	private final String reloadTestFile = "test-files/actual_reload_records.txt";
 	
 	/** Course name */
 	private static final String NAME = "CSC 216";
@@ -89,11 +97,36 @@ public class WolfSchedulerTest {
 		//Attempt to get a course that doesn't exist
 		assertNull(ws.getCourseFromCatalog("CSC 492", "001"));
 		
+		//Attempt to get a section that doesn't exist for a course that does
+		assertNull(ws.getCourseFromCatalog("CSC 216", "003"));
+		
+		//The first of two records with the same name and section is the one kept
+		assertEquals("spbalik", ws.getCourseFromCatalog("CSC 116", "002").getInstructorId());
+		
 		//Attempt to get a course that does exist
 		Course c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
 		assertEquals(c, ws.getCourseFromCatalog("CSC 216", "001"));
 	}
 	
+	/**
+	 * Test WolfScheduler.size(), getCourse(), and getSections().
+	 */
+	@Test
+	public void testCatalogQueries() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertEquals(13, ws.size());
+		assertEquals("CSC 116", ws.getCourse(0).getName());
+		assertEquals("CSC 316", ws.getCourse(12).getName());
+		assertThrows(IndexOutOfBoundsException.class, () -> ws.getCourse(13));
+		
+		//Sections are in catalog order
+		ArrayList<Course> sections = ws.getSections("CSC 217");
+		assertEquals(4, sections.size());
+		assertEquals("202", sections.get(0).getSection());
+		assertEquals("601", sections.get(3).getSection());
+		assertEquals(0, ws.getSections("CSC 492").size());
+	}
+	
 	/**
 	 * Test WolfScheduler.addCourse().
 	 */
@@ -129,6 +162,117 @@ public class WolfSchedulerTest {
 		}
 	}
 	
+	/**
+	 * Test WolfScheduler.addCourse() with Courses that meet at the same time.
+	 */
+	@Test
+	public void testAddCourseConflict() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		
+		assertTrue(ws.addCourseToSchedule("CSC 116", "001"));
+		
+		//Overlaps CSC 116-001 on Monday and Wednesday
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> ws.addCourseToSchedule("CSC 226", "001"));
+		assertEquals("The course cannot be added due to a conflict with CSC 116-001", e1.getMessage());
+		assertEquals(1, ws.getScheduledCourses().length);
+		
+		//Arranged and non-overlapping courses can be added
+		assertTrue(ws.addCourseToSchedule("CSC 216", "601"));
+		assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 217", "211"));
+		
+		//Another section of a removed Course can be added
+		assertTrue(ws.removeCourseFromSchedule("CSC 216", "601"));
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		
+		//Removing a Course frees its time
+		assertTrue(ws.removeCourseFromSchedule("CSC 116", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+		
+		//Resetting the schedule frees every time
+		ws.resetSchedule();
+		assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> ws.addCourseToSchedule("CSC 230", "001"));
+		assertEquals("The course cannot be added due to a conflict with CSC 116-002", e2.getMessage());
+		
+		//A Course starting the minute another ends on the same day conflicts with it
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 217", "Software Development Fundamentals Lab", "211", 1, "sesmith5", "T", 830, 1020));
+		courses.add(new Course("CSC 316", "Data Structures and Algorithms", "001", 3, "jtking", "TH", 1020, 1135));
+		courses.add(new Course("CSC 316", "Data Structures and Algorithms", "002", 3, "jtking", "TH", 1021, 1135));
+		WolfScheduler boundary = new WolfScheduler(new ListCatalog(courses));
+		assertTrue(boundary.addCourseToSchedule("CSC 217", "211"));
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> boundary.addCourseToSchedule("CSC 316", "001"));
+		assertEquals("The course cannot be added due to a conflict with CSC 217-211", e3.getMessage());
+		assertTrue(boundary.addCourseToSchedule("CSC 316", "002"));
+	}
+	
+	/**
+	 * Test WolfScheduler.generateSchedules().
+	 */
+	@Test
+	public void testGenerateSchedules() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		
+		ArrayList<String> names = new ArrayList<String>();
+		names.add("CSC 116");
+		names.add("CSC 226");
+		names.add("CSC 116");
+		names.add("CSC 230");
+		ArrayList<ArrayList<Course>> schedules = ws.generateSchedules(names, 10, 0);
+		
+		//CSC 226 rules out CSC 116-001, and CSC 230-001 only fits with CSC 116-003
+		assertEquals(1, schedules.size());
+		assertEquals(3, schedules.get(0).size());
+		assertEquals(ws.getCourseFromCatalog("CSC 116", "003"), schedules.get(0).get(0));
+		assertEquals(ws.getCourseFromCatalog("CSC 226", "001"), schedules.get(0).get(1));
+		assertEquals(ws.getCourseFromCatalog("CSC 230", "001"), schedules.get(0).get(2));
+		
+		//Sections come from the catalog in catalog order
+		names.clear();
+		names.add("CSC 216");
+		names.add("CSC 217");
+		schedules = ws.generateSchedules(names, 100, 1000);
+		assertEquals(12, schedules.size());
+		assertEquals("001", schedules.get(0).get(0).getSection());
+		assertEquals("202", schedules.get(0).get(1).getSection());
+		assertEquals(2, ws.generateSchedules(names, 2, 0).size());
+		
+		//A name that isn't in the catalog can't be scheduled
+		names.add("CSC 492");
+		assertEquals(0, ws.generateSchedules(names, 10, 0).size());
+		
+		//The schedule isn't changed
+		assertEquals(0, ws.getScheduledCourses().length);
+	}
+	
+	/**
+	 * Test WolfScheduler.generateBestSchedules().
+	 */
+	@Test
+	public void testGenerateBestSchedules() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		
+		ArrayList<String> names = new ArrayList<String>();
+		names.add("CSC 216");
+		names.add("CSC 217");
+		
+		//Both arranged sections meet on no days, then CSC 216-601 with a one-day lab is next
+		ArrayList<ArrayList<Course>> best = ws.generateBestSchedules(names, 3, ScheduleScorers.fewestDays(), 0);
+		assertEquals(3, best.size());
+		assertEquals(ws.getCourseFromCatalog("CSC 216", "601"), best.get(0).get(0));
+		assertEquals(ws.getCourseFromCatalog("CSC 217", "601"), best.get(0).get(1));
+		assertEquals(-1, ScheduleScorers.fewestDays().score(best.get(1)), 0);
+		assertEquals(-1, ScheduleScorers.fewestDays().score(best.get(2)), 0);
+		
+		//Only one section is taught by ixdoming
+		best = ws.generateBestSchedules(names, 1, ScheduleScorers.preferredInstructors("ixdoming"), 0);
+		assertEquals(ws.getCourseFromCatalog("CSC 216", "002"), best.get(0).get(0));
+		
+		//The schedule isn't changed
+		assertEquals(0, ws.getScheduledCourses().length);
+	}
+	
 	/**
 	 * Test WolfScheduler.removeCourse().
 	 */
@@ -326,6 +470,298 @@ public class WolfSchedulerTest {
 		assertEquals("MW 11:20AM-1:10PM", schedule[2][5]);
 	}
 	
+	/**
+	 * Test that the table arrays are cached until the catalog or schedule changes.
+	 */
+	@Test
+	public void testCachedTables() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		
+		String[][] catalog = ws.getCourseCatalog();
+		String[][] scheduled = ws.getScheduledCourses();
+		String[][] full = ws.getFullScheduledCourses();
+		assertSame(catalog, ws.getCourseCatalog());
+		assertSame(scheduled, ws.getScheduledCourses());
+		assertSame(full, ws.getFullScheduledCourses());
+		
+		//Adding a Course rebuilds the schedule arrays but not the catalog
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		assertSame(catalog, ws.getCourseCatalog());
+		assertEquals(1, ws.getScheduledCourses().length);
+		assertEquals(1, ws.getFullScheduledCourses().length);
+		scheduled = ws.getScheduledCourses();
+		full = ws.getFullScheduledCourses();
+		assertEquals(SECTION, full[0][1]);
+		
+		//Failed changes leave the arrays in place
+		assertFalse(ws.addCourseToSchedule("CSC 492", "001"));
+		assertFalse(ws.removeCourseFromSchedule("CSC 116", "001"));
+		assertSame(scheduled, ws.getScheduledCourses());
+		assertSame(full, ws.getFullScheduledCourses());
+		
+		assertTrue(ws.removeCourseFromSchedule(NAME, SECTION));
+		assertEquals(0, ws.getScheduledCourses().length);
+		assertEquals(0, ws.getFullScheduledCourses().length);
+		
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		assertEquals(1, ws.getScheduledCourses().length);
+		ws.resetSchedule();
+		assertEquals(0, ws.getScheduledCourses().length);
+		assertEquals(0, ws.getFullScheduledCourses().length);
+		assertSame(catalog, ws.getCourseCatalog());
+	}
+	
+	/**
+	 * Test WolfScheduler.reloadCatalog() re-resolving the schedule against the new catalog.
+	 */
+	@Test
+	public void testReloadCatalog() throws IOException {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.setScheduleTitle("Fall");
+		assertTrue(ws.addCourseToSchedule("CSC 116", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 217", "211"));
+		Course oldCsc230 = ws.getCourseFromCatalog("CSC 230", "001");
+		Course oldCsc217 = ws.getCourseFromCatalog("CSC 217", "211");
+		String[][] oldCatalog = ws.getCourseCatalog();
+		
+		//CSC 116-001 moves onto CSC 230-001, CSC 216-001 changes instructor, and CSC 217-211 is gone
+		Files.write(FileSystems.getDefault().getPath(reloadTestFile), Arrays.asList(
+				"CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,1150,1300",
+				"CSC 216,Software Development Fundamentals,001,3,jctetter,TH,1330,1445",
+				"CSC 230,C and Software Tools,001,3,dbsturgi,MW,1145,1300"));
+		ArrayList<Course> dropped = ws.reloadCatalog(reloadTestFile);
+		
+		assertEquals(2, dropped.size());
+		assertSame(oldCsc230, dropped.get(0));
+		assertSame(oldCsc217, dropped.get(1));
+		assertEquals(3, ws.getCourseCatalog().length);
+		assertNotSame(oldCatalog, ws.getCourseCatalog());
+		assertSame(ws.getCourseCatalog(), ws.getCourseCatalog());
+		assertEquals("Fall", ws.getScheduleTitle());
+		String[][] schedule = ws.getFullScheduledCourses();
+		assertEquals(2, schedule.length);
+		assertEquals("MW 11:50AM-1:00PM", schedule[0][5]);
+		assertEquals("jctetter", schedule[1][4]);
+		
+		//The schedule index was rebuilt from the new Courses
+		Exception e = assertThrows(IllegalArgumentException.class, () -> ws.addCourseToSchedule("CSC 230", "001"));
+		assertEquals("The course cannot be added due to a conflict with CSC 116-001", e.getMessage());
+		assertTrue(ws.removeCourseFromSchedule("CSC 116", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
+		
+		//A file that can't be read leaves the catalog and schedule alone
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> ws.reloadCatalog("test-files/no_such_file.txt"));
+		assertEquals("Cannot find file.", e2.getMessage());
+		assertEquals(3, ws.getCourseCatalog().length);
+		assertEquals(2, ws.getScheduledCourses().length);
+	}
+	
+	/**
+	 * Test WolfScheduler.reloadCatalogInBackground() while other threads read the catalog.
+	 */
+	@Test
+	public void testReloadCatalogInBackground() throws Exception {
+		final WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		Files.write(FileSystems.getDefault().getPath(reloadTestFile), Arrays.asList(
+				"CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1330,1445"));
+		
+		ExecutorService pool = Executors.newFixedThreadPool(3);
+		try {
+			//Readers only ever see one of the two whole catalogs
+			ArrayList<Future<Boolean>> readers = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < 2; i++) {
+				readers.add(pool.submit(() -> {
+					for (int j = 0; j < 2000; j++) {
+						int length = ws.getCourseCatalog().length;
+						if (length != 13 && length != 1)
+							return false;
+					}
+					return true;
+				}));
+			}
+			for (int i = 0; i < 10; i++) {
+				assertEquals(0, ws.reloadCatalogInBackground(i % 2 == 0 ? reloadTestFile : validTestFile, pool).get().size());
+			}
+			for (Future<Boolean> reader : readers)
+				assertTrue(reader.get());
+			
+			assertEquals(13, ws.getCourseCatalog().length);
+			assertEquals(1, ws.getScheduledCourses().length);
+			
+			Future<ArrayList<Course>> failed = ws.reloadCatalogInBackground("test-files/no_such_file.txt", pool);
+			ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get());
+			assertEquals("Cannot find file.", e.getCause().getMessage());
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Test WolfScheduler.applyCatalogDelta() and WolfScheduler.diffCatalog().
+	 */
+	@Test
+	public void testApplyCatalogDelta() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertTrue(ws.addCourseToSchedule("CSC 116", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 217", "211"));
+		Course oldCsc217 = ws.getCourseFromCatalog("CSC 217", "211");
+		String[][] oldCatalog = ws.getCourseCatalog();
+		
+		CatalogDelta delta = new CatalogDelta().update(new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jtking", "MW", 910, 1100))
+				.remove("CSC 217", "211").add(new Course("CSC 417", "Theory of Programming Languages", "001", 3, "jtking", "TH", 1500, 1615));
+		ArrayList<Course> dropped = ws.applyCatalogDelta(delta);
+		assertEquals(1, dropped.size());
+		assertSame(oldCsc217, dropped.get(0));
+		String[][] newCatalog = ws.getCourseCatalog();
+		assertEquals(oldCatalog.length, newCatalog.length);
+		assertNotSame(oldCatalog, newCatalog);
+		assertNull(ws.getCourseFromCatalog("CSC 217", "211"));
+		assertEquals("Theory of Programming Languages", ws.getCourseFromCatalog("CSC 417", "001").getTitle());
+		String[][] schedule = ws.getFullScheduledCourses();
+		assertEquals(2, schedule.length);
+		assertEquals("jtking", schedule[0][4]);
+		
+		//An invalid change leaves the catalog and schedule alone
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ws.applyCatalogDelta(new CatalogDelta().remove("CSC 216", "001").remove("CSC 217", "211")));
+		assertEquals("The course CSC 217-211 is not in the catalog.", e.getMessage());
+		assertNotNull(ws.getCourseFromCatalog("CSC 216", "001"));
+		assertEquals(2, ws.getScheduledCourses().length);
+		assertSame(newCatalog, ws.getCourseCatalog());
+		
+		//Diffing against the original file undoes the delta
+		CatalogDelta undo = ws.diffCatalog(validTestFile);
+		assertEquals("1 added, 1 updated, 1 removed", undo.toString());
+		assertEquals(0, ws.applyCatalogDelta(undo).size());
+		assertEquals("jdyoung2", ws.getFullScheduledCourses()[0][4]);
+		assertNull(ws.getCourseFromCatalog("CSC 417", "001"));
+		assertEquals(0, ws.diffCatalog(validTestFile).size());
+	}
+	
+	/**
+	 * Test that schedulers sharing an EnrollmentTracker can't enroll a section past its capacity.
+	 */
+	@Test
+	public void testSectionCapacity() {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445, 1));
+		courses.add(new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025));
+		ListCatalog catalog = new ListCatalog(courses);
+		EnrollmentTracker enrollment = new EnrollmentTracker();
+		WolfScheduler first = new WolfScheduler(catalog, enrollment);
+		WolfScheduler second = new WolfScheduler(catalog, enrollment);
+		assertSame(enrollment, first.getEnrollmentTracker());
+		
+		assertTrue(first.addCourseToSchedule("CSC 216", "001"));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> second.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course CSC 216-001 is full.", e.getMessage());
+		assertEquals(0, second.getScheduledCourses().length);
+		assertEquals(1, enrollment.getRejectedCount());
+		
+		//Sections without a capacity never fill
+		assertTrue(first.addCourseToSchedule("CSC 226", "001"));
+		assertTrue(second.addCourseToSchedule("CSC 226", "001"));
+		assertEquals(2, enrollment.getEnrolled("CSC 226", "001"));
+		
+		//Removing a Course gives its seat to the next scheduler
+		assertTrue(first.removeCourseFromSchedule("CSC 216", "001"));
+		assertTrue(second.addCourseToSchedule("CSC 216", "001"));
+		second.resetSchedule();
+		assertEquals(0, enrollment.getEnrolled("CSC 216", "001"));
+		assertEquals(1, enrollment.getEnrolled("CSC 226", "001"));
+		
+		//Courses dropped by a new catalog give back their seats
+		first.replaceCatalog(new ListCatalog(new ArrayList<Course>()));
+		assertEquals(0, enrollment.getEnrolled("CSC 226", "001"));
+	}
+	
+	/**
+	 * Test WolfScheduler.applyScheduleChange().
+	 */
+	@Test
+	public void testApplyScheduleChange() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 217", "211"));
+		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+		int modCount = ws.scheduleModCount;
+		
+		//Swap the lecture and lab sections, with the adds given before the drops
+		ws.applyScheduleChange(new ScheduleChange().add("CSC 216", "002").add("CSC 217", "202")
+				.drop("CSC 216", "001").drop("CSC 217", "211"));
+		assertEquals(modCount + 1, ws.scheduleModCount);
+		String[][] schedule = ws.getScheduledCourses();
+		assertEquals(3, schedule.length);
+		assertEquals("CSC 226", schedule[0][0]);
+		assertEquals("002", schedule[1][1]);
+		assertEquals("202", schedule[2][1]);
+		
+		//Any invalid change leaves the schedule alone
+		assertScheduleChangeFails(ws, new ScheduleChange().drop("CSC 226", "001").drop("CSC 216", "001"),
+				"The course CSC 216-001 is not in your schedule.");
+		assertScheduleChangeFails(ws, new ScheduleChange().drop("CSC 226", "001").drop("CSC 226", "001"),
+				"The course CSC 226-001 is not in your schedule.");
+		assertScheduleChangeFails(ws, new ScheduleChange().drop("CSC 226", "001").add("CSC 492", "001"),
+				"The course CSC 492-001 is not in the catalog.");
+		assertScheduleChangeFails(ws, new ScheduleChange().add("CSC 216", "601"),
+				"You are already enrolled in CSC 216");
+		assertScheduleChangeFails(ws, new ScheduleChange().add("CSC 116", "003").add("CSC 116", "001"),
+				"You are already enrolled in CSC 116");
+		assertScheduleChangeFails(ws, new ScheduleChange().drop("CSC 217", "202").add("CSC 116", "002").add("CSC 230", "001"),
+				"The course cannot be added due to a conflict with CSC 116-002");
+		assertScheduleChangeFails(ws, new ScheduleChange().drop("CSC 217", "202").add("CSC 316", "001"),
+				"The course cannot be added due to a conflict with CSC 226-001");
+		assertEquals(modCount + 1, ws.scheduleModCount);
+		assertArrayEquals(schedule, ws.getScheduledCourses());
+		
+		//Seats claimed for a change that fails are given back
+		ArrayList<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445, 1));
+		courses.add(new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", "MWF", 935, 1025, 5));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "TH", 800, 915, 1));
+		ListCatalog catalog = new ListCatalog(courses);
+		EnrollmentTracker enrollment = new EnrollmentTracker();
+		WolfScheduler first = new WolfScheduler(catalog, enrollment);
+		WolfScheduler second = new WolfScheduler(catalog, enrollment);
+		assertTrue(first.addCourseToSchedule("CSC 216", "001"));
+		assertScheduleChangeFails(second, new ScheduleChange().add("CSC 226", "001").add("CSC 216", "001"),
+				"The course CSC 216-001 is full.");
+		assertEquals(0, enrollment.getEnrolled("CSC 226", "001"));
+		
+		//Dropped Courses give back their seats
+		first.applyScheduleChange(new ScheduleChange().drop("CSC 216", "001").add("CSC 226", "001"));
+		second.applyScheduleChange(new ScheduleChange().add("CSC 226", "001").add("CSC 216", "001"));
+		assertEquals(1, enrollment.getEnrolled("CSC 216", "001"));
+		assertEquals(2, enrollment.getEnrolled("CSC 226", "001"));
+		
+		//A section dropped and added again keeps its seat, even when it is full
+		second.applyScheduleChange(new ScheduleChange().drop("CSC 216", "001").add("CSC 216", "001"));
+		assertEquals(1, enrollment.getEnrolled("CSC 216", "001"));
+		assertEquals(2, second.getScheduledCourses().length);
+		assertTrue(first.addCourseToSchedule("CSC 116", "001"));
+		assertScheduleChangeFails(second, new ScheduleChange().drop("CSC 216", "001").add("CSC 216", "001").add("CSC 116", "001"),
+				"The course CSC 116-001 is full.");
+		assertEquals(1, enrollment.getEnrolled("CSC 216", "001"));
+		assertEquals(1, enrollment.getEnrolled("CSC 116", "001"));
+	}
+	
+	/**
+	 * Helper method to check that a schedule change is rejected without changing the schedule
+	 * @param ws scheduler to change
+	 * @param change change to apply
+	 * @param message expected message
+	 */
+	private void assertScheduleChangeFails(WolfScheduler ws, ScheduleChange change, String message) {
+		String[][] schedule = ws.getFullScheduledCourses();
+		Exception e = assertThrows(IllegalArgumentException.class, () -> ws.applyScheduleChange(change));
+		assertEquals(message, e.getMessage());
+		assertArrayEquals(schedule, ws.getFullScheduledCourses());
+	}
+	
 	/**
 	 * Test WolfScheduler.setTitle().
 	 */
@@ -365,6 +801,20 @@ public class WolfSchedulerTest {
 		checkFiles("test-files/expected_schedule_export.txt", "test-files/actual_schedule_export.txt");
 	}
 	
+	/**
+	 * Test WolfScheduler.exportCatalogSnapshot() and loading the snapshot.
+	 */
+	@Test
+	public void testExportCatalogSnapshot() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.exportCatalogSnapshot("test-files/actual_catalog_snapshot.dat");
+		
+		WolfScheduler fromSnapshot = new WolfScheduler("test-files/actual_catalog_snapshot.dat");
+		assertArrayEquals(ws.getCourseCatalog(), fromSnapshot.getCourseCatalog());
+		assertTrue(fromSnapshot.addCourseToSchedule(NAME, SECTION));
+		assertEquals("TH 1:30PM-2:45PM", fromSnapshot.getFullScheduledCourses()[0][5]);
+	}
+	
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output